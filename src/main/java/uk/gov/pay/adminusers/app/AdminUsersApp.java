@@ -19,7 +19,9 @@ import uk.gov.pay.adminusers.app.healthchecks.DependentResourceWaitCommand;
 import uk.gov.pay.adminusers.app.healthchecks.MigrateToInitialDbState;
 import uk.gov.pay.adminusers.exception.ConflictExceptionMapper;
 import uk.gov.pay.adminusers.exception.NotFoundExceptionMapper;
+import uk.gov.pay.adminusers.exception.OptimisticLockExceptionMapper;
 import uk.gov.pay.adminusers.exception.ValidationExceptionMapper;
+import uk.gov.pay.adminusers.filters.BulkheadFilter;
 import uk.gov.pay.adminusers.filters.LoggingMDCRequestFilter;
 import uk.gov.pay.adminusers.filters.LoggingMDCResponseFilter;
 import uk.gov.pay.adminusers.resources.EmailResource;
@@ -31,6 +33,7 @@ import uk.gov.pay.adminusers.resources.InviteResource;
 import uk.gov.pay.adminusers.resources.ResetPasswordResource;
 import uk.gov.pay.adminusers.resources.ServiceResource;
 import uk.gov.pay.adminusers.resources.UserResource;
+import uk.gov.pay.adminusers.service.ExpiredRecordsPurger;
 import uk.gov.pay.commons.utils.healthchecks.DatabaseHealthCheck;
 import uk.gov.pay.commons.utils.metrics.DatabaseMetricsService;
 import uk.gov.pay.commons.utils.xray.Xray;
@@ -76,9 +79,11 @@ public class AdminUsersApp extends Application<AdminUsersConfig> {
         injector.getInstance(PersistenceServiceInitialiser.class);
 
         initialiseMetrics(configuration, environment);
+        scheduleExpiredRecordsPurge(configuration, environment, injector.getInstance(ExpiredRecordsPurger.class));
 
         environment.jersey().register(injector.getInstance(LoggingMDCRequestFilter.class));
         environment.jersey().register(injector.getInstance(LoggingMDCResponseFilter.class));
+        environment.jersey().register(injector.getInstance(BulkheadFilter.class));
         environment.servlets().addFilter("LoggingFilter", new LoggingFilter())
                 .addMappingForUrlPatterns(of(REQUEST), true, "/v1/*");
 
@@ -97,10 +102,21 @@ public class AdminUsersApp extends Application<AdminUsersConfig> {
         environment.jersey().register(new InvalidEmailRequestExceptionMapper());
         environment.jersey().register(new InvalidMerchantDetailsExceptionMapper());
         environment.jersey().register(new ConflictExceptionMapper());
+        environment.jersey().register(new OptimisticLockExceptionMapper());
 
         Xray.init(environment, "pay-adminusers", java.util.Optional.empty(), "/v1/*");
     }
 
+    private void scheduleExpiredRecordsPurge(AdminUsersConfig configuration, Environment environment, ExpiredRecordsPurger expiredRecordsPurger) {
+        long intervalMillis = configuration.getExpiredRecordsPurgeConfiguration().getInterval().toMilliseconds();
+        environment
+                .lifecycle()
+                .scheduledExecutorService("expired-records-purger")
+                .threads(1)
+                .build()
+                .scheduleWithFixedDelay(expiredRecordsPurger::purgeAll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
     private void initialiseMetrics(AdminUsersConfig configuration, Environment environment) {
         DatabaseMetricsService metricsService = new DatabaseMetricsService(configuration.getDataSourceFactory(), environment.metrics(), "adminusers");
 
@@ -5,6 +5,7 @@ import io.dropwizard.Configuration;
 import io.dropwizard.db.DataSourceFactory;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 public class AdminUsersConfig extends Configuration {
@@ -41,9 +42,37 @@ public class AdminUsersConfig extends Configuration {
     @NotNull
     private Integer forgottenPasswordExpiryMinutes;
 
+    @NotNull
+    @Min(1)
+    private Integer maxConcurrentInviteEmails;
+
+    @NotNull
+    @Min(1)
+    private Integer maxQueuedInviteEmails;
+
     @NotNull
     private SecondFactorAuthConfiguration secondFactorAuthConfiguration;
 
+    @Valid
+    @NotNull
+    private BulkheadsConfiguration bulkheadsConfiguration;
+
+    @Valid
+    @NotNull
+    private ExpiredRecordsPurgeConfiguration expiredRecordsPurgeConfiguration;
+
+    @Valid
+    @NotNull
+    private ForgottenPasswordThrottleConfiguration forgottenPasswordThrottleConfiguration;
+
+    @Valid
+    @NotNull
+    private NotifyRequestsConfiguration notifyRequestsConfiguration;
+
+    @Valid
+    @NotNull
+    private ServiceLookupCoalescingConfiguration serviceLookupCoalescingConfiguration;
+
     @JsonProperty("secondFactorAuthentication")
     public SecondFactorAuthConfiguration getSecondFactorAuthConfiguration() {
         return secondFactorAuthConfiguration;
@@ -92,4 +121,37 @@ public class AdminUsersConfig extends Configuration {
     public Integer getForgottenPasswordExpiryMinutes() {
         return forgottenPasswordExpiryMinutes;
     }
+
+    public Integer getMaxConcurrentInviteEmails() {
+        return maxConcurrentInviteEmails;
+    }
+
+    public Integer getMaxQueuedInviteEmails() {
+        return maxQueuedInviteEmails;
+    }
+
+    @JsonProperty("bulkheads")
+    public BulkheadsConfiguration getBulkheadsConfiguration() {
+        return bulkheadsConfiguration;
+    }
+
+    @JsonProperty("expiredRecordsPurge")
+    public ExpiredRecordsPurgeConfiguration getExpiredRecordsPurgeConfiguration() {
+        return expiredRecordsPurgeConfiguration;
+    }
+
+    @JsonProperty("forgottenPasswordThrottle")
+    public ForgottenPasswordThrottleConfiguration getForgottenPasswordThrottleConfiguration() {
+        return forgottenPasswordThrottleConfiguration;
+    }
+
+    @JsonProperty("notifyRequests")
+    public NotifyRequestsConfiguration getNotifyRequestsConfiguration() {
+        return notifyRequestsConfiguration;
+    }
+
+    @JsonProperty("serviceLookupCoalescing")
+    public ServiceLookupCoalescingConfiguration getServiceLookupCoalescingConfiguration() {
+        return serviceLookupCoalescingConfiguration;
+    }
 }
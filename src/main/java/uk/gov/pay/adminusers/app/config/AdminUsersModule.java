@@ -1,19 +1,25 @@
 package uk.gov.pay.adminusers.app.config;
 
+import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
 import com.google.inject.assistedinject.FactoryModuleBuilder;
+import com.google.inject.name.Named;
 import com.google.inject.name.Names;
 import com.google.inject.persist.jpa.JpaPersistModule;
 import com.warrenstrange.googleauth.GoogleAuthenticatorConfig;
 import io.dropwizard.db.DataSourceFactory;
 import io.dropwizard.setup.Environment;
+import uk.gov.pay.adminusers.resources.NotifyRequestExecutor;
 import uk.gov.pay.adminusers.resources.ResetPasswordValidator;
 import uk.gov.pay.adminusers.resources.UserRequestValidator;
+import uk.gov.pay.adminusers.service.EmailService;
 import uk.gov.pay.adminusers.service.ExistingUserOtpDispatcher;
+import uk.gov.pay.adminusers.service.ExpiredRecordsPurger;
 import uk.gov.pay.adminusers.service.ForgottenPasswordServices;
+import uk.gov.pay.adminusers.service.ForgottenPasswordThrottle;
 import uk.gov.pay.adminusers.service.InviteServiceFactory;
 import uk.gov.pay.adminusers.service.LinksBuilder;
 import uk.gov.pay.adminusers.service.NotificationService;
@@ -21,6 +27,7 @@ import uk.gov.pay.adminusers.service.NotifyClientProvider;
 import uk.gov.pay.adminusers.service.PasswordHasher;
 import uk.gov.pay.adminusers.service.ResetPasswordService;
 import uk.gov.pay.adminusers.service.SecondFactorAuthenticator;
+import uk.gov.pay.adminusers.service.ServiceLookupCoalescer;
 import uk.gov.pay.adminusers.service.ServiceServicesFactory;
 import uk.gov.pay.adminusers.service.UserServices;
 import uk.gov.pay.adminusers.service.UserServicesFactory;
@@ -29,6 +36,9 @@ import uk.gov.pay.adminusers.validations.RequestValidations;
 
 import java.time.Clock;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 
 public class AdminUsersModule extends AbstractModule {
 
@@ -47,12 +57,18 @@ public class AdminUsersModule extends AbstractModule {
     protected void configure() {
         bind(AdminUsersConfig.class).toInstance(configuration);
         bind(Environment.class).toInstance(environment);
+        bind(MetricRegistry.class).toInstance(environment.metrics());
         bind(LinksBuilder.class).toInstance(new LinksBuilder(configuration.getBaseUrl()));
         bind(GoogleAuthenticatorConfig.class).toInstance(new GoogleAuthenticatorConfig.GoogleAuthenticatorConfigBuilder()
                 .setWindowSize(secondFactorAuthConfig.getValidTimeWindows())
                 .setTimeStepSizeInMillis(secondFactorAuthConfig.getTimeWindowInMillis())
                 .build());
         bind(LinksConfig.class).toInstance(configuration.getLinks());
+        bind(DataSourceFactory.class).toInstance(configuration.getDataSourceFactory());
+        bind(ExpiredRecordsPurgeConfiguration.class).toInstance(configuration.getExpiredRecordsPurgeConfiguration());
+        bind(ForgottenPasswordThrottleConfiguration.class).toInstance(configuration.getForgottenPasswordThrottleConfiguration());
+        bind(NotifyRequestsConfiguration.class).toInstance(configuration.getNotifyRequestsConfiguration());
+        bind(ServiceLookupCoalescingConfiguration.class).toInstance(configuration.getServiceLookupCoalescingConfiguration());
         bind(Clock.class).toInstance(Clock.systemDefaultZone());
 
         bind(PasswordHasher.class).in(Singleton.class);
@@ -65,7 +81,12 @@ public class AdminUsersModule extends AbstractModule {
         bind(UserServices.class).in(Singleton.class);
         bind(ExistingUserOtpDispatcher.class).in(Singleton.class);
         bind(ForgottenPasswordServices.class).in(Singleton.class);
+        bind(ForgottenPasswordThrottle.class).in(Singleton.class);
         bind(ResetPasswordService.class).in(Singleton.class);
+        bind(EmailService.class).in(Singleton.class);
+        bind(ExpiredRecordsPurger.class).in(Singleton.class);
+        bind(NotifyRequestExecutor.class).in(Singleton.class);
+        bind(ServiceLookupCoalescer.class).in(Singleton.class);
 
 
         bind(Integer.class).annotatedWith(Names.named("FORGOTTEN_PASSWORD_EXPIRY_MINUTES")).toInstance(configuration.getForgottenPasswordExpiryMinutes());
@@ -91,6 +112,11 @@ public class AdminUsersModule extends AbstractModule {
         properties.put("eclipselink.query-results-cache", jpaConfiguration.getCacheSharedDefault());
         properties.put("eclipselink.cache.shared.default", jpaConfiguration.getCacheSharedDefault());
         properties.put("eclipselink.ddl-generation.output-mode", jpaConfiguration.getDdlGenerationOutputMode());
+        // keep prepared statements open per pooled connection and have the driver switch them to server-side
+        // prepared statements straight away, so the plans for the named queries are reused
+        properties.put("eclipselink.jdbc.cache-statements", jpaConfiguration.getCacheStatements());
+        properties.put("eclipselink.jdbc.cache-statements.size", jpaConfiguration.getStatementCacheSize());
+        properties.put("eclipselink.jdbc.property.prepareThreshold", jpaConfiguration.getPrepareThreshold());
         properties.put("eclipselink.session.customizer", "uk.gov.pay.adminusers.app.config.AdminUsersSessionCustomiser");
 
         final JpaPersistModule jpaModule = new JpaPersistModule("AdminUsersUnit");
@@ -108,6 +134,36 @@ public class AdminUsersModule extends AbstractModule {
                 environment.metrics());
     }
 
+    @Provides
+    @Singleton
+    @Named("INVITE_EMAIL_EXECUTOR")
+    public ExecutorService provideInviteEmailExecutor() {
+        int maxConcurrentInviteEmails = configuration.getMaxConcurrentInviteEmails();
+        // the invites are already committed when their emails are queued, so once the queue is full the request
+        // thread sends the email itself rather than dropping it
+        return environment.lifecycle().executorService("invite-emails-%d")
+                .minThreads(maxConcurrentInviteEmails)
+                .maxThreads(maxConcurrentInviteEmails)
+                .workQueue(new ArrayBlockingQueue<>(configuration.getMaxQueuedInviteEmails()))
+                .rejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy())
+                .build();
+    }
+
+    @Provides
+    @Singleton
+    @Named("NOTIFY_REQUEST_EXECUTOR")
+    public ExecutorService provideNotifyRequestExecutor() {
+        NotifyRequestsConfiguration notifyRequestsConfiguration = configuration.getNotifyRequestsConfiguration();
+        // every thread holds a connection while it waits on Notify, so by default leave half the pool to everything else
+        int threads = notifyRequestsConfiguration.getThreads()
+                .orElse(Math.max(1, configuration.getDataSourceFactory().getMaxSize() / 2));
+        return environment.lifecycle().executorService("notify-requests-%d")
+                .minThreads(threads)
+                .maxThreads(threads)
+                .workQueue(new ArrayBlockingQueue<>(notifyRequestsConfiguration.getMaxQueued()))
+                .build();
+    }
+
     @Provides
     public ObjectMapper provideObjectMapper() {
         return environment.getObjectMapper();
@@ -0,0 +1,37 @@
+package uk.gov.pay.adminusers.app.config;
+
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.Optional;
+
+public class BulkheadConfiguration {
+
+    @Min(1)
+    private Integer maxConcurrentRequests;
+
+    @Min(0)
+    private Integer maxQueued;
+
+    @NotNull
+    private Duration maxWait;
+
+    /**
+     * @return the configured limit, if any; otherwise it is derived from the size of the database connection pool
+     */
+    public Optional<Integer> getMaxConcurrentRequests() {
+        return Optional.ofNullable(maxConcurrentRequests);
+    }
+
+    /**
+     * @return how many requests can wait for a permit, if configured; otherwise as many as can be processed at once
+     */
+    public Optional<Integer> getMaxQueued() {
+        return Optional.ofNullable(maxQueued);
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+}
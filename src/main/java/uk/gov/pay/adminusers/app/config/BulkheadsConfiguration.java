@@ -0,0 +1,31 @@
+package uk.gov.pay.adminusers.app.config;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+public class BulkheadsConfiguration {
+
+    @Valid
+    @NotNull
+    private BulkheadConfiguration login;
+
+    @Valid
+    @NotNull
+    private BulkheadConfiguration admin;
+
+    @Valid
+    @NotNull
+    private BulkheadConfiguration email;
+
+    public BulkheadConfiguration getLogin() {
+        return login;
+    }
+
+    public BulkheadConfiguration getAdmin() {
+        return admin;
+    }
+
+    public BulkheadConfiguration getEmail() {
+        return email;
+    }
+}
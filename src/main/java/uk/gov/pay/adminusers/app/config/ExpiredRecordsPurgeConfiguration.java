@@ -0,0 +1,37 @@
+package uk.gov.pay.adminusers.app.config;
+
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+public class ExpiredRecordsPurgeConfiguration {
+
+    @NotNull
+    private Duration interval;
+
+    @NotNull
+    private Duration retention;
+
+    @Min(1)
+    private int batchSize;
+
+    @NotNull
+    private Duration pauseBetweenBatches;
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public Duration getPauseBetweenBatches() {
+        return pauseBetweenBatches;
+    }
+}
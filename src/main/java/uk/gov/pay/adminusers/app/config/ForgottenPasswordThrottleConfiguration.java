@@ -0,0 +1,36 @@
+package uk.gov.pay.adminusers.app.config;
+
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+public class ForgottenPasswordThrottleConfiguration {
+
+    @NotNull
+    private Duration reuseWindow;
+
+    @NotNull
+    private Duration minRemainingValidity;
+
+    @Min(1)
+    private int maxEmailsPerUserPerHour;
+
+    private boolean backedByDatabase;
+
+    public Duration getReuseWindow() {
+        return reuseWindow;
+    }
+
+    public Duration getMinRemainingValidity() {
+        return minRemainingValidity;
+    }
+
+    public int getMaxEmailsPerUserPerHour() {
+        return maxEmailsPerUserPerHour;
+    }
+
+    public boolean isBackedByDatabase() {
+        return backedByDatabase;
+    }
+}
@@ -9,6 +9,9 @@ public class JPAConfiguration extends Configuration {
     private String ddlGenerationOutputMode;
     private String queryResultsCache;
     private String cacheSharedDefault;
+    private String cacheStatements;
+    private String statementCacheSize;
+    private String prepareThreshold;
 
     public String getJpaLoggingLevel() {
         return jpaLoggingLevel;
@@ -29,4 +32,16 @@ public class JPAConfiguration extends Configuration {
     public String getCacheSharedDefault() {
         return cacheSharedDefault;
     }
+
+    public String getCacheStatements() {
+        return cacheStatements;
+    }
+
+    public String getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public String getPrepareThreshold() {
+        return prepareThreshold;
+    }
 }
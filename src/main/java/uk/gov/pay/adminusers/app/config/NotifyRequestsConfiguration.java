@@ -0,0 +1,34 @@
+package uk.gov.pay.adminusers.app.config;
+
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.Optional;
+
+public class NotifyRequestsConfiguration {
+
+    @Min(1)
+    private Integer threads;
+
+    @Min(1)
+    private int maxQueued;
+
+    @NotNull
+    private Duration timeout;
+
+    /**
+     * @return the configured number of threads, if any; otherwise the pool is sized to the database connection pool
+     */
+    public Optional<Integer> getThreads() {
+        return Optional.ofNullable(threads);
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,15 @@
+package uk.gov.pay.adminusers.app.config;
+
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.NotNull;
+
+public class ServiceLookupCoalescingConfiguration {
+
+    @NotNull
+    private Duration timeout;
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
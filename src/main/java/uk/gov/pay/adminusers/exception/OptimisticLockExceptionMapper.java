@@ -0,0 +1,41 @@
+package uk.gov.pay.adminusers.exception;
+
+import io.dropwizard.jersey.errors.LoggingExceptionMapper;
+
+import javax.persistence.OptimisticLockException;
+import javax.persistence.PersistenceException;
+import javax.ws.rs.core.Response;
+import java.util.List;
+import java.util.Map;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
+
+/**
+ * Answers 409 when a versioned entity was changed by another request between being read and written, which surfaces
+ * either directly or, when detected at commit, as the cause of a {@link javax.persistence.RollbackException}. Any
+ * other persistence failure is still logged and answered with a 500.
+ */
+public class OptimisticLockExceptionMapper extends LoggingExceptionMapper<PersistenceException> {
+
+    @Override
+    public Response toResponse(PersistenceException exception) {
+        if (!isOptimisticLockFailure(exception)) {
+            return super.toResponse(exception);
+        }
+        return Response
+                .status(Response.Status.CONFLICT)
+                .entity(Map.of("errors", List.of("The resource was changed by another request at the same time, please retry")))
+                .type(APPLICATION_JSON_TYPE)
+                .build();
+    }
+
+    private static boolean isOptimisticLockFailure(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException
+                    || cause instanceof org.eclipse.persistence.exceptions.OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
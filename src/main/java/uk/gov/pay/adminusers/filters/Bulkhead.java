@@ -0,0 +1,77 @@
+package uk.gov.pay.adminusers.filters;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.Duration;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Limits the number of requests of one group that can be processed at the same time, so that a flood of one kind
+ * of request cannot use up all of Jetty's request threads. Requests over the limit wait up to the configured
+ * maximum time for a permit before being rejected.
+ * <p>
+ * A waiting request still holds its Jetty thread, so only a bounded number of requests wait; any more are rejected
+ * straight away.
+ */
+public class Bulkhead {
+
+    private final int maxConcurrentRequests;
+    private final int maxQueued;
+    private final long maxWaitMillis;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Meter rejected;
+
+    public Bulkhead(String groupName, int maxConcurrentRequests, int maxQueued, Duration maxWait, MetricRegistry metricRegistry) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.maxQueued = maxQueued;
+        this.maxWaitMillis = maxWait.toMilliseconds();
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.rejected = metricRegistry.meter(name("bulkhead", groupName, "rejected"));
+        metricRegistry.register(name("bulkhead", groupName, "active"), (Gauge<Integer>) this::getActiveCount);
+        metricRegistry.register(name("bulkhead", groupName, "queued"), (Gauge<Integer>) this::getQueuedCount);
+    }
+
+    /**
+     * @return true if a permit was obtained and {@link #exit()} must be called once the request has been processed,
+     * false if the request should be rejected
+     */
+    public boolean tryEnter() throws InterruptedException {
+        // unlike tryAcquire(), a zero timeout does not jump ahead of requests already waiting
+        if (permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejected.mark();
+            return false;
+        }
+        try {
+            if (permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } finally {
+            queued.decrementAndGet();
+        }
+        rejected.mark();
+        return false;
+    }
+
+    public void exit() {
+        permits.release();
+    }
+
+    public int getActiveCount() {
+        return maxConcurrentRequests - permits.availablePermits();
+    }
+
+    public int getQueuedCount() {
+        return queued.get();
+    }
+}
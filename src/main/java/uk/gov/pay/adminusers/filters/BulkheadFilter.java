@@ -0,0 +1,105 @@
+package uk.gov.pay.adminusers.filters;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.setup.Environment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.adminusers.app.config.AdminUsersConfig;
+import uk.gov.pay.adminusers.app.config.BulkheadConfiguration;
+import uk.gov.pay.adminusers.app.config.BulkheadsConfiguration;
+import uk.gov.pay.adminusers.utils.Errors;
+
+import javax.annotation.Priority;
+import javax.inject.Inject;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.Response;
+import java.util.Optional;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
+
+/**
+ * Puts each request into one of three groups (login, email and everything else under /v1/api) and makes it wait for
+ * a permit from that group's {@link Bulkhead} before it is processed, so that slow or numerous requests of one kind
+ * cannot starve the others of request threads.
+ */
+@Priority(Priorities.USER - 100)
+public class BulkheadFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkheadFilter.class);
+
+    private static final String BULKHEAD_PROPERTY = BulkheadFilter.class.getName() + ".bulkhead";
+
+    private final Bulkhead loginBulkhead;
+    private final Bulkhead adminBulkhead;
+    private final Bulkhead emailBulkhead;
+
+    @Inject
+    public BulkheadFilter(AdminUsersConfig configuration, Environment environment) {
+        BulkheadsConfiguration bulkheadsConfiguration = configuration.getBulkheadsConfiguration();
+        int databaseMaxSize = configuration.getDataSourceFactory().getMaxSize();
+        this.loginBulkhead = bulkhead("login", bulkheadsConfiguration.getLogin(), databaseMaxSize, environment.metrics());
+        this.adminBulkhead = bulkhead("admin", bulkheadsConfiguration.getAdmin(), databaseMaxSize, environment.metrics());
+        this.emailBulkhead = bulkhead("email", bulkheadsConfiguration.getEmail(), databaseMaxSize, environment.metrics());
+    }
+
+    private static Bulkhead bulkhead(String groupName, BulkheadConfiguration configuration, int databaseMaxSize,
+                                     MetricRegistry metricRegistry) {
+        // a request only holds a database connection for part of the time it is processed, so by default twice as
+        // many requests as there are connections are processed at once
+        int maxConcurrentRequests = configuration.getMaxConcurrentRequests().orElse(2 * databaseMaxSize);
+        int maxQueued = configuration.getMaxQueued().orElse(maxConcurrentRequests);
+        return new Bulkhead(groupName, maxConcurrentRequests, maxQueued, configuration.getMaxWait(), metricRegistry);
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        bulkheadFor(requestContext.getUriInfo().getPath()).ifPresent(bulkhead -> {
+            try {
+                if (bulkhead.tryEnter()) {
+                    requestContext.setProperty(BULKHEAD_PROPERTY, bulkhead);
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            LOGGER.warn("Rejecting request to [{}] as there are already {} requests of the same kind in progress and {} waiting",
+                    requestContext.getUriInfo().getPath(), bulkhead.getActiveCount(), bulkhead.getQueuedCount());
+            requestContext.abortWith(Response.status(SERVICE_UNAVAILABLE).type(APPLICATION_JSON)
+                    .entity(Errors.from("Too many requests in progress, please try again later"))
+                    .build());
+        });
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        Object bulkhead = requestContext.getProperty(BULKHEAD_PROPERTY);
+        if (bulkhead != null) {
+            requestContext.removeProperty(BULKHEAD_PROPERTY);
+            ((Bulkhead) bulkhead).exit();
+        }
+    }
+
+    private Optional<Bulkhead> bulkheadFor(String path) {
+        String relativePath = path.startsWith("/") ? path.substring(1) : path;
+        if (relativePath.startsWith("v1/emails")) {
+            return Optional.of(emailBulkhead);
+        }
+        if (isLoginPath(relativePath)) {
+            return Optional.of(loginBulkhead);
+        }
+        if (relativePath.startsWith("v1/api")) {
+            return Optional.of(adminBulkhead);
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isLoginPath(String relativePath) {
+        return relativePath.startsWith("v1/api/users/authenticate")
+                || relativePath.startsWith("v1/api/users/") && relativePath.contains("/second-factor");
+    }
+}
@@ -0,0 +1,77 @@
+package uk.gov.pay.adminusers.model;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+
+/**
+ * Filters and keyset pagination for listing a service's active invites. Every filter is optional; without a limit all
+ * matching invites are returned.
+ */
+public class InviteSearchParams {
+
+    private final InviteType type;
+    private final String roleName;
+    private final String senderExternalId;
+    private final ZonedDateTime expiresAfter;
+    private final ZonedDateTime expiresBefore;
+    private final Integer afterId;
+    private final Integer limit;
+
+    private InviteSearchParams(InviteType type, String roleName, String senderExternalId, ZonedDateTime expiresAfter,
+                               ZonedDateTime expiresBefore, Integer afterId, Integer limit) {
+        this.type = type;
+        this.roleName = roleName;
+        this.senderExternalId = senderExternalId;
+        this.expiresAfter = expiresAfter;
+        this.expiresBefore = expiresBefore;
+        this.afterId = afterId;
+        this.limit = limit;
+    }
+
+    public static InviteSearchParams none() {
+        return new InviteSearchParams(null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Expects parameters that have already passed validation; any of them may be null.
+     */
+    public static InviteSearchParams from(String type, String roleName, String senderExternalId, String expiresAfter,
+                                          String expiresBefore, String afterId, String limit) {
+        return new InviteSearchParams(
+                type == null ? null : InviteType.from(type),
+                roleName,
+                senderExternalId,
+                expiresAfter == null ? null : ZonedDateTime.parse(expiresAfter),
+                expiresBefore == null ? null : ZonedDateTime.parse(expiresBefore),
+                afterId == null ? null : Integer.valueOf(afterId),
+                limit == null ? null : Integer.valueOf(limit));
+    }
+
+    public Optional<InviteType> getType() {
+        return Optional.ofNullable(type);
+    }
+
+    public Optional<String> getRoleName() {
+        return Optional.ofNullable(roleName);
+    }
+
+    public Optional<String> getSenderExternalId() {
+        return Optional.ofNullable(senderExternalId);
+    }
+
+    public Optional<ZonedDateTime> getExpiresAfter() {
+        return Optional.ofNullable(expiresAfter);
+    }
+
+    public Optional<ZonedDateTime> getExpiresBefore() {
+        return Optional.ofNullable(expiresBefore);
+    }
+
+    public Optional<Integer> getAfterId() {
+        return Optional.ofNullable(afterId);
+    }
+
+    public Optional<Integer> getLimit() {
+        return Optional.ofNullable(limit);
+    }
+}
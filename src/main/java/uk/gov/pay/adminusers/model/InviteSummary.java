@@ -0,0 +1,59 @@
+package uk.gov.pay.adminusers.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import uk.gov.pay.commons.api.json.ApiResponseDateTimeSerializer;
+
+import java.time.ZonedDateTime;
+
+/**
+ * The subset of an {@link Invite} needed to list a service's pending invites, selected straight from the invites
+ * table without loading the invite entities or checking whether each invitee is already a user.
+ */
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy.class)
+public class InviteSummary {
+
+    private final Integer id;
+    private final String code;
+    private final String email;
+    private final InviteType type;
+    private final String role;
+    private final ZonedDateTime expiryDate;
+
+    public InviteSummary(Integer id, String code, String email, InviteType type, String role, ZonedDateTime expiryDate) {
+        this.id = id;
+        this.code = code;
+        this.email = email;
+        this.type = type;
+        this.role = role;
+        this.expiryDate = expiryDate;
+    }
+
+    @JsonIgnore
+    public Integer getId() {
+        return id;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getType() {
+        return type.getType();
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    @JsonSerialize(using = ApiResponseDateTimeSerializer.class)
+    public ZonedDateTime getExpiryDate() {
+        return expiryDate;
+    }
+}
@@ -0,0 +1,60 @@
+package uk.gov.pay.adminusers.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static uk.gov.pay.adminusers.model.InviteRequest.FIELD_ROLE_NAME;
+import static uk.gov.pay.adminusers.model.InviteUserRequest.FIELD_SENDER;
+import static uk.gov.pay.adminusers.model.InviteUserRequest.FIELD_SERVICE_EXTERNAL_ID;
+
+public class InviteUsersRequest {
+
+    public static final String FIELD_EMAILS = "emails";
+
+    private final String sender;
+    private final String serviceExternalId;
+    private final String roleName;
+    private final List<String> emails;
+
+    private InviteUsersRequest(String sender, String serviceExternalId, String roleName, List<String> emails) {
+        this.sender = sender;
+        this.serviceExternalId = serviceExternalId;
+        this.roleName = roleName;
+        this.emails = emails;
+    }
+
+    /**
+     * Invites are stored against lower-cased addresses, so the addresses are lower-cased and de-duplicated here.
+     */
+    public static InviteUsersRequest from(JsonNode jsonNode) {
+        Set<String> emails = new LinkedHashSet<>();
+        jsonNode.get(FIELD_EMAILS).elements().forEachRemaining(email -> emails.add(email.asText().toLowerCase(Locale.ENGLISH)));
+        return new InviteUsersRequest(
+                jsonNode.get(FIELD_SENDER).asText(),
+                jsonNode.get(FIELD_SERVICE_EXTERNAL_ID).asText(),
+                jsonNode.get(FIELD_ROLE_NAME).asText(),
+                new ArrayList<>(emails)
+        );
+    }
+
+    public String getSender() {
+        return sender;
+    }
+
+    public String getServiceExternalId() {
+        return serviceExternalId;
+    }
+
+    public String getRoleName() {
+        return roleName;
+    }
+
+    public List<String> getEmails() {
+        return emails;
+    }
+}
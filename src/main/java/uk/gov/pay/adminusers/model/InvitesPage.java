@@ -0,0 +1,26 @@
+package uk.gov.pay.adminusers.model;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * One page of a keyset-paginated invite listing, along with the id to continue after if there are more.
+ */
+public class InvitesPage<T> {
+
+    private final List<T> invites;
+    private final Integer nextAfterId;
+
+    public InvitesPage(List<T> invites, Integer nextAfterId) {
+        this.invites = invites;
+        this.nextAfterId = nextAfterId;
+    }
+
+    public List<T> getInvites() {
+        return invites;
+    }
+
+    public Optional<Integer> getNextAfterId() {
+        return Optional.ofNullable(nextAfterId);
+    }
+}
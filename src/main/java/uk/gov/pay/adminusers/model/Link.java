@@ -15,7 +15,9 @@ public class Link {
     public enum Rel {
         SELF,
         INVITE,
-        USER
+        USER;
+
+        private final String lowerCase = name().toLowerCase(Locale.ENGLISH);
     }
 
     private final Rel rel;
@@ -34,7 +36,7 @@ public class Link {
 
     @JsonProperty("rel")
     public String getRelAsLowerCase() {
-        return rel.name().toLowerCase(Locale.ENGLISH);
+        return rel.lowerCase;
     }
 
     public Rel getRel() {
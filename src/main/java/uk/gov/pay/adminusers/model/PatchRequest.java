@@ -4,6 +4,10 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 @JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy.class)
 public class PatchRequest {
 
@@ -26,6 +30,16 @@ public class PatchRequest {
         return new PatchRequest(node.get("op").asText(), node.get("path").asText(), node.get("value").asText());
     }
 
+    public static List<PatchRequest> getPatchRequests(JsonNode payload) {
+        if (payload.isArray()) {
+            List<PatchRequest> operations = new ArrayList<>();
+            payload.forEach(op -> operations.add(from(op)));
+            return operations;
+        } else {
+            return Collections.singletonList(from(payload));
+        }
+    }
+
     public String getOp() {
         return op;
     }
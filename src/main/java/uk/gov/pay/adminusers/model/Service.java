@@ -35,6 +35,9 @@ public class Service {
     @JsonIgnore
     private ServiceName serviceName;
 
+    @JsonIgnore
+    private Long version;
+
     public static Service from() {
         return from(new ServiceName(DEFAULT_NAME_VALUE));
     }
@@ -89,6 +92,17 @@ public class Service {
         this.id = id;
     }
 
+    /**
+     * @return the version of the service this was read from, which identifies this representation in its ETag
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @JsonProperty("name")
     public String getName() {
         return serviceName.getEnglish();
@@ -19,6 +19,7 @@ public class User {
     public static final String FIELD_EMAIL = "email";
     public static final String FIELD_TELEPHONE_NUMBER = "telephone_number";
     public static final String FIELD_ROLE_NAME = "role_name";
+    public static final String FIELD_SERVICE_ROLES = "service_roles";
 
     private Integer id;
     private String externalId;
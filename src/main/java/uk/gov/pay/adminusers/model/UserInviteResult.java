@@ -0,0 +1,67 @@
+package uk.gov.pay.adminusers.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+import java.util.Locale;
+
+/**
+ * The outcome of inviting one of the addresses in a batch invite request.
+ */
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy.class)
+@JsonInclude(Include.NON_NULL)
+public class UserInviteResult {
+
+    public enum Outcome {
+        CREATED,
+        RESENT,
+        CONFLICTING_INVITE,
+        ALREADY_IN_SERVICE;
+
+        @JsonValue
+        public String toJson() {
+            return name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    private final String email;
+    private final Outcome result;
+    private final Invite invite;
+
+    private UserInviteResult(String email, Outcome result, Invite invite) {
+        this.email = email;
+        this.result = result;
+        this.invite = invite;
+    }
+
+    public static UserInviteResult created(Invite invite) {
+        return new UserInviteResult(invite.getEmail(), Outcome.CREATED, invite);
+    }
+
+    public static UserInviteResult resent(Invite invite) {
+        return new UserInviteResult(invite.getEmail(), Outcome.RESENT, invite);
+    }
+
+    public static UserInviteResult conflictingInvite(String email) {
+        return new UserInviteResult(email, Outcome.CONFLICTING_INVITE, null);
+    }
+
+    public static UserInviteResult alreadyInService(String email) {
+        return new UserInviteResult(email, Outcome.ALREADY_IN_SERVICE, null);
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Outcome getResult() {
+        return result;
+    }
+
+    public Invite getInvite() {
+        return invite;
+    }
+}
@@ -0,0 +1,35 @@
+package uk.gov.pay.adminusers.model;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * The subset of a {@link User} needed to check whether an existing session is still valid.
+ */
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy.class)
+public class UserSession {
+
+    private final Integer sessionVersion;
+    private final Boolean disabled;
+    private final SecondFactorMethod secondFactor;
+
+    public UserSession(Integer sessionVersion, Boolean disabled, SecondFactorMethod secondFactor) {
+        this.sessionVersion = sessionVersion;
+        this.disabled = disabled;
+        this.secondFactor = secondFactor;
+    }
+
+    public Integer getSessionVersion() {
+        return sessionVersion;
+    }
+
+    @JsonGetter
+    public Boolean isDisabled() {
+        return disabled;
+    }
+
+    public SecondFactorMethod getSecondFactor() {
+        return secondFactor;
+    }
+}
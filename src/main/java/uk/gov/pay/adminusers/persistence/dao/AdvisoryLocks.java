@@ -0,0 +1,80 @@
+package uk.gov.pay.adminusers.persistence.dao;
+
+import io.dropwizard.db.DataSourceFactory;
+
+import javax.inject.Inject;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Postgres session level advisory locks, for work that must run on one instance at a time but spans many transactions.
+ * <p>
+ * Each lock is taken on a connection of its own, opened outside the JPA connection pool, so it is held across those
+ * transactions and cannot leak to a pooled connection that is later handed to a request. If the instance dies, the
+ * connection closes and Postgres releases the lock.
+ */
+public class AdvisoryLocks {
+
+    private final DataSourceFactory dataSourceFactory;
+
+    @Inject
+    public AdvisoryLocks(DataSourceFactory dataSourceFactory) {
+        this.dataSourceFactory = dataSourceFactory;
+    }
+
+    /**
+     * Takes the given lock without waiting for it.
+     *
+     * @return the held lock, which must be closed to release it, or empty if another session holds it
+     */
+    public Optional<HeldLock> tryLock(long key) throws SQLException {
+        Connection connection = DriverManager.getConnection(
+                dataSourceFactory.getUrl(),
+                dataSourceFactory.getUser(),
+                dataSourceFactory.getPassword());
+        try {
+            if (execute(connection, "SELECT pg_try_advisory_lock(?)", key)) {
+                return Optional.of(new HeldLock(connection, key));
+            }
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        connection.close();
+        return Optional.empty();
+    }
+
+    private static boolean execute(Connection connection, String sql, long key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, key);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    public static class HeldLock implements AutoCloseable {
+
+        private final Connection connection;
+        private final long key;
+
+        private HeldLock(Connection connection, long key) {
+            this.connection = connection;
+            this.key = key;
+        }
+
+        /**
+         * Releases the lock and closes its connection.
+         */
+        @Override
+        public void close() throws SQLException {
+            try (Connection ignored = connection) {
+                execute(connection, "SELECT pg_advisory_unlock(?)", key);
+            }
+        }
+    }
+}
@@ -4,11 +4,14 @@ import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.name.Named;
 import com.google.inject.persist.Transactional;
+import uk.gov.pay.adminusers.persistence.entity.ForgottenPasswordEmailEntity;
 import uk.gov.pay.adminusers.persistence.entity.ForgottenPasswordEntity;
+import uk.gov.pay.adminusers.persistence.entity.UserEntity;
 
 import javax.persistence.EntityManager;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Transactional
@@ -24,15 +27,50 @@ public class ForgottenPasswordDao extends JpaDao<ForgottenPasswordEntity> {
     }
 
     public Optional<ForgottenPasswordEntity> findNonExpiredByCode(String code) {
-        String query = "SELECT fp FROM ForgottenPasswordEntity fp " +
-                "WHERE fp.code = :code AND fp.date >= :expiry";
-
         ZonedDateTime expiryDateTime = ZonedDateTime.now(ZoneId.of("UTC")).minusMinutes(forgottenPasswordExpiryMinutes);
 
         return entityManager.get()
-                .createQuery(query, ForgottenPasswordEntity.class)
+                .createNamedQuery("ForgottenPasswordEntity.findNonExpiredByCode", ForgottenPasswordEntity.class)
                 .setParameter("code", code)
                 .setParameter("expiry", expiryDateTime)
                 .getResultList().stream().findFirst();
     }
+
+    /**
+     * Returns the user's most recent forgotten password code if it was created since the given time.
+     */
+    public Optional<ForgottenPasswordEntity> findLatestByUserCreatedSince(UserEntity user, ZonedDateTime since) {
+        return entityManager.get()
+                .createNamedQuery("ForgottenPasswordEntity.findByUserCreatedSince", ForgottenPasswordEntity.class)
+                .setParameter("user", user)
+                .setParameter("since", since)
+                .setMaxResults(1)
+                .getResultList().stream().findFirst();
+    }
+
+    /**
+     * Records that a forgotten password code was emailed to its user. The record goes when the code is deleted.
+     */
+    public void recordEmailSent(ForgottenPasswordEntity forgottenPassword, ZonedDateTime sentAt) {
+        EntityManager em = entityManager.get();
+        em.persist(new ForgottenPasswordEmailEntity(
+                em.getReference(ForgottenPasswordEntity.class, forgottenPassword.getId()),
+                em.getReference(UserEntity.class, forgottenPassword.getUser().getId()),
+                sentAt));
+    }
+
+    public long countEmailsSentToUserSince(UserEntity user, ZonedDateTime since) {
+        return entityManager.get()
+                .createNamedQuery("ForgottenPasswordEmailEntity.countByUserSentSince", Long.class)
+                .setParameter("user", user)
+                .setParameter("since", since)
+                .getSingleResult();
+    }
+
+    /**
+     * Deletes a batch of forgotten password codes created before the cutoff and returns their ids.
+     */
+    public List<Integer> deleteCreatedBefore(ZonedDateTime cutoff, int afterId, int batchSize) {
+        return deleteBatch("forgotten_passwords", "date", cutoff, afterId, batchSize);
+    }
 }
@@ -3,11 +3,26 @@ package uk.gov.pay.adminusers.persistence.dao;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.persist.Transactional;
+import uk.gov.pay.adminusers.model.InviteSearchParams;
+import uk.gov.pay.adminusers.model.InviteSummary;
 import uk.gov.pay.adminusers.persistence.entity.InviteEntity;
 
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Transactional
 public class InviteDao extends JpaDao<InviteEntity> {
@@ -18,35 +33,131 @@ public class InviteDao extends JpaDao<InviteEntity> {
     }
 
     public Optional<InviteEntity> findByCode(String code) {
-
-        String query = "SELECT invite FROM InviteEntity invite " +
-                "WHERE invite.code = :code";
-
         return entityManager.get()
-                .createQuery(query, InviteEntity.class)
+                .createNamedQuery("InviteEntity.findByCode", InviteEntity.class)
                 .setParameter("code", code)
                 .getResultList().stream().findFirst();
     }
 
     public List<InviteEntity> findByEmail(String email) {
-
-        String query = "SELECT invite FROM InviteEntity invite " +
-                "WHERE invite.email = :email";
-
         return entityManager.get()
-                .createQuery(query, InviteEntity.class)
+                .createNamedQuery("InviteEntity.findByEmail", InviteEntity.class)
                 .setParameter("email", email)
                 .getResultList();
     }
 
     public List<InviteEntity> findAllByServiceId(String serviceId) {
+        return entityManager.get()
+                .createNamedQuery("InviteEntity.findAllByServiceExternalId", InviteEntity.class)
+                .setParameter("serviceId", serviceId)
+                .getResultList();
+    }
+
+    /**
+     * Returns the invites for a service that are neither disabled nor expired and match the search parameters, in id
+     * order. All the filtering is done in the query. When a limit is given, one invite more than the limit is returned
+     * so the caller can tell whether there is another page.
+     */
+    public List<InviteEntity> findActiveByServiceId(String serviceId, InviteSearchParams searchParams) {
+        CriteriaBuilder criteriaBuilder = entityManager.get().getCriteriaBuilder();
+        CriteriaQuery<InviteEntity> criteriaQuery = criteriaBuilder.createQuery(InviteEntity.class);
+        Root<InviteEntity> invite = criteriaQuery.from(InviteEntity.class);
+        criteriaQuery.select(invite);
+        return activeInvitesQuery(criteriaBuilder, criteriaQuery, invite, serviceId, searchParams).getResultList();
+    }
+
+    /**
+     * As {@link #findActiveByServiceId(String, InviteSearchParams)}, but selects only the columns of an
+     * {@link InviteSummary} rather than loading the invites with their sender, service and role.
+     */
+    public List<InviteSummary> findActiveSummariesByServiceId(String serviceId, InviteSearchParams searchParams) {
+        CriteriaBuilder criteriaBuilder = entityManager.get().getCriteriaBuilder();
+        CriteriaQuery<InviteSummary> criteriaQuery = criteriaBuilder.createQuery(InviteSummary.class);
+        Root<InviteEntity> invite = criteriaQuery.from(InviteEntity.class);
+        criteriaQuery.select(criteriaBuilder.construct(InviteSummary.class,
+                invite.get("id"), invite.get("code"), invite.get("email"), invite.get("type"),
+                invite.get("role").get("name"), invite.get("expiryDate")));
+        return activeInvitesQuery(criteriaBuilder, criteriaQuery, invite, serviceId, searchParams).getResultList();
+    }
+
+    /**
+     * Restricts the query to active invites for the service that match the search parameters, with every value bound
+     * as a parameter.
+     */
+    private <T> TypedQuery<T> activeInvitesQuery(CriteriaBuilder criteriaBuilder, CriteriaQuery<T> criteriaQuery,
+                                                 Root<InviteEntity> invite, String serviceId, InviteSearchParams searchParams) {
+        Path<ZonedDateTime> expiryDate = invite.get("expiryDate");
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(criteriaBuilder.equal(invite.get("service").get("externalId"), serviceId));
+        predicates.add(criteriaBuilder.isFalse(invite.get("disabled")));
+        predicates.add(criteriaBuilder.greaterThanOrEqualTo(expiryDate, ZonedDateTime.now(ZoneId.of("UTC"))));
+
+        searchParams.getType().ifPresent(type -> predicates.add(criteriaBuilder.equal(invite.get("type"), type)));
+        searchParams.getRoleName().ifPresent(roleName ->
+                predicates.add(criteriaBuilder.equal(invite.get("role").get("name"), roleName)));
+        searchParams.getSenderExternalId().ifPresent(senderExternalId ->
+                predicates.add(criteriaBuilder.equal(invite.get("sender").get("externalId"), senderExternalId)));
+        searchParams.getExpiresAfter().ifPresent(expiresAfter ->
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(expiryDate, expiresAfter)));
+        searchParams.getExpiresBefore().ifPresent(expiresBefore ->
+                predicates.add(criteriaBuilder.lessThan(expiryDate, expiresBefore)));
+        searchParams.getAfterId().ifPresent(afterId ->
+                predicates.add(criteriaBuilder.greaterThan(invite.get("id"), afterId)));
 
-        String query = "SELECT invite FROM InviteEntity invite " +
-                "WHERE invite.service.externalId = :serviceId";
+        criteriaQuery.where(predicates.toArray(new Predicate[0])).orderBy(criteriaBuilder.asc(invite.get("id")));
+
+        TypedQuery<T> query = entityManager.get().createQuery(criteriaQuery);
+        searchParams.getLimit().ifPresent(limit -> query.setMaxResults(limit + 1));
+        return query;
+    }
+
+    /**
+     * Returns the oldest invite for an email address to a service that is neither disabled nor expired, without
+     * loading the address's other invites.
+     */
+    public Optional<InviteEntity> findActiveByEmailAndServiceId(String email, String serviceId) {
+        return entityManager.get()
+                .createNamedQuery("InviteEntity.findActiveByEmailAndServiceExternalId", InviteEntity.class)
+                .setParameter("email", email)
+                .setParameter("serviceId", serviceId)
+                .setParameter("now", ZonedDateTime.now(ZoneId.of("UTC")))
+                .setMaxResults(1)
+                .getResultList().stream().findFirst();
+    }
+
+    /**
+     * Returns the invites for any of the given email addresses to a service that are neither disabled nor expired,
+     * oldest first, in a single query. Addresses are matched ignoring case, as invites written before addresses were
+     * lower-cased, or through {@link InviteEntity#setEmail}, may hold them as they were given.
+     */
+    public List<InviteEntity> findActiveByEmailsAndServiceId(Collection<String> emails, String serviceId) {
+        if (emails.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> lowerCaseEmails = emails.stream().map(email -> email.toLowerCase(Locale.ENGLISH)).distinct().collect(Collectors.toList());
 
         return entityManager.get()
-                .createQuery(query, InviteEntity.class)
+                .createNamedQuery("InviteEntity.findActiveByEmailsAndServiceExternalId", InviteEntity.class)
+                .setParameter("emails", lowerCaseEmails)
                 .setParameter("serviceId", serviceId)
+                .setParameter("now", ZonedDateTime.now(ZoneId.of("UTC")))
                 .getResultList();
     }
+
+    /**
+     * Deletes a batch of invites that expired before the cutoff, whether or not they were ever completed, and returns
+     * their ids.
+     */
+    public List<Integer> deleteExpiredBefore(ZonedDateTime cutoff, int afterId, int batchSize) {
+        return deleteBatch("invites", "expiry_date", cutoff, afterId, batchSize);
+    }
+
+    /**
+     * Loads an invite with its row locked until the current transaction ends. A concurrent caller waits on the row and
+     * then sees whatever the first transaction did to the invite, so at most one request can go on to complete it.
+     */
+    public Optional<InviteEntity> findByIdForUpdate(Integer id) {
+        return Optional.ofNullable(entityManager.get().find(InviteEntity.class, id, LockModeType.PESSIMISTIC_WRITE));
+    }
 }
@@ -4,8 +4,13 @@ import com.google.inject.Provider;
 import com.google.inject.persist.Transactional;
 
 import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Optional;
 
+import static java.util.stream.Collectors.toList;
+
 @Transactional
 public abstract class JpaDao<T> {
 
@@ -37,4 +42,20 @@ public abstract class JpaDao<T> {
     public T merge(final T object) {
         return entityManager.get().merge(object);
     }
+
+    /**
+     * Deletes up to {@code batchSize} rows, lowest id first, whose id is above {@code afterId} and whose
+     * {@code cutoffColumn} is before {@code cutoff}, and returns their ids.
+     */
+    @SuppressWarnings("unchecked")
+    /* default */ List<Integer> deleteBatch(String table, String cutoffColumn, ZonedDateTime cutoff, int afterId, int batchSize) {
+        List<Number> deletedIds = entityManager.get()
+                .createNativeQuery("WITH batch AS (SELECT id FROM " + table + " WHERE id > ?1 AND " + cutoffColumn + " < ?2 ORDER BY id LIMIT ?3) " +
+                        "DELETE FROM " + table + " WHERE id IN (SELECT id FROM batch) RETURNING id")
+                .setParameter(1, afterId)
+                .setParameter(2, Timestamp.from(cutoff.toInstant()))
+                .setParameter(3, batchSize)
+                .getResultList();
+        return deletedIds.stream().map(Number::intValue).collect(toList());
+    }
 }
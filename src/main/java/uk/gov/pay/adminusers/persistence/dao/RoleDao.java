@@ -25,12 +25,8 @@ public class RoleDao {
     }
 
     public Optional<RoleEntity> findByRoleName(String roleName) {
-
-        String query = "SELECT r FROM RoleEntity r " +
-                "WHERE r.name = :roleName";
-
         return entityManager.get()
-                .createQuery(query, RoleEntity.class)
+                .createNamedQuery("RoleEntity.findByName", RoleEntity.class)
                 .setParameter("roleName", roleName)
                 .getResultList().stream().findFirst();
     }
@@ -7,6 +7,12 @@ import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
 
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceException;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,19 +25,14 @@ public class ServiceDao extends JpaDao<ServiceEntity> {
     }
 
     public List<ServiceEntity> listAll() {
-        String query = "SELECT s FROM ServiceEntity as s";
         return entityManager.get()
-                .createQuery(query, ServiceEntity.class)
+                .createNamedQuery("ServiceEntity.listAll", ServiceEntity.class)
                 .getResultList();
     }
 
     public Optional<ServiceEntity> findByGatewayAccountId(String gatewayAccountId) {
-
-        String query = "SELECT ga FROM GatewayAccountIdEntity ga " +
-                "WHERE ga.gatewayAccountId = :gatewayAccountId";
-
         Optional<GatewayAccountIdEntity> gatewayAccount = entityManager.get()
-                .createQuery(query, GatewayAccountIdEntity.class)
+                .createNamedQuery("GatewayAccountIdEntity.findByGatewayAccountId", GatewayAccountIdEntity.class)
                 .setParameter("gatewayAccountId", gatewayAccountId)
                 .getResultList().stream().findFirst();
 
@@ -39,26 +40,56 @@ public class ServiceDao extends JpaDao<ServiceEntity> {
     }
 
     public Long countOfUsersWithRoleForService(String serviceExternalId, Integer roleId) {
-
-        String query = "SELECT count(*) FROM user_services_roles usr WHERE usr.role_id=? AND usr.service_id = (SELECT srv.id FROM services srv WHERE srv.external_id = ?)";
-        return (long) entityManager.get().createNativeQuery(query)
+        return (long) entityManager.get().createNamedQuery("ServiceEntity.countOfUsersWithRoleForService")
                 .setParameter(1, roleId)
                 .setParameter(2, serviceExternalId)
                 .getSingleResult();
     }
 
-    public boolean checkIfGatewayAccountsUsed(List<String> gatewayAccountsIds) {
-        String query = "SELECT count(*) FROM service_gateway_accounts WHERE gateway_account_id IN (?)";
-        long count = (long) entityManager.get().createNativeQuery(query)
-                .setParameter(1, String.join(",", gatewayAccountsIds))
-                .getSingleResult();
-        return count > 0;
+    /**
+     * @return those of the given gateway account ids that already belong to a service
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> findGatewayAccountIdsInUse(Collection<String> gatewayAccountIds) {
+        // the ids are bound as one array so the statement is the same however many there are
+        return entityManager.get()
+                .createNamedQuery("GatewayAccountIdEntity.findGatewayAccountIdsIn")
+                .setParameter(1, textArrayOf(gatewayAccountIds))
+                .getResultList();
+    }
+
+    /**
+     * Creates the array on the connection of the current transaction, so the driver binds it as a real
+     * {@code text[]} and no value needs escaping.
+     */
+    private Array textArrayOf(Collection<String> values) {
+        try {
+            return entityManager.get().unwrap(Connection.class).createArrayOf("text", values.toArray());
+        } catch (SQLException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    public Optional<Long> findVersionByExternalId(String serviceExternalId) {
+        return entityManager.get()
+                .createNamedQuery("ServiceEntity.findVersionByExternalId", Long.class)
+                .setParameter("externalId", serviceExternalId)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Bumps the version of a service whose representation has changed. Needed because changes that only touch
+     * child rows (gateway accounts, service names) would not otherwise increment it.
+     */
+    public void incrementVersion(ServiceEntity serviceEntity) {
+        entityManager.get().lock(serviceEntity, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
     }
 
     public Optional<ServiceEntity> findByExternalId(String serviceExternalId) {
-        String query = "SELECT s FROM ServiceEntity as s WHERE s.externalId = :externalId";
         return entityManager.get()
-                .createQuery(query, ServiceEntity.class)
+                .createNamedQuery("ServiceEntity.findByExternalId", ServiceEntity.class)
                 .setParameter("externalId", serviceExternalId)
                 .getResultList()
                 .stream()
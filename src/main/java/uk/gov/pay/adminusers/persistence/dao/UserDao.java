@@ -2,13 +2,19 @@ package uk.gov.pay.adminusers.persistence.dao;
 
 import com.google.inject.Provider;
 import com.google.inject.persist.Transactional;
+import uk.gov.pay.adminusers.model.UserSession;
 import uk.gov.pay.adminusers.persistence.entity.ServiceRoleEntity;
 import uk.gov.pay.adminusers.persistence.entity.UserEntity;
 
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Transactional
@@ -20,53 +26,93 @@ public class UserDao extends JpaDao<UserEntity> {
     }
 
     public Optional<UserEntity> findByExternalId(String externalId) {
-        String query = "SELECT u FROM UserEntity u " +
-                "WHERE LOWER(u.externalId) = LOWER(:externalId)";
+        return entityManager.get()
+                .createNamedQuery("UserEntity.findByExternalId", UserEntity.class)
+                .setParameter("externalId", externalId)
+                .getResultList().stream().findFirst();
+    }
 
+    public Optional<UserSession> findSessionByExternalId(String externalId) {
         return entityManager.get()
-                .createQuery(query, UserEntity.class)
+                .createNamedQuery("UserEntity.findSessionByExternalId", UserSession.class)
                 .setParameter("externalId", externalId)
                 .getResultList().stream().findFirst();
     }
 
-    public List<UserEntity> findByExternalIds(List<String> externalIds) {
-        String query = "SELECT u FROM UserEntity u WHERE LOWER(u.externalId) in :externalIds";
+    /**
+     * Returns the versions of every row that makes up a user's representation: the user, their login state and, for
+     * each service role, the service and role ids and the service version. Cheap enough to run on every conditional GET.
+     */
+    public Optional<String> findVersionsByExternalId(String externalId) {
+        List<Object[]> rows = entityManager.get()
+                .createNamedQuery("UserEntity.findVersionsByExternalId", Object[].class)
+                .setParameter("externalId", externalId)
+                .getResultList();
+
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(rows.stream()
+                .map(row -> Arrays.stream(row).map(String::valueOf).collect(Collectors.joining(":")))
+                .collect(Collectors.joining(",")));
+    }
 
+    public List<UserEntity> findByExternalIds(List<String> externalIds) {
         List<String> lowerCaseExternalIds = externalIds.stream().map(String::toLowerCase).collect(Collectors.toList());
 
         return entityManager.get()
-                .createQuery(query, UserEntity.class)
+                .createNamedQuery("UserEntity.findByExternalIds", UserEntity.class)
                 .setParameter("externalIds", lowerCaseExternalIds)
                 .getResultList();
     }
 
     public Optional<UserEntity> findByUsername(String username) {
-        String query = "SELECT u FROM UserEntity u " +
-                "WHERE LOWER(u.username) = LOWER(:username)";
-
         return entityManager.get()
-                .createQuery(query, UserEntity.class)
+                .createNamedQuery("UserEntity.findByUsername", UserEntity.class)
                 .setParameter("username", username)
                 .getResultList().stream().findFirst();
     }
 
     public Optional<UserEntity> findByEmail(String email) {
-        String query = "SELECT u FROM UserEntity u " +
-                "WHERE LOWER(u.email) = LOWER(:email)";
-
         return entityManager.get()
-                .createQuery(query, UserEntity.class)
+                .createNamedQuery("UserEntity.findByEmail", UserEntity.class)
                 .setParameter("email", email)
                 .getResultList().stream().findFirst();
     }
 
-    public List<UserEntity> findByServiceId(Integer serviceId) {
+    public List<UserEntity> findByEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> lowerCaseEmails = emails.stream().map(email -> email.toLowerCase(Locale.ENGLISH)).distinct().collect(Collectors.toList());
 
-        String query = "SELECT s FROM ServiceRoleEntity s " +
-                "WHERE s.service.id = :serviceId ORDER BY s.user.username";
+        return entityManager.get()
+                .createNamedQuery("UserEntity.findByEmails", UserEntity.class)
+                .setParameter("emails", lowerCaseEmails)
+                .getResultList();
+    }
 
+    /**
+     * Returns which of the given email addresses belong to a user, lower-cased, in a single query.
+     */
+    public Set<String> findEmailsOfExistingUsers(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+
+        List<String> lowerCaseEmails = emails.stream().map(email -> email.toLowerCase(Locale.ENGLISH)).distinct().collect(Collectors.toList());
+
+        return new HashSet<>(entityManager.get()
+                .createNamedQuery("UserEntity.findEmailsIn", String.class)
+                .setParameter("emails", lowerCaseEmails)
+                .getResultList());
+    }
+
+    public List<UserEntity> findByServiceId(Integer serviceId) {
         return entityManager.get()
-                .createQuery(query, ServiceRoleEntity.class)
+                .createNamedQuery("ServiceRoleEntity.findByServiceId", ServiceRoleEntity.class)
                 .setParameter("serviceId", serviceId)
                 .getResultList().stream()
                 .map(ServiceRoleEntity::getUser)
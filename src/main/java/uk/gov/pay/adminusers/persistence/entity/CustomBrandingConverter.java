@@ -7,35 +7,59 @@ import org.postgresql.util.PGobject;
 
 import javax.persistence.AttributeConverter;
 import javax.persistence.Converter;
-import java.io.IOException;
 import java.sql.SQLException;
 import java.util.Map;
 
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
+/**
+ * Maps the custom_branding column to and from its raw JSON, leaving parsing to {@link #fromJson(String)} so that
+ * loading a service does not pay for it unless the branding is actually read.
+ */
 @Converter
-public class CustomBrandingConverter implements AttributeConverter<Map<String, Object>, PGobject> {
+public class CustomBrandingConverter implements AttributeConverter<String, PGobject> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> CUSTOM_BRANDING_TYPE = new TypeReference<>() {};
+
     @Override
-    public PGobject convertToDatabaseColumn(Map<String, Object> customBranding) {
+    public PGobject convertToDatabaseColumn(String customBranding) {
         PGobject dbCustomBranding = new PGobject();
         dbCustomBranding.setType("json");
         try {
-            dbCustomBranding.setValue(new ObjectMapper().writeValueAsString(customBranding));
-        } catch (SQLException | JsonProcessingException e) {
+            dbCustomBranding.setValue(customBranding);
+        } catch (SQLException e) {
             throw new RuntimeException(e);
         }
         return dbCustomBranding;
     }
 
     @Override
-    public Map<String, Object> convertToEntityAttribute(PGobject dbCustomBranding) {
+    public String convertToEntityAttribute(PGobject dbCustomBranding) {
+        if (dbCustomBranding == null || isEmpty(dbCustomBranding.getValue())) {
+            return null;
+        }
+        return dbCustomBranding.getValue();
+    }
+
+    public static String toJson(Map<String, Object> customBranding) {
+        if (customBranding == null) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.writeValueAsString(customBranding);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static Map<String, Object> fromJson(String customBranding) {
+        if (isEmpty(customBranding)) {
+            return null;
+        }
         try {
-            if (dbCustomBranding == null || isEmpty(dbCustomBranding.toString())) {
-                return null;
-            } else {
-                return new ObjectMapper().readValue(dbCustomBranding.toString(), new TypeReference<>() {});
-            }
-        } catch (IOException e) {
+            return OBJECT_MAPPER.readValue(customBranding, CUSTOM_BRANDING_TYPE);
+        } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
     }
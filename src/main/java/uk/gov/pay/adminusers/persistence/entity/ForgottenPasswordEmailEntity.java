@@ -0,0 +1,69 @@
+package uk.gov.pay.adminusers.persistence.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import java.time.ZonedDateTime;
+
+/**
+ * A forgotten password email sent to a user, kept so the number sent can be limited across instances. The rows go
+ * when their forgotten password code is deleted.
+ */
+@Entity
+@NamedQuery(name = "ForgottenPasswordEmailEntity.countByUserSentSince",
+        query = "SELECT COUNT(email) FROM ForgottenPasswordEmailEntity email WHERE email.user = :user AND email.sentAt >= :since")
+@Table(name = "forgotten_password_emails")
+public class ForgottenPasswordEmailEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "forgotten_password_id", updatable = false)
+    private ForgottenPasswordEntity forgottenPassword;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", updatable = false)
+    private UserEntity user;
+
+    @Column(name = "sent_at")
+    @Convert(converter = UTCDateTimeConverter.class)
+    private ZonedDateTime sentAt;
+
+    /**
+     * For JPA
+     */
+    public ForgottenPasswordEmailEntity() {
+    }
+
+    public ForgottenPasswordEmailEntity(ForgottenPasswordEntity forgottenPassword, UserEntity user, ZonedDateTime sentAt) {
+        this.forgottenPassword = forgottenPassword;
+        this.user = user;
+        this.sentAt = sentAt;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public ForgottenPasswordEntity getForgottenPassword() {
+        return forgottenPassword;
+    }
+
+    public UserEntity getUser() {
+        return user;
+    }
+
+    public ZonedDateTime getSentAt() {
+        return sentAt;
+    }
+}
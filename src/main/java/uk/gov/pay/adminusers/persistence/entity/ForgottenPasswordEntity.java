@@ -7,6 +7,8 @@ import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import java.time.ZoneId;
@@ -15,6 +17,12 @@ import java.time.ZonedDateTime;
 import static uk.gov.pay.adminusers.model.ForgottenPassword.forgottenPassword;
 
 @Entity
+@NamedQueries({
+        @NamedQuery(name = "ForgottenPasswordEntity.findNonExpiredByCode",
+                query = "SELECT fp FROM ForgottenPasswordEntity fp WHERE fp.code = :code AND fp.date >= :expiry"),
+        @NamedQuery(name = "ForgottenPasswordEntity.findByUserCreatedSince",
+                query = "SELECT fp FROM ForgottenPasswordEntity fp WHERE fp.user = :user AND fp.date >= :since ORDER BY fp.date DESC")
+})
 @Table(name = "forgotten_passwords")
 @SequenceGenerator(name = "forgotten_passwords_id_seq", sequenceName = "forgotten_passwords_id_seq", allocationSize = 1)
 public class ForgottenPasswordEntity extends AbstractEntity {
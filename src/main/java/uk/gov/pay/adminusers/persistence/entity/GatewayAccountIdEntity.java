@@ -8,10 +8,16 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedNativeQuery;
+import javax.persistence.NamedQuery;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
 @Entity
+@NamedQuery(name = "GatewayAccountIdEntity.findByGatewayAccountId",
+        query = "SELECT ga FROM GatewayAccountIdEntity ga WHERE ga.gatewayAccountId = :gatewayAccountId")
+@NamedNativeQuery(name = "GatewayAccountIdEntity.findGatewayAccountIdsIn",
+        query = "SELECT gateway_account_id FROM service_gateway_accounts WHERE gateway_account_id = ANY (?1)")
 @Table(name = "service_gateway_accounts")
 @SequenceGenerator(name = "service_gatewayAccounts_seq_gen", sequenceName = "service_gateway_accounts_id_seq", allocationSize = 1)
 public class GatewayAccountIdEntity {
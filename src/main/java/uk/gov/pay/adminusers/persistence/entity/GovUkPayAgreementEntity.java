@@ -9,12 +9,15 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
+import javax.persistence.NamedQuery;
 import javax.persistence.OneToOne;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import java.time.ZonedDateTime;
 
 @Entity
+@NamedQuery(name = "GovUkPayAgreementEntity.findByServiceExternalId",
+        query = "SELECT agreement FROM GovUkPayAgreementEntity agreement WHERE agreement.service.externalId = :externalServiceId")
 @Table(name = "govuk_pay_agreements")
 public class GovUkPayAgreementEntity {
 
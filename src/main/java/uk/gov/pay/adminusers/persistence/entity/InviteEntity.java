@@ -1,5 +1,7 @@
 package uk.gov.pay.adminusers.persistence.entity;
 
+import org.eclipse.persistence.annotations.BatchFetch;
+import org.eclipse.persistence.annotations.BatchFetchType;
 import uk.gov.pay.adminusers.app.util.RandomIdGenerator;
 import uk.gov.pay.adminusers.model.Invite;
 import uk.gov.pay.adminusers.model.InviteType;
@@ -11,6 +13,8 @@ import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -21,6 +25,22 @@ import static uk.gov.pay.adminusers.model.InviteType.USER;
 import static uk.gov.pay.adminusers.persistence.entity.UTCDateTimeConverter.UTC;
 
 @Entity
+@NamedQueries({
+        @NamedQuery(name = "InviteEntity.findByCode",
+                query = "SELECT invite FROM InviteEntity invite WHERE invite.code = :code"),
+        @NamedQuery(name = "InviteEntity.findByEmail",
+                query = "SELECT invite FROM InviteEntity invite WHERE invite.email = :email"),
+        @NamedQuery(name = "InviteEntity.findAllByServiceExternalId",
+                query = "SELECT invite FROM InviteEntity invite WHERE invite.service.externalId = :serviceId"),
+        @NamedQuery(name = "InviteEntity.findActiveByEmailAndServiceExternalId",
+                query = "SELECT invite FROM InviteEntity invite WHERE invite.email = :email " +
+                        "AND invite.service.externalId = :serviceId " +
+                        "AND invite.disabled = FALSE AND invite.expiryDate >= :now ORDER BY invite.id"),
+        @NamedQuery(name = "InviteEntity.findActiveByEmailsAndServiceExternalId",
+                query = "SELECT invite FROM InviteEntity invite WHERE LOWER(invite.email) IN :emails " +
+                        "AND invite.service.externalId = :serviceId " +
+                        "AND invite.disabled = FALSE AND invite.expiryDate >= :now ORDER BY invite.id")
+})
 @Table(name = "invites")
 public class InviteEntity extends AbstractEntity {
 
@@ -44,6 +64,7 @@ public class InviteEntity extends AbstractEntity {
 
     @ManyToOne
     @JoinColumn(name = "sender_id")
+    @BatchFetch(BatchFetchType.IN)
     private UserEntity sender;
 
     @Column(name = "email")
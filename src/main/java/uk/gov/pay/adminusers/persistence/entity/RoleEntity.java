@@ -10,6 +10,7 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
+import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 import java.util.ArrayList;
 import java.util.List;
@@ -27,6 +28,8 @@ import static uk.gov.pay.adminusers.persistence.entity.Role.ADMIN;
  */
 @ReadOnly
 @Entity
+@NamedQuery(name = "RoleEntity.findByName",
+        query = "SELECT r FROM RoleEntity r WHERE r.name = :roleName")
 @Table(name = "roles")
 public class RoleEntity {
 
@@ -1,5 +1,7 @@
 package uk.gov.pay.adminusers.persistence.entity;
 
+import org.eclipse.persistence.annotations.BatchFetch;
+import org.eclipse.persistence.annotations.BatchFetchType;
 import uk.gov.pay.adminusers.model.GoLiveStage;
 import uk.gov.pay.adminusers.model.Service;
 import uk.gov.pay.adminusers.model.ServiceName;
@@ -16,13 +18,19 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.NamedNativeQuery;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.Version;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -31,6 +39,16 @@ import static javax.persistence.EnumType.STRING;
 import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomUuid;
 
 @Entity
+@NamedQueries({
+        @NamedQuery(name = "ServiceEntity.listAll",
+                query = "SELECT s FROM ServiceEntity s"),
+        @NamedQuery(name = "ServiceEntity.findByExternalId",
+                query = "SELECT s FROM ServiceEntity s WHERE s.externalId = :externalId"),
+        @NamedQuery(name = "ServiceEntity.findVersionByExternalId",
+                query = "SELECT s.version FROM ServiceEntity s WHERE s.externalId = :externalId")
+})
+@NamedNativeQuery(name = "ServiceEntity.countOfUsersWithRoleForService",
+        query = "SELECT count(*) FROM user_services_roles usr WHERE usr.role_id = ? AND usr.service_id = (SELECT srv.id FROM services srv WHERE srv.external_id = ?)")
 @Table(name = "services")
 @SequenceGenerator(name = "services_seq_gen", sequenceName = "services_id_seq", allocationSize = 1)
 public class ServiceEntity {
@@ -53,15 +71,24 @@ public class ServiceEntity {
 
     @Column(name = "custom_branding", columnDefinition = "json")
     @Convert(converter = CustomBrandingConverter.class)
-    private Map<String, Object> customBranding;
+    private String customBranding;
+
+    // customBranding is only parsed when it is read; parsedCustomBrandingSource records which JSON the map came from
+    @Transient
+    private String parsedCustomBrandingSource;
+
+    @Transient
+    private Map<String, Object> parsedCustomBranding;
 
     @OneToMany(mappedBy = "service", targetEntity = GatewayAccountIdEntity.class, fetch = FetchType.EAGER, cascade = CascadeType.PERSIST)
+    @BatchFetch(BatchFetchType.IN)
     private List<GatewayAccountIdEntity> gatewayAccountIds = new ArrayList<>();
 
     @OneToMany(mappedBy = "service", targetEntity = InviteEntity.class, fetch = FetchType.LAZY)
     private List<InviteEntity> invites = new ArrayList<>();
 
     @OneToMany(mappedBy = "service", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @BatchFetch(BatchFetchType.IN)
     private Set<ServiceNameEntity> serviceNames = new HashSet<>();
     
     @Column(name = "current_go_live_stage")
@@ -71,6 +98,10 @@ public class ServiceEntity {
     @Column(name = "experimental_features_enabled")
     private boolean experimentalFeaturesEnabled = false;
 
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     public ServiceEntity() {
     }
 
@@ -94,6 +125,10 @@ public class ServiceEntity {
         return id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public void setId(Integer id) {
         this.id = id;
     }
@@ -139,11 +174,17 @@ public class ServiceEntity {
     }
 
     public Map<String, Object> getCustomBranding() {
-        return customBranding;
+        if (!Objects.equals(customBranding, parsedCustomBrandingSource)) {
+            parsedCustomBranding = CustomBrandingConverter.fromJson(customBranding);
+            parsedCustomBrandingSource = customBranding;
+        }
+        return parsedCustomBranding;
     }
 
     public void setCustomBranding(Map<String, Object> customBranding) {
-        this.customBranding = customBranding;
+        this.customBranding = CustomBrandingConverter.toJson(customBranding);
+        this.parsedCustomBranding = customBranding;
+        this.parsedCustomBrandingSource = this.customBranding;
     }
 
     public Service toService() {
@@ -152,7 +193,8 @@ public class ServiceEntity {
         service.setGatewayAccountIds(gatewayAccountIds.stream()
                 .map(GatewayAccountIdEntity::getGatewayAccountId)
                 .collect(Collectors.toList()));
-        service.setCustomBranding(this.customBranding);
+        service.setCustomBranding(getCustomBranding());
+        service.setVersion(version);
         if (this.merchantDetailsEntity != null) {
             service.setMerchantDetails(this.merchantDetailsEntity.toMerchantDetails());
         }
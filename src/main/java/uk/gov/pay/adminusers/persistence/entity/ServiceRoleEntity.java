@@ -8,9 +8,12 @@ import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.MapsId;
+import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 
 @Entity
+@NamedQuery(name = "ServiceRoleEntity.findByServiceId",
+        query = "SELECT s FROM ServiceRoleEntity s WHERE s.service.id = :serviceId ORDER BY s.user.username")
 @Table(name = "user_services_roles")
 public class ServiceRoleEntity {
 
@@ -9,6 +9,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
+import javax.persistence.NamedQuery;
 import javax.persistence.OneToOne;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
@@ -17,6 +18,8 @@ import java.net.UnknownHostException;
 import java.time.ZonedDateTime;
 
 @Entity
+@NamedQuery(name = "StripeAgreementEntity.findByServiceExternalId",
+        query = "SELECT s FROM StripeAgreementEntity s WHERE s.service.externalId = :serviceExternalId")
 @Table(name = "stripe_agreements")
 @SequenceGenerator(name = "stripe_agreements_id_seq_gen", sequenceName = "stripe_agreements_id_seq", allocationSize = 1)
 
@@ -1,5 +1,7 @@
 package uk.gov.pay.adminusers.persistence.entity;
 
+import org.eclipse.persistence.annotations.BatchFetch;
+import org.eclipse.persistence.annotations.BatchFetchType;
 import uk.gov.pay.adminusers.app.util.RandomIdGenerator;
 import uk.gov.pay.adminusers.model.CreateUserRequest;
 import uk.gov.pay.adminusers.model.SecondFactorMethod;
@@ -11,7 +13,11 @@ import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Convert;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
+import javax.persistence.OneToOne;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import java.time.ZoneId;
@@ -25,6 +31,24 @@ import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
 
 @Entity
+@NamedQueries({
+        @NamedQuery(name = "UserEntity.findByExternalId",
+                query = "SELECT u FROM UserEntity u WHERE LOWER(u.externalId) = LOWER(:externalId)"),
+        @NamedQuery(name = "UserEntity.findSessionByExternalId",
+                query = "SELECT NEW uk.gov.pay.adminusers.model.UserSession(u.sessionVersion, u.disabled, u.secondFactor) FROM UserEntity u WHERE LOWER(u.externalId) = LOWER(:externalId)"),
+        @NamedQuery(name = "UserEntity.findVersionsByExternalId",
+                query = "SELECT u.version, ls.version, s.id, s.version, r.id FROM UserEntity u LEFT JOIN u.loginState ls LEFT JOIN u.servicesRoles sr LEFT JOIN sr.service s LEFT JOIN sr.role r WHERE LOWER(u.externalId) = LOWER(:externalId) ORDER BY s.id"),
+        @NamedQuery(name = "UserEntity.findByExternalIds",
+                query = "SELECT u FROM UserEntity u WHERE LOWER(u.externalId) IN :externalIds"),
+        @NamedQuery(name = "UserEntity.findByUsername",
+                query = "SELECT u FROM UserEntity u WHERE LOWER(u.username) = LOWER(:username)"),
+        @NamedQuery(name = "UserEntity.findByEmail",
+                query = "SELECT u FROM UserEntity u WHERE LOWER(u.email) = LOWER(:email)"),
+        @NamedQuery(name = "UserEntity.findByEmails",
+                query = "SELECT u FROM UserEntity u WHERE LOWER(u.email) IN :emails"),
+        @NamedQuery(name = "UserEntity.findEmailsIn",
+                query = "SELECT LOWER(u.email) FROM UserEntity u WHERE LOWER(u.email) IN :emails")
+})
 @Table(name = "users")
 @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 1)
 public class UserEntity extends AbstractEntity {
@@ -50,9 +74,6 @@ public class UserEntity extends AbstractEntity {
     @Column(name = "disabled")
     private Boolean disabled = Boolean.FALSE;
 
-    @Column(name = "login_counter")
-    private Integer loginCounter = 0;
-
     @Column(name = "features")
     private String features;
 
@@ -82,9 +103,9 @@ public class UserEntity extends AbstractEntity {
     @Convert(converter = UTCDateTimeConverter.class)
     private ZonedDateTime provisionalOtpKeyCreatedAt;
 
-    @Column(name = "last_logged_in_at")
-    @Convert(converter = UTCDateTimeConverter.class)
-    private ZonedDateTime lastLoggedInAt;
+    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @BatchFetch(BatchFetchType.IN)
+    private UserLoginStateEntity loginState = new UserLoginStateEntity(this);
 
     /**
      * For JPA
@@ -154,11 +175,11 @@ public class UserEntity extends AbstractEntity {
     }
 
     public Integer getLoginCounter() {
-        return loginCounter;
+        return getLoginState().getLoginCounter();
     }
 
     public void setLoginCounter(Integer loginCount) {
-        this.loginCounter = loginCount;
+        getLoginState().setLoginCounter(loginCount);
     }
 
     public String getFeatures() {
@@ -222,11 +243,18 @@ public class UserEntity extends AbstractEntity {
     }
 
     public ZonedDateTime getLastLoggedInAt() {
-        return lastLoggedInAt;
+        return getLoginState().getLastLoggedInAt();
     }
 
     public void setLastLoggedInAt(ZonedDateTime lastLoggedInAt) {
-        this.lastLoggedInAt = lastLoggedInAt;
+        getLoginState().setLastLoggedInAt(lastLoggedInAt);
+    }
+
+    public UserLoginStateEntity getLoginState() {
+        if (loginState == null) {
+            loginState = new UserLoginStateEntity(this);
+        }
+        return loginState;
     }
 
     /**
@@ -282,16 +310,23 @@ public class UserEntity extends AbstractEntity {
     }
 
     public User toUser() {
+        return toUser(true);
+    }
+
+    /**
+     * @param withServiceRoles false to leave the user's service roles empty rather than loading them
+     */
+    public User toUser(boolean withServiceRoles) {
 
         List<ServiceRole> serviceRoles = new ArrayList<>();
 
-        if (!this.servicesRoles.isEmpty()) {
+        if (withServiceRoles && !this.servicesRoles.isEmpty()) {
             serviceRoles = this.servicesRoles.stream().map(ServiceRoleEntity::toServiceRole).collect(toList());
         }
 
         User user = User.from(getId(), externalId, username, password, email, otpKey, telephoneNumber, serviceRoles,
-                features, secondFactor, provisionalOtpKey, provisionalOtpKeyCreatedAt, lastLoggedInAt);
-        user.setLoginCounter(loginCounter);
+                features, secondFactor, provisionalOtpKey, provisionalOtpKeyCreatedAt, getLastLoggedInAt());
+        user.setLoginCounter(getLoginCounter());
         user.setDisabled(disabled);
         user.setSessionVersion(sessionVersion);
 
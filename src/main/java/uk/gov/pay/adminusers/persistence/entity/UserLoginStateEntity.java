@@ -0,0 +1,85 @@
+package uk.gov.pay.adminusers.persistence.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.OneToOne;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
+import javax.persistence.Version;
+import java.io.Serializable;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * The columns of a user that change on nearly every sign in attempt. These are kept in their own narrow table so that
+ * authenticating a user does not rewrite the much wider users row.
+ */
+@Entity
+@Table(name = "user_login_state")
+public class UserLoginStateEntity implements Serializable {
+
+    @Id
+    @OneToOne
+    @JoinColumn(name = "user_id", referencedColumnName = "id")
+    private UserEntity user;
+
+    @Column(name = "login_counter")
+    private Integer loginCounter = 0;
+
+    @Column(name = "last_logged_in_at")
+    @Convert(converter = UTCDateTimeConverter.class)
+    private ZonedDateTime lastLoggedInAt;
+
+    @Column(name = "updated_at")
+    @Convert(converter = UTCDateTimeConverter.class)
+    private ZonedDateTime updatedAt;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    /**
+     * For JPA
+     */
+    public UserLoginStateEntity() {
+        super();
+    }
+
+    public UserLoginStateEntity(UserEntity user) {
+        this.user = user;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void updateTimestamp() {
+        this.updatedAt = ZonedDateTime.now(ZoneId.of("UTC"));
+    }
+
+    public UserEntity getUser() {
+        return user;
+    }
+
+    public Integer getLoginCounter() {
+        return loginCounter;
+    }
+
+    public void setLoginCounter(Integer loginCounter) {
+        this.loginCounter = loginCounter;
+    }
+
+    public ZonedDateTime getLastLoggedInAt() {
+        return lastLoggedInAt;
+    }
+
+    public void setLastLoggedInAt(ZonedDateTime lastLoggedInAt) {
+        this.lastLoggedInAt = lastLoggedInAt;
+    }
+
+    public ZonedDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -10,6 +10,8 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Response;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
@@ -21,28 +23,32 @@ public class EmailResource {
 
     private final EmailService notificationService;
     private final EmailRequestParser emailRequestParser;
+    private final NotifyRequestExecutor notifyRequestExecutor;
 
     @Inject
-    public EmailResource(EmailService notificationService, EmailRequestParser emailRequestParser) {
+    public EmailResource(EmailService notificationService, EmailRequestParser emailRequestParser, NotifyRequestExecutor notifyRequestExecutor) {
         this.notificationService = notificationService;
         this.emailRequestParser = emailRequestParser;
+        this.notifyRequestExecutor = notifyRequestExecutor;
     }
 
     @Path("/v1/emails/send")
     @POST
     @Produces(APPLICATION_JSON)
     @Consumes(APPLICATION_JSON)
-    public Response sendEmail(JsonNode payload) throws InvalidEmailRequestException, InvalidMerchantDetailsException {
+    public void sendEmail(JsonNode payload, @Suspended AsyncResponse asyncResponse) throws InvalidEmailRequestException {
         LOGGER.info("Received email request");
         EmailRequest emailRequest = emailRequestParser.parse(payload);
         EmailTemplate template = emailRequest.getTemplate();
         String gatewayAccountId = emailRequest.getGatewayAccountId();
         LOGGER.info("Sending {} email for account {}", template, gatewayAccountId);
-        notificationService.sendEmail(
-                emailRequest.getEmailAddress(),
-                gatewayAccountId,
-                template,
-                emailRequest.getPersonalisation());
-        return Response.status(Response.Status.OK).build();
+        notifyRequestExecutor.execute(asyncResponse, () -> {
+            notificationService.sendEmail(
+                    emailRequest.getEmailAddress(),
+                    gatewayAccountId,
+                    template,
+                    emailRequest.getPersonalisation());
+            return Response.status(Response.Status.OK).build();
+        });
     }
 }
@@ -0,0 +1,122 @@
+package uk.gov.pay.adminusers.resources;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Splitter;
+
+import javax.ws.rs.core.EntityTag;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * The fields a caller asked for with the {@code fields} query parameter, as a comma separated list of dotted paths
+ * such as {@code external_id,service_roles.service.external_id}. A path selects everything beneath it and applies to
+ * each element of an array it passes through. Without the parameter every field is selected.
+ */
+public class FieldSelection {
+
+    private static final Splitter COMMA_SEPARATOR = Splitter.on(',').trimResults().omitEmptyStrings();
+    private static final Splitter DOT_SEPARATOR = Splitter.on('.');
+    private static final FieldSelection ALL = new FieldSelection(null);
+
+    private final SortedSet<String> fields;
+    private final FieldTree tree;
+
+    private FieldSelection(SortedSet<String> fields) {
+        this.fields = fields;
+        this.tree = fields == null ? null : FieldTree.of(fields);
+    }
+
+    /**
+     * @param fields the value of the {@code fields} query parameter, already validated
+     */
+    public static FieldSelection from(String fields) {
+        if (isBlank(fields)) {
+            return ALL;
+        }
+        return new FieldSelection(new TreeSet<>(COMMA_SEPARATOR.splitToList(fields)));
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    /**
+     * @return whether the response needs anything at or beneath the given path, so whether it has to be loaded
+     */
+    public boolean includes(String path) {
+        return isAll() || fields.stream().anyMatch(field -> field.equals(path) || field.startsWith(path + ".") || path.startsWith(field + "."));
+    }
+
+    /**
+     * @return the representation as it was when every field is selected, otherwise its JSON with only the selected
+     * fields left in
+     */
+    public Object select(Object representation, ObjectMapper objectMapper) {
+        if (isAll()) {
+            return representation;
+        }
+        return tree.select(objectMapper.valueToTree(representation));
+    }
+
+    /**
+     * @return a tag for the selected fields of the representation the given tag identifies, so caches never confuse
+     * the full representation with a sparse one
+     */
+    public EntityTag tag(EntityTag entityTag) {
+        if (isAll()) {
+            return entityTag;
+        }
+        return new EntityTag(entityTag.getValue() + ";fields=" + this);
+    }
+
+    @Override
+    public String toString() {
+        return isAll() ? "" : String.join(",", fields);
+    }
+
+    private static class FieldTree {
+
+        private final Map<String, FieldTree> children = new TreeMap<>();
+        private boolean selectsEverything;
+
+        private static FieldTree of(SortedSet<String> fields) {
+            FieldTree root = new FieldTree();
+            for (String field : fields) {
+                FieldTree node = root;
+                for (String name : DOT_SEPARATOR.split(field)) {
+                    node = node.children.computeIfAbsent(name, ignored -> new FieldTree());
+                }
+                node.selectsEverything = true;
+            }
+            return root;
+        }
+
+        private JsonNode select(JsonNode node) {
+            if (selectsEverything) {
+                return node;
+            }
+            if (node.isArray()) {
+                ArrayNode selected = ((ArrayNode) node).arrayNode();
+                node.forEach(element -> selected.add(select(element)));
+                return selected;
+            }
+            if (node.isObject()) {
+                ObjectNode selected = ((ObjectNode) node).objectNode();
+                children.forEach((name, child) -> {
+                    if (node.has(name)) {
+                        selected.set(name, child.select(node.get(name)));
+                    }
+                });
+                return selected;
+            }
+            return node;
+        }
+    }
+}
@@ -13,6 +13,8 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Response;
 import java.util.Optional;
 
@@ -31,26 +33,29 @@ public class ForgottenPasswordResource {
     private static final int MAX_LENGTH = 255;
     private final ForgottenPasswordServices forgottenPasswordServices;
     private final ForgottenPasswordValidator validator;
+    private final NotifyRequestExecutor notifyRequestExecutor;
 
     @Inject
-    public ForgottenPasswordResource(ForgottenPasswordServices forgottenPasswordServices) {
+    public ForgottenPasswordResource(ForgottenPasswordServices forgottenPasswordServices, NotifyRequestExecutor notifyRequestExecutor) {
         this.forgottenPasswordServices = forgottenPasswordServices;
+        this.notifyRequestExecutor = notifyRequestExecutor;
         validator = new ForgottenPasswordValidator();
     }
     
     @POST
     @Produces(APPLICATION_JSON)
     @Consumes(APPLICATION_JSON)
-    public Response sendForgottenPassword(JsonNode payload) {
+    public void sendForgottenPassword(JsonNode payload, @Suspended AsyncResponse asyncResponse) {
         LOGGER.info("ForgottenPassword CREATE request - [ {} ]", payload);
         Optional<Errors> errorsOptional = validator.validateCreateRequest(payload);
-        return errorsOptional
-                .map(errors ->
-                        Response.status(BAD_REQUEST).type(APPLICATION_JSON).entity(errors).build())
-                .orElseGet(() -> {
-                    forgottenPasswordServices.create(payload.get("username").asText());
-                    return Response.status(OK).build();
-                });
+        if (errorsOptional.isPresent()) {
+            asyncResponse.resume(Response.status(BAD_REQUEST).type(APPLICATION_JSON).entity(errorsOptional.get()).build());
+            return;
+        }
+        notifyRequestExecutor.execute(asyncResponse, () -> {
+            forgottenPasswordServices.create(payload.get("username").asText());
+            return Response.status(OK).build();
+        });
     }
 
     @Path("/{code}")
@@ -3,14 +3,20 @@ package uk.gov.pay.adminusers.resources;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.inject.Inject;
 import uk.gov.pay.adminusers.model.InviteServiceRequest;
+import uk.gov.pay.adminusers.model.InviteType;
 import uk.gov.pay.adminusers.model.InviteValidateOtpRequest;
 import uk.gov.pay.adminusers.service.AdminUsersExceptions;
 import uk.gov.pay.adminusers.utils.Errors;
 import uk.gov.pay.adminusers.utils.telephonenumber.TelephoneNumberUtility;
 import uk.gov.pay.adminusers.validations.RequestValidations;
 
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.lang.String.format;
 import static uk.gov.pay.adminusers.model.InviteOtpRequest.FIELD_CODE;
@@ -20,6 +26,7 @@ import static uk.gov.pay.adminusers.model.InviteUserRequest.FIELD_EMAIL;
 import static uk.gov.pay.adminusers.model.InviteUserRequest.FIELD_ROLE_NAME;
 import static uk.gov.pay.adminusers.model.InviteUserRequest.FIELD_SENDER;
 import static uk.gov.pay.adminusers.model.InviteUserRequest.FIELD_SERVICE_EXTERNAL_ID;
+import static uk.gov.pay.adminusers.model.InviteUsersRequest.FIELD_EMAILS;
 import static uk.gov.pay.adminusers.model.InviteValidateOtpRequest.FIELD_OTP;
 import static uk.gov.pay.adminusers.utils.email.EmailValidator.isPublicSectorEmail;
 import static uk.gov.pay.adminusers.utils.email.EmailValidator.isValid;
@@ -27,6 +34,9 @@ import static uk.gov.pay.adminusers.utils.email.EmailValidator.isValid;
 public class InviteRequestValidator {
 
     private static final int MAX_LENGTH_CODE = 255;
+    private static final int MAX_BATCH_INVITES = 500;
+    private static final int MAX_INVITES_PAGE_SIZE = 500;
+    private static final Set<String> INVITE_VIEWS = Set.of("full", "summary");
     private final RequestValidations requestValidations;
 
 
@@ -46,6 +56,70 @@ public class InviteRequestValidator {
         return missingMandatoryFields.map(Errors::from);
     }
 
+    public Optional<Errors> validateCreateUsersRequest(JsonNode payload) {
+        Optional<List<String>> missingMandatoryFields = requestValidations.checkExistsAndNotEmpty(payload, FIELD_SERVICE_EXTERNAL_ID, FIELD_EMAILS, FIELD_ROLE_NAME, FIELD_SENDER);
+        if (missingMandatoryFields.isPresent()) {
+            return Optional.of(Errors.from(missingMandatoryFields.get()));
+        }
+        JsonNode emails = payload.get(FIELD_EMAILS);
+        if (!emails.isArray()) {
+            return Optional.of(Errors.from(format("Field [%s] must be an array of email addresses", FIELD_EMAILS)));
+        }
+        if (emails.size() > MAX_BATCH_INVITES) {
+            return Optional.of(Errors.from(format("Field [%s] must not contain more than %d email addresses", FIELD_EMAILS, MAX_BATCH_INVITES)));
+        }
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < emails.size(); i++) {
+            JsonNode email = emails.get(i);
+            if (!email.isTextual() || !isValid(email.asText())) {
+                errors.add(format("Field [%s] must only contain valid email addresses, but element [%d] is not", FIELD_EMAILS, i));
+            }
+        }
+        return errors.isEmpty() ? Optional.empty() : Optional.of(Errors.from(errors));
+    }
+
+    public Optional<Errors> validateFindInvitesRequest(String type, String expiresAfter, String expiresBefore, String after, String limit, String view) {
+        List<String> errors = new ArrayList<>();
+        if (type != null && Arrays.stream(InviteType.values()).noneMatch(inviteType -> inviteType.getType().equals(type))) {
+            errors.add("Query parameter [type] must be one of [user, service]");
+        }
+        checkDateTime("expiresAfter", expiresAfter).ifPresent(errors::add);
+        checkDateTime("expiresBefore", expiresBefore).ifPresent(errors::add);
+        checkIntegerInRange("after", after, 0, Integer.MAX_VALUE).ifPresent(errors::add);
+        checkIntegerInRange("limit", limit, 1, MAX_INVITES_PAGE_SIZE).ifPresent(errors::add);
+        if (view != null && !INVITE_VIEWS.contains(view)) {
+            errors.add("Query parameter [view] must be one of [full, summary]");
+        }
+        return errors.isEmpty() ? Optional.empty() : Optional.of(Errors.from(errors));
+    }
+
+    private static Optional<String> checkDateTime(String name, String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            ZonedDateTime.parse(value);
+            return Optional.empty();
+        } catch (DateTimeParseException e) {
+            return Optional.of(format("Query parameter [%s] must be an ISO 8601 date and time with an offset", name));
+        }
+    }
+
+    private static Optional<String> checkIntegerInRange(String name, String value, int min, int max) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            int number = Integer.parseInt(value);
+            if (number >= min && number <= max) {
+                return Optional.empty();
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        return Optional.of(format("Query parameter [%s] must be a whole number between %d and %d", name, min, max));
+    }
+
     public Optional<Errors> validateGenerateOtpRequest(JsonNode payload) {
         Optional<List<String>> missingMandatoryFields = requestValidations.checkExistsAndNotEmpty(payload, FIELD_TELEPHONE_NUMBER, FIELD_PASSWORD);
         if (missingMandatoryFields.isPresent()) {
@@ -3,16 +3,21 @@ package uk.gov.pay.adminusers.resources;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.inject.Inject;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.adminusers.model.Invite;
 import uk.gov.pay.adminusers.model.InviteCompleteRequest;
 import uk.gov.pay.adminusers.model.InviteOtpRequest;
+import uk.gov.pay.adminusers.model.InviteSearchParams;
 import uk.gov.pay.adminusers.model.InviteServiceRequest;
 import uk.gov.pay.adminusers.model.InviteUserRequest;
+import uk.gov.pay.adminusers.model.InviteUsersRequest;
 import uk.gov.pay.adminusers.model.InviteValidateOtpRequest;
+import uk.gov.pay.adminusers.model.InvitesPage;
 import uk.gov.pay.adminusers.model.User;
 import uk.gov.pay.adminusers.service.InviteCompleter;
+import uk.gov.pay.adminusers.service.InviteFinder;
 import uk.gov.pay.adminusers.service.InviteOtpDispatcher;
 import uk.gov.pay.adminusers.service.InviteService;
 import uk.gov.pay.adminusers.service.InviteServiceFactory;
@@ -27,7 +32,11 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -52,12 +61,15 @@ public class InviteResource {
     private final InviteService inviteService;
     private final InviteRequestValidator inviteValidator;
     private final InviteServiceFactory inviteServiceFactory;
+    private final NotifyRequestExecutor notifyRequestExecutor;
 
     @Inject
-    public InviteResource(InviteService service, InviteRequestValidator inviteValidator, InviteServiceFactory inviteServiceFactory) {
+    public InviteResource(InviteService service, InviteRequestValidator inviteValidator, InviteServiceFactory inviteServiceFactory,
+                          NotifyRequestExecutor notifyRequestExecutor) {
         inviteService = service;
         this.inviteServiceFactory = inviteServiceFactory;
         this.inviteValidator = inviteValidator;
+        this.notifyRequestExecutor = notifyRequestExecutor;
     }
 
     @GET
@@ -88,7 +100,7 @@ public class InviteResource {
         return inviteServiceFactory.inviteCompleteRouter().routeComplete(inviteCode)
                 .map(inviteCompleterAndValidate -> {
                     InviteCompleter inviteCompleter = inviteCompleterAndValidate.getLeft();
-                    return inviteCompleter.withData(inviteCompleteRequestFrom(payload)).complete(inviteCode)
+                    return inviteCompleter.withData(inviteCompleteRequestFrom(payload)).complete()
                             .map(inviteCompleteResponse -> Response.status(OK).entity(inviteCompleteResponse).build())
                             .orElseGet(() -> Response.status(NOT_FOUND).build());
                 })
@@ -111,64 +123,110 @@ public class InviteResource {
     @Path("{code}/otp/generate")
     @Consumes(APPLICATION_JSON)
     @Produces(APPLICATION_JSON)
-    public Response generateAndDispatchOtp(@PathParam("code") String inviteCode, JsonNode payload) {
+    public void generateAndDispatchOtp(@PathParam("code") String inviteCode, JsonNode payload, @Suspended AsyncResponse asyncResponse) {
         LOGGER.info("Invite POST request for generating otp");
         if (isNotBlank(inviteCode) && inviteCode.length() > MAX_LENGTH_CODE) {
-            return Response.status(NOT_FOUND).build();
+            asyncResponse.resume(Response.status(NOT_FOUND).build());
+            return;
         }
 
-        return inviteServiceFactory.inviteOtpRouter().routeOtpDispatch(inviteCode)
-                .map(inviteOtpDispatcherValidate -> {
-                    if(inviteOtpDispatcherValidate.getRight()){
-                        Optional<Errors> errors = inviteValidator.validateGenerateOtpRequest(payload);
-                        if(errors.isPresent()){
-                            return Response.status(BAD_REQUEST).entity(errors).build();
-                        }
-                    }
+        Optional<Pair<InviteOtpDispatcher, Boolean>> inviteOtpDispatcherValidate = inviteServiceFactory.inviteOtpRouter().routeOtpDispatch(inviteCode);
+        if (inviteOtpDispatcherValidate.isEmpty()) {
+            asyncResponse.resume(Response.status(NOT_FOUND).build());
+            return;
+        }
+        if (inviteOtpDispatcherValidate.get().getRight()) {
+            Optional<Errors> errors = inviteValidator.validateGenerateOtpRequest(payload);
+            if (errors.isPresent()) {
+                asyncResponse.resume(Response.status(BAD_REQUEST).entity(errors.get()).build());
+                return;
+            }
+        }
 
-                    InviteOtpDispatcher otpDispatcher = inviteOtpDispatcherValidate.getLeft();
-                    if(otpDispatcher.withData(InviteOtpRequest.from(payload)).dispatchOtp(inviteCode)){
-                        return Response.status(OK).build();
-                    } else {
-                        throw internalServerError("unable to dispatch otp at this moment");
-                    }
-                })
-                .orElseGet(() -> Response.status(NOT_FOUND).build());
+        InviteOtpDispatcher otpDispatcher = inviteOtpDispatcherValidate.get().getLeft();
+        notifyRequestExecutor.execute(asyncResponse, () -> {
+            if (otpDispatcher.withData(InviteOtpRequest.from(payload)).dispatchOtp()) {
+                return Response.status(OK).build();
+            } else {
+                throw internalServerError("unable to dispatch otp at this moment");
+            }
+        });
     }
 
 
     @GET
     @Produces(APPLICATION_JSON)
-    public Response getInvites(@QueryParam("serviceId") String serviceId) {
+    public Response getInvites(@QueryParam("serviceId") String serviceId,
+                               @QueryParam("type") String type,
+                               @QueryParam("role") String role,
+                               @QueryParam("sender") String sender,
+                               @QueryParam("expiresAfter") String expiresAfter,
+                               @QueryParam("expiresBefore") String expiresBefore,
+                               @QueryParam("after") String after,
+                               @QueryParam("limit") String limit,
+                               @QueryParam("view") String view,
+                               @Context UriInfo uriInfo) {
         LOGGER.info("List invites GET request for service - [ {} ]", serviceId);
-        List<Invite> invites = inviteServiceFactory.inviteFinder().findAllActiveInvites(serviceId);
-        return Response.status(OK).type(APPLICATION_JSON).entity(invites).build();
+        Optional<Errors> errors = inviteValidator.validateFindInvitesRequest(type, expiresAfter, expiresBefore, after, limit, view);
+        if (errors.isPresent()) {
+            return Response.status(BAD_REQUEST).entity(errors.get()).build();
+        }
+
+        InviteSearchParams searchParams = InviteSearchParams.from(type, role, sender, expiresAfter, expiresBefore, after, limit);
+        InviteFinder inviteFinder = inviteServiceFactory.inviteFinder();
+        InvitesPage<?> page = "summary".equals(view)
+                ? inviteFinder.findActiveInviteSummaries(serviceId, searchParams)
+                : inviteFinder.findActiveInvites(serviceId, searchParams);
+
+        Response.ResponseBuilder response = Response.status(OK).type(APPLICATION_JSON).entity(page.getInvites());
+        page.getNextAfterId().ifPresent(nextAfterId ->
+                response.link(uriInfo.getRequestUriBuilder().replaceQueryParam("after", nextAfterId).build(), "next"));
+        return response.build();
     }
     
     @POST
     @Path("/service")
     @Consumes(APPLICATION_JSON)
     @Produces(APPLICATION_JSON)
-    public Response createServiceInvite(JsonNode payload) {
+    public void createServiceInvite(JsonNode payload, @Suspended AsyncResponse asyncResponse) {
         LOGGER.info("Initiating create service invitation request");
-        return inviteValidator.validateCreateServiceRequest(payload)
-                .map(errors -> Response.status(BAD_REQUEST).entity(errors).build())
-                .orElseGet(() -> {
-                    Invite invite = inviteServiceFactory.serviceInvite().doInvite(InviteServiceRequest.from(payload));
-                    return Response.status(CREATED).entity(invite).build();
-                });
+        Optional<Errors> errors = inviteValidator.validateCreateServiceRequest(payload);
+        if (errors.isPresent()) {
+            asyncResponse.resume(Response.status(BAD_REQUEST).entity(errors.get()).build());
+            return;
+        }
+        notifyRequestExecutor.execute(asyncResponse, () -> {
+            Invite invite = inviteServiceFactory.serviceInvite().doInvite(InviteServiceRequest.from(payload));
+            return Response.status(CREATED).entity(invite).build();
+        });
     }
 
     @POST
     @Path("/user")
     @Consumes(APPLICATION_JSON)
     @Produces(APPLICATION_JSON)
-    public Response createUserInvite(JsonNode payload) {
+    public void createUserInvite(JsonNode payload, @Suspended AsyncResponse asyncResponse) {
         LOGGER.info("Initiating user invitation request");
-        return inviteValidator.validateCreateUserRequest(payload)
+        Optional<Errors> errors = inviteValidator.validateCreateUserRequest(payload);
+        if (errors.isPresent()) {
+            asyncResponse.resume(Response.status(BAD_REQUEST).entity(errors.get()).build());
+            return;
+        }
+        notifyRequestExecutor.execute(asyncResponse, () -> inviteServiceFactory.userInvite().doInvite(InviteUserRequest.from(payload))
+                .map(invite -> Response.status(CREATED).entity(invite).build())
+                .orElseGet(() -> Response.status(NOT_FOUND).entity(StringUtils.EMPTY).build()));
+    }
+
+    @POST
+    @Path("/user/batch")
+    @Consumes(APPLICATION_JSON)
+    @Produces(APPLICATION_JSON)
+    public Response createUserInvites(JsonNode payload) {
+        LOGGER.info("Initiating batch user invitation request");
+        return inviteValidator.validateCreateUsersRequest(payload)
                 .map(errors -> Response.status(BAD_REQUEST).entity(errors).build())
-                .orElseGet(() -> inviteServiceFactory.userInvite().doInvite(InviteUserRequest.from(payload))
-                        .map(invite -> Response.status(CREATED).entity(invite).build())
+                .orElseGet(() -> inviteServiceFactory.userInvite().doInvites(InviteUsersRequest.from(payload))
+                        .map(results -> Response.status(OK).entity(results).build())
                         .orElseGet(() -> Response.status(NOT_FOUND).entity(StringUtils.EMPTY).build())
                 );
     }
@@ -177,16 +235,19 @@ public class InviteResource {
     @Path("/otp/resend")
     @Consumes(APPLICATION_JSON)
     @Produces(APPLICATION_JSON)
-    public Response resendOtp(JsonNode payload) {
+    public void resendOtp(JsonNode payload, @Suspended AsyncResponse asyncResponse) {
 
         LOGGER.info("Invite POST request for resending otp");
 
-        return inviteValidator.validateResendOtpRequest(payload)
-                .map(errors -> Response.status(BAD_REQUEST).entity(errors).build())
-                .orElseGet(() -> {
-                    inviteService.reGenerateOtp(InviteOtpRequest.from(payload));
-                    return Response.status(OK).build();
-                });
+        Optional<Errors> errors = inviteValidator.validateResendOtpRequest(payload);
+        if (errors.isPresent()) {
+            asyncResponse.resume(Response.status(BAD_REQUEST).entity(errors.get()).build());
+            return;
+        }
+        notifyRequestExecutor.execute(asyncResponse, () -> {
+            inviteService.reGenerateOtp(InviteOtpRequest.from(payload));
+            return Response.status(OK).build();
+        });
     }
 
     @POST
@@ -0,0 +1,121 @@
+package uk.gov.pay.adminusers.resources;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import com.google.inject.persist.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import uk.gov.pay.adminusers.app.config.NotifyRequestsConfiguration;
+import uk.gov.pay.adminusers.utils.Errors;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Response;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
+import static uk.gov.pay.logging.LoggingKeys.SERVICE_EXTERNAL_ID;
+import static uk.gov.pay.logging.LoggingKeys.USER_EXTERNAL_ID;
+
+/**
+ * Handles requests that wait on GOV.UK Notify on a dedicated pool of threads, so that Jetty's request threads are free
+ * to serve requests that only need the database while Notify is slow.
+ * <p>
+ * The handling thread gets a copy of the request thread's MDC and its own unit of work. A request still waiting for a
+ * thread after the configured timeout, or that cannot be queued because the pool is full, is answered with a 503 and
+ * never handled. Once a thread has started handling a request it is always answered with its own result, however long
+ * that takes, as whatever it commits or sends cannot be taken back.
+ */
+public class NotifyRequestExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NotifyRequestExecutor.class);
+
+    @FunctionalInterface
+    public interface RequestHandler {
+
+        Response handle() throws Exception;
+    }
+
+    private final ExecutorService executorService;
+    private final UnitOfWork unitOfWork;
+    private final NotifyRequestsConfiguration configuration;
+    private final Meter timeouts;
+    private final Meter overruns;
+    private final Meter rejections;
+
+    @Inject
+    public NotifyRequestExecutor(@Named("NOTIFY_REQUEST_EXECUTOR") ExecutorService executorService, UnitOfWork unitOfWork,
+                                 NotifyRequestsConfiguration configuration, MetricRegistry metricRegistry) {
+        this.executorService = executorService;
+        this.unitOfWork = unitOfWork;
+        this.configuration = configuration;
+        this.timeouts = metricRegistry.meter("notify-requests.timeouts");
+        this.overruns = metricRegistry.meter("notify-requests.overruns");
+        this.rejections = metricRegistry.meter("notify-requests.rejections");
+    }
+
+    /**
+     * Runs the handler on the Notify request pool and resumes the suspended response with its result. Anything it
+     * throws is passed to the exception mappers as it would have been had it run on the request thread.
+     */
+    public void execute(AsyncResponse asyncResponse, RequestHandler handler) {
+        long timeoutMillis = configuration.getTimeout().toMilliseconds();
+        // taken by whichever comes first: a thread starting to handle the request, or the timeout
+        AtomicBoolean claimed = new AtomicBoolean();
+        asyncResponse.setTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        asyncResponse.setTimeoutHandler(timedOutResponse -> {
+            if (claimed.compareAndSet(false, true)) {
+                timeouts.mark();
+                LOGGER.warn("Timed out after {} waiting for a thread to handle a request that calls Notify", configuration.getTimeout());
+                timedOutResponse.resume(serviceUnavailable("Timed out waiting for the request to be handled, please try again later"));
+            } else {
+                overruns.mark();
+                LOGGER.warn("Request that calls Notify still being handled after {}, waiting for it to complete", configuration.getTimeout());
+                timedOutResponse.setTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        });
+
+        Map<String, String> requestContext = MDC.getCopyOfContextMap();
+        try {
+            executorService.execute(() -> {
+                if (claimed.compareAndSet(false, true)) {
+                    handle(asyncResponse, handler, requestContext);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejections.mark();
+            LOGGER.warn("Rejecting request as {} requests that call Notify are already waiting", configuration.getMaxQueued());
+            asyncResponse.resume(serviceUnavailable("Too many requests in progress, please try again later"));
+        } finally {
+            // the response filters that would remove these run on whichever thread resumes the response
+            List.of(SERVICE_EXTERNAL_ID, USER_EXTERNAL_ID).forEach(MDC::remove);
+        }
+    }
+
+    private void handle(AsyncResponse asyncResponse, RequestHandler handler, Map<String, String> requestContext) {
+        if (requestContext != null) {
+            MDC.setContextMap(requestContext);
+        }
+        unitOfWork.begin();
+        try {
+            asyncResponse.resume(handler.handle());
+        } catch (Exception e) {
+            asyncResponse.resume(e);
+        } finally {
+            unitOfWork.end();
+            MDC.clear();
+        }
+    }
+
+    private static Response serviceUnavailable(String error) {
+        return Response.status(SERVICE_UNAVAILABLE).type(APPLICATION_JSON).entity(Errors.from(error)).build();
+    }
+}
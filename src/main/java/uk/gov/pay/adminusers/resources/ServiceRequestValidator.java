@@ -91,4 +91,8 @@ public class ServiceRequestValidator {
         return Optional.empty();
     }
 
+    /* default */ Optional<Errors> validateFields(String fields) {
+        return requestValidations.checkIsFieldSelection("fields", fields).map(Errors::from);
+    }
+
 }
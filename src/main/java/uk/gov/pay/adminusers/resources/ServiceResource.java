@@ -1,6 +1,7 @@
 package uk.gov.pay.adminusers.resources;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Inject;
 import io.dropwizard.jersey.PATCH;
 import org.slf4j.Logger;
@@ -38,6 +39,9 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
@@ -81,7 +85,7 @@ public class ServiceResource {
     private final GovUkPayAgreementRequestValidator govUkPayAgreementRequestValidator;
     private final GovUkPayAgreementService govUkPayAgreementService;
     private final SendLiveAccountCreatedEmailService sendLiveAccountCreatedEmailService;
-    
+    private final ObjectMapper objectMapper;
 
     @Inject
     public ServiceResource(UserDao userDao,
@@ -92,7 +96,8 @@ public class ServiceResource {
                            StripeAgreementService stripeAgreementService,
                            GovUkPayAgreementRequestValidator govUkPayAgreementRequestValidator,
                            GovUkPayAgreementService govUkPayAgreementService,
-                           SendLiveAccountCreatedEmailService sendLiveAccountCreatedEmailService) {
+                           SendLiveAccountCreatedEmailService sendLiveAccountCreatedEmailService,
+                           ObjectMapper objectMapper) {
         this.userDao = userDao;
         this.serviceDao = serviceDao;
         this.linksBuilder = linksBuilder;
@@ -102,6 +107,7 @@ public class ServiceResource {
         this.govUkPayAgreementRequestValidator = govUkPayAgreementRequestValidator;
         this.govUkPayAgreementService = govUkPayAgreementService;
         this.sendLiveAccountCreatedEmailService = sendLiveAccountCreatedEmailService;
+        this.objectMapper = objectMapper;
     }
 
     @GET
@@ -121,23 +127,41 @@ public class ServiceResource {
     @GET
     @Path("/{serviceExternalId}")
     @Produces(APPLICATION_JSON)
-    public Response findService(@PathParam("serviceExternalId") String serviceExternalId) {
+    public Response findService(@PathParam("serviceExternalId") String serviceExternalId, @QueryParam("fields") String fields,
+                                @Context Request request) {
         LOGGER.info("Find Service request - [ {} ]", serviceExternalId);
-        return serviceDao.findByExternalId(serviceExternalId)
-                .map(serviceEntity ->
-                        Response.status(OK).entity(linksBuilder.decorate(serviceEntity.toService())).build())
+        return serviceRequestValidator.validateFields(fields)
+                .map(errors -> Response.status(BAD_REQUEST).entity(errors).build())
+                .orElseGet(() -> findService(serviceExternalId, FieldSelection.from(fields), request));
+    }
+
+    private Response findService(String serviceExternalId, FieldSelection fieldSelection, Request request) {
+        return serviceDao.findVersionByExternalId(serviceExternalId)
+                .map(version -> fieldSelection.tag(new EntityTag(String.valueOf(version))))
+                .map(entityTag -> Optional.ofNullable(request.evaluatePreconditions(entityTag))
+                        .map(Response.ResponseBuilder::build)
+                        .orElseGet(() -> serviceServicesFactory.serviceFinder().byExternalId(serviceExternalId)
+                                .map(service -> Response.status(OK)
+                                        .entity(fieldSelection.select(service, objectMapper))
+                                        // the service may come from a lookup that started before the version above
+                                        // was read, so it is tagged with the version it was read at
+                                        .tag(fieldSelection.tag(new EntityTag(String.valueOf(service.getVersion()))))
+                                        .build())
+                                .orElseGet(() ->
+                                        Response.status(NOT_FOUND).build())))
                 .orElseGet(() ->
                         Response.status(NOT_FOUND).build());
     }
 
     @GET
     @Produces(APPLICATION_JSON)
-    public Response findServices(@QueryParam("gatewayAccountId") String gatewayAccountId) {
+    public Response findServices(@QueryParam("gatewayAccountId") String gatewayAccountId, @QueryParam("fields") String fields) {
         LOGGER.info("Find service by gateway account id request - [ {} ]", gatewayAccountId);
         return serviceRequestValidator.validateFindRequest(gatewayAccountId)
+                .or(() -> serviceRequestValidator.validateFields(fields))
                 .map(errors -> Response.status(BAD_REQUEST).entity(errors).build())
                 .orElseGet(() -> serviceServicesFactory.serviceFinder().byGatewayAccountId(gatewayAccountId)
-                        .map(service -> Response.status(OK).entity(service).build())
+                        .map(service -> Response.status(OK).entity(FieldSelection.from(fields).select(service, objectMapper)).build())
                         .orElseGet(() -> Response.status(NOT_FOUND).build()));
     }
 
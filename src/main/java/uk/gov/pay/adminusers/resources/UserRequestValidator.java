@@ -52,6 +52,10 @@ public class UserRequestValidator {
         return invalidLength.map(Errors::from);
     }
 
+    public Optional<Errors> validateFields(String fields) {
+        return requestValidations.checkIsFieldSelection("fields", fields).map(Errors::from);
+    }
+
     public Optional<Errors> validateNewSecondFactorPasscodeRequest(JsonNode payload) {
         if (payload != null && payload.get("provisional") != null) {
             return requestValidations.checkIsBoolean(payload, "provisional").map(Errors::from);
@@ -97,25 +101,45 @@ public class UserRequestValidator {
     }
 
     public Optional<Errors> validatePatchRequest(JsonNode payload) {
-        Optional<List<String>> missingMandatoryFields = requestValidations.checkExistsAndNotEmpty(payload, "op", "path", "value");
+        if (payload.isArray() && payload.size() == 0) {
+            return Optional.of(Errors.from("Patch request must contain at least one operation"));
+        }
+
+        List<String> errors = new ArrayList<>();
+
+        if (payload.isArray()) {
+            for (JsonNode patchOperation : payload) {
+                errors.addAll(validatePatchOperation(patchOperation));
+            }
+        } else {
+            errors = validatePatchOperation(payload);
+        }
+
+        if (!errors.isEmpty()) {
+            return Optional.of(Errors.from(errors));
+        }
+
+        return Optional.empty();
+    }
+
+    private List<String> validatePatchOperation(JsonNode operation) {
+        Optional<List<String>> missingMandatoryFields = requestValidations.checkExistsAndNotEmpty(operation, "op", "path", "value");
         if (missingMandatoryFields.isPresent()) {
-            return Optional.of(Errors.from(missingMandatoryFields.get()));
+            return missingMandatoryFields.get();
         }
 
-        String path = payload.get("path").asText();
+        String path = operation.get("path").asText();
 
         if (!isPathAllowed(path)) {
-            return Optional.of(Errors.from(List.of(format("Patching path [%s] not allowed", path))));
+            return List.of(format("Patching path [%s] not allowed", path));
         }
 
-        String op = payload.get("op").asText();
+        String op = operation.get("op").asText();
         if (!isAllowedOpForPath(path, op)) {
-            return Optional.of(Errors.from(List.of(format("Operation [%s] not allowed for path [%s]", op, path))));
+            return List.of(format("Operation [%s] not allowed for path [%s]", op, path));
         }
 
-        Optional<List<String>> invalidData = checkValidPatchValue(payload.get("value"), getUserPatchPathValidations(path));
-        return invalidData.map(Errors::from);
-
+        return checkValidPatchValue(operation.get("value"), getUserPatchPathValidations(path)).orElse(List.of());
     }
 
     public Optional<Errors> validateFindRequest(JsonNode payload) {
@@ -1,6 +1,7 @@
 package uk.gov.pay.adminusers.resources;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Splitter;
 import com.google.inject.Inject;
 import io.dropwizard.jersey.PATCH;
@@ -23,6 +24,8 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +37,8 @@ import static javax.ws.rs.core.Response.Status.CREATED;
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
 import static javax.ws.rs.core.Response.Status.OK;
 import static javax.ws.rs.core.Response.Status.UNAUTHORIZED;
+import static uk.gov.pay.adminusers.model.SecondFactorMethod.SMS;
+import static uk.gov.pay.adminusers.model.User.FIELD_SERVICE_ROLES;
 import static uk.gov.pay.adminusers.model.User.FIELD_USERNAME;
 import static uk.gov.pay.adminusers.service.AdminUsersExceptions.conflictingUsername;
 import static uk.gov.pay.adminusers.service.AdminUsersExceptions.internalServerError;
@@ -56,13 +61,16 @@ public class UserResource {
 
     private final UserRequestValidator validator;
 
+    private final ObjectMapper objectMapper;
+
     @Inject
     public UserResource(UserServices userServices, UserRequestValidator validator, UserServicesFactory userServicesFactory,
-                        ExistingUserOtpDispatcher existingUserOtpDispatcher) {
+                        ExistingUserOtpDispatcher existingUserOtpDispatcher, ObjectMapper objectMapper) {
         this.userServices = userServices;
         this.validator = validator;
         this.userServicesFactory = userServicesFactory;
         this.existingUserOtpDispatcher = existingUserOtpDispatcher;
+        this.objectMapper = objectMapper;
     }
 
 
@@ -83,23 +91,49 @@ public class UserResource {
     @GET
     @Produces(APPLICATION_JSON)
     @Consumes(APPLICATION_JSON)
-    public Response getUser(@PathParam("userExternalId") String externalId) {
+    public Response getUser(@PathParam("userExternalId") String externalId, @QueryParam("fields") String fields,
+                            @Context Request request) {
         LOGGER.info("User GET request - [ {} ]", externalId);
-        return userServices.findUserByExternalId(externalId)
-                .map(user -> Response.status(OK).type(APPLICATION_JSON).entity(user).build())
+        return validator.validateFields(fields)
+                .map(errors -> Response.status(BAD_REQUEST).entity(errors).build())
+                .orElseGet(() -> getUser(externalId, FieldSelection.from(fields), request));
+    }
+
+    private Response getUser(String externalId, FieldSelection fieldSelection, Request request) {
+        return userServices.findUserEntityTag(externalId)
+                .map(fieldSelection::tag)
+                .map(entityTag -> Optional.ofNullable(request.evaluatePreconditions(entityTag))
+                        .map(Response.ResponseBuilder::build)
+                        .orElseGet(() -> userServices.findUserByExternalId(externalId, fieldSelection.includes(FIELD_SERVICE_ROLES))
+                                .map(user -> Response.status(OK).type(APPLICATION_JSON).entity(fieldSelection.select(user, objectMapper)).tag(entityTag).build())
+                                .orElseGet(() -> Response.status(NOT_FOUND).build())))
+                .orElseGet(() -> Response.status(NOT_FOUND).build());
+    }
+
+    @Path("/{userExternalId}/session")
+    @GET
+    @Produces(APPLICATION_JSON)
+    public Response getUserSession(@PathParam("userExternalId") String externalId) {
+        LOGGER.debug("User session GET request - [ {} ]", externalId);
+        return userServices.findUserSessionByExternalId(externalId)
+                .map(userSession -> Response.status(OK).type(APPLICATION_JSON).entity(userSession).build())
                 .orElseGet(() -> Response.status(NOT_FOUND).build());
     }
     
     @GET
     @Produces(APPLICATION_JSON)
     @Consumes(APPLICATION_JSON)
-    public Response getUsers(@QueryParam("ids") String externalIds) {
+    public Response getUsers(@QueryParam("ids") String externalIds, @QueryParam("fields") String fields) {
         LOGGER.info("Users GET request - [ {} ]", externalIds);
-        List<String> externalIdsList = COMMA_SEPARATOR.splitToList(externalIds);
+        return validator.validateFields(fields)
+                .map(errors -> Response.status(BAD_REQUEST).entity(errors).build())
+                .orElseGet(() -> getUsers(COMMA_SEPARATOR.splitToList(externalIds), FieldSelection.from(fields)));
+    }
 
-        List<User> users = userServices.findUsersByExternalIds(externalIdsList);
+    private Response getUsers(List<String> externalIds, FieldSelection fieldSelection) {
+        List<User> users = userServices.findUsersByExternalIds(externalIds, fieldSelection.includes(FIELD_SERVICE_ROLES));
 
-        return Response.status(OK).type(APPLICATION_JSON).entity(users).build();
+        return Response.status(OK).type(APPLICATION_JSON).entity(fieldSelection.select(users, objectMapper)).build();
     }
     
     @POST
@@ -145,6 +179,27 @@ public class UserResource {
                 });
     }
 
+    @Path("/authenticate-and-send-otp")
+    @POST
+    @Produces(APPLICATION_JSON)
+    @Consumes(APPLICATION_JSON)
+    public Response authenticateAndSendOtp(JsonNode node) {
+        LOGGER.info("User authenticate and 2FA new passcode request");
+        return validator.validateAuthenticateRequest(node)
+                .map(errors -> Response.status(BAD_REQUEST).entity(errors).build())
+                .orElseGet(() -> userServices.authenticate(node.get("username").asText(), node.get("password").asText())
+                        .map(user -> {
+                            if (!user.isDisabled() && user.getSecondFactor() == SMS) {
+                                existingUserOtpDispatcher.sendSignInOtp(user);
+                            }
+                            return Response.status(OK).type(APPLICATION_JSON).entity(user).build();
+                        })
+                        .orElseGet(() ->
+                                Response.status(UNAUTHORIZED).type(APPLICATION_JSON)
+                                        .entity(unauthorisedErrorMessage())
+                                        .build()));
+    }
+
     @Path("/{userExternalId}/second-factor")
     @POST
     @Produces(APPLICATION_JSON)
@@ -226,7 +281,7 @@ public class UserResource {
         LOGGER.info("User update attribute attempt request");
         return validator.validatePatchRequest(node)
                 .map(errors -> Response.status(BAD_REQUEST).entity(errors).build())
-                .orElseGet(() -> userServices.patchUser(externalId, PatchRequest.from(node))
+                .orElseGet(() -> userServices.patchUser(externalId, PatchRequest.getPatchRequests(node))
                         .map(user -> Response.status(OK).entity(user).build())
                         .orElseGet(() -> Response.status(NOT_FOUND).build()));
     }
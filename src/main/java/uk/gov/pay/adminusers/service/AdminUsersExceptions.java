@@ -13,6 +13,7 @@ import static javax.ws.rs.core.Response.Status.GONE;
 import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
 import static javax.ws.rs.core.Response.Status.PRECONDITION_FAILED;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
 import static javax.ws.rs.core.Response.Status.UNAUTHORIZED;
 
 public class AdminUsersExceptions {
@@ -89,13 +90,17 @@ public class AdminUsersExceptions {
         return buildWebApplicationException(message, INTERNAL_SERVER_ERROR.getStatusCode());
     }
 
+    public static WebApplicationException serviceUnavailable(String message) {
+        return buildWebApplicationException(message, SERVICE_UNAVAILABLE.getStatusCode());
+    }
+
     public static WebApplicationException adminRoleLimitException(int adminLimit) {
         String error = format("Service admin limit reached. At least %d admin(s) required", adminLimit);
         return buildWebApplicationException(error, PRECONDITION_FAILED.getStatusCode());
     }
 
     public static WebApplicationException conflictingServiceGatewayAccounts(List<String> gatewayAccountsIds) {
-        String error = format("One or more of the following gateway account ids has already assigned to another service: [%s]", String.join(",", gatewayAccountsIds));
+        String error = format("The following gateway account ids are already assigned to another service: [%s]", String.join(",", gatewayAccountsIds));
         return buildWebApplicationException(error, CONFLICT.getStatusCode());
     }
 
@@ -1,5 +1,9 @@
 package uk.gov.pay.adminusers.service;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.inject.Inject;
 import liquibase.exception.ServiceNotFoundException;
 import org.apache.commons.lang3.StringUtils;
@@ -13,9 +17,12 @@ import uk.gov.pay.adminusers.resources.InvalidMerchantDetailsException;
 import uk.gov.pay.adminusers.utils.CountryConverter;
 import uk.gov.pay.commons.model.SupportedLanguage;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.StringJoiner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import static uk.gov.pay.adminusers.model.PaymentType.DIRECT_DEBIT;
@@ -28,10 +35,17 @@ public class EmailService {
     private static final String ORGANISATION_PHONE_NUMBER_KEY = "organisation phone number";
     private static final String ORGANISATION_ADDRESS_KEY = "organisation address";
     private static final String ORGANISATION_EMAIL_ADDRESS_KEY = "organisation email address";
+    // Merchant detail changes made through another instance cannot evict entries here, so they only live for a few minutes
+    private static final long TEMPLATE_MAPPINGS_CACHE_EXPIRY_MINUTES = 5;
+    private static final long TEMPLATE_MAPPINGS_CACHE_MAX_SIZE = 10_000;
 
     private final NotificationService notificationService;
     private final ServiceDao serviceDao;
     private final CountryConverter countryConverter;
+    private final Cache<String, Map<EmailTemplate, StaticEmailContent>> templateMappingsCache = CacheBuilder.newBuilder()
+            .expireAfterWrite(TEMPLATE_MAPPINGS_CACHE_EXPIRY_MINUTES, TimeUnit.MINUTES)
+            .maximumSize(TEMPLATE_MAPPINGS_CACHE_MAX_SIZE)
+            .build();
 
     @Inject
     public EmailService(NotificationService notificationService,
@@ -68,6 +82,16 @@ public class EmailService {
     }
 
     private Map<EmailTemplate, StaticEmailContent> getTemplateMappingsFor(String gatewayAccountId) throws InvalidMerchantDetailsException {
+        try {
+            return templateMappingsCache.get(gatewayAccountId, () -> loadTemplateMappingsFor(gatewayAccountId));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfInstanceOf(e.getCause(), InvalidMerchantDetailsException.class);
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Map<EmailTemplate, StaticEmailContent> loadTemplateMappingsFor(String gatewayAccountId) throws InvalidMerchantDetailsException {
         ServiceEntity service = getServiceFor(gatewayAccountId);
         MerchantDetailsEntity merchantDetails = service.getMerchantDetailsEntity();
 
@@ -116,6 +140,14 @@ public class EmailService {
                 .orElseThrow(() -> new ServiceNotFoundException("Service not found"));
     }
 
+    /**
+     * Evicts the cached email content for the given gateway accounts. Must be called whenever the name or merchant
+     * details of the service they belong to change.
+     */
+    public void invalidateTemplateMappingsFor(Collection<String> gatewayAccountIds) {
+        templateMappingsCache.invalidateAll(gatewayAccountIds);
+    }
+
     public String sendEmail(String email, String gatewayAccountId, EmailTemplate template, Map<String, String> dynamicContent) throws InvalidMerchantDetailsException {
         StaticEmailContent staticEmailContent = getTemplateMappingsFor(gatewayAccountId).get(template);
         Map<String, String> staticContent = new HashMap<>(staticEmailContent.getPersonalisation());
@@ -4,6 +4,7 @@ import com.google.inject.Provider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.adminusers.model.SecondFactorToken;
+import uk.gov.pay.adminusers.model.User;
 import uk.gov.pay.adminusers.persistence.dao.UserDao;
 
 import javax.inject.Inject;
@@ -36,39 +37,21 @@ public class ExistingUserOtpDispatcher {
         return sendOtp(externalId, true);
     }
 
+    /**
+     * Sends a sign in OTP to a user that has already been loaded by the caller, saving a second user lookup.
+     *
+     * @param user the authenticated user
+     * @return the {@link SecondFactorToken} sent, or Optional.empty() if the user has no OTP key
+     */
+    public Optional<SecondFactorToken> sendSignInOtp(User user) {
+        return sendOtp(user.getExternalId(), user.getOtpKey(), user.getTelephoneNumber(), false);
+    }
+
     private Optional<SecondFactorToken> sendOtp(String externalId, boolean changingSignInMethodToSms) {
         return userDao.findByExternalId(externalId)
                 .map(userEntity -> {
                     String otpKeyOrProvisionalOtpKey = changingSignInMethodToSms ? userEntity.getProvisionalOtpKey() : userEntity.getOtpKey();
-                    return Optional.ofNullable(otpKeyOrProvisionalOtpKey).map(otpKey -> {
-                        int newPassCode = secondFactorAuthenticator.newPassCode(otpKey);
-                        SecondFactorToken token = SecondFactorToken.from(externalId, newPassCode);
-                        String userExternalId = userEntity.getExternalId();
-                        NotificationService.OtpNotifySmsTemplateId notifyTemplateId = changingSignInMethodToSms ? CHANGE_SIGN_IN_2FA_TO_SMS : SIGN_IN;
-
-                        try {
-                            String notificationId = notificationService.sendSecondFactorPasscodeSms(userEntity.getTelephoneNumber(), token.getPasscode(),
-                                    notifyTemplateId);
-                            LOGGER.info("sent 2FA token successfully to user [{}], notification id [{}]", userExternalId, notificationId);
-                        } catch (Exception e) {
-                            LOGGER.error("error sending 2FA token to user [{}]", userExternalId, e);
-                        }
-
-                        if (changingSignInMethodToSms) {
-                            LOGGER.info("New 2FA token generated for User [{}] from provisional OTP key", userExternalId);
-                        } else {
-                            LOGGER.info("New 2FA token generated for User [{}]", userExternalId);
-                        }
-                        return Optional.of(token);
-                    }).orElseGet(() -> {
-                        if (changingSignInMethodToSms) {
-                            LOGGER.error("New provisional 2FA token attempted for user without a provisional OTP key [{}]", externalId);
-                        } else {
-                            // Realistically, this will never happen
-                            LOGGER.error("New 2FA token attempted for user without an OTP key [{}]", externalId);
-                        }
-                        return Optional.empty();
-                    });
+                    return sendOtp(userEntity.getExternalId(), otpKeyOrProvisionalOtpKey, userEntity.getTelephoneNumber(), changingSignInMethodToSms);
                 })
                 .orElseGet(() -> {
                     //this cannot happen unless a bug in selfservice
@@ -77,4 +60,36 @@ public class ExistingUserOtpDispatcher {
                 });
     }
 
+    private Optional<SecondFactorToken> sendOtp(String userExternalId, String otpKeyOrProvisionalOtpKey, String telephoneNumber,
+                                                boolean changingSignInMethodToSms) {
+        return Optional.ofNullable(otpKeyOrProvisionalOtpKey).map(otpKey -> {
+            int newPassCode = secondFactorAuthenticator.newPassCode(otpKey);
+            SecondFactorToken token = SecondFactorToken.from(userExternalId, newPassCode);
+            NotificationService.OtpNotifySmsTemplateId notifyTemplateId = changingSignInMethodToSms ? CHANGE_SIGN_IN_2FA_TO_SMS : SIGN_IN;
+
+            try {
+                String notificationId = notificationService.sendSecondFactorPasscodeSms(telephoneNumber, token.getPasscode(),
+                        notifyTemplateId);
+                LOGGER.info("sent 2FA token successfully to user [{}], notification id [{}]", userExternalId, notificationId);
+            } catch (Exception e) {
+                LOGGER.error("error sending 2FA token to user [{}]", userExternalId, e);
+            }
+
+            if (changingSignInMethodToSms) {
+                LOGGER.info("New 2FA token generated for User [{}] from provisional OTP key", userExternalId);
+            } else {
+                LOGGER.info("New 2FA token generated for User [{}]", userExternalId);
+            }
+            return token;
+        }).or(() -> {
+            if (changingSignInMethodToSms) {
+                LOGGER.error("New provisional 2FA token attempted for user without a provisional OTP key [{}]", userExternalId);
+            } else {
+                // Realistically, this will never happen
+                LOGGER.error("New 2FA token attempted for user without an OTP key [{}]", userExternalId);
+            }
+            return Optional.empty();
+        });
+    }
+
 }
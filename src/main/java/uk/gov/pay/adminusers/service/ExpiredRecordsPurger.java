@@ -0,0 +1,122 @@
+package uk.gov.pay.adminusers.service;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.inject.Inject;
+import com.google.inject.persist.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.adminusers.app.config.ExpiredRecordsPurgeConfiguration;
+import uk.gov.pay.adminusers.persistence.dao.AdvisoryLocks;
+import uk.gov.pay.adminusers.persistence.dao.ForgottenPasswordDao;
+import uk.gov.pay.adminusers.persistence.dao.InviteDao;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Deletes invites and forgotten password codes once they are older than the configured retention, so neither table
+ * grows without bound.
+ * <p>
+ * Rows are deleted in id order, a batch per short transaction with a pause in between, so a purge never holds many row
+ * locks or competes with requests for long. A run holds a Postgres advisory lock from its first batch to its last and
+ * is skipped if another instance holds it, so only one instance purges at a time.
+ */
+public class ExpiredRecordsPurger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExpiredRecordsPurger.class);
+
+    // arbitrary, but must not be used for any other advisory lock taken against this database
+    private static final long ADVISORY_LOCK_KEY = 4_127_309_552_006_311L;
+
+    private interface BatchDeleter {
+
+        List<Integer> deleteBatch(ZonedDateTime cutoff, int afterId, int batchSize);
+    }
+
+    private final AdvisoryLocks advisoryLocks;
+    private final ExpiredRecordsPurgeConfiguration configuration;
+    private final List<PurgedTable> tables;
+
+    @Inject
+    public ExpiredRecordsPurger(AdvisoryLocks advisoryLocks, InviteDao inviteDao, ForgottenPasswordDao forgottenPasswordDao,
+                                ExpiredRecordsPurgeConfiguration configuration, MetricRegistry metricRegistry) {
+        this.advisoryLocks = advisoryLocks;
+        this.configuration = configuration;
+        this.tables = List.of(
+                new PurgedTable("invites", inviteDao::deleteExpiredBefore, metricRegistry),
+                new PurgedTable("forgotten-passwords", forgottenPasswordDao::deleteCreatedBefore, metricRegistry));
+    }
+
+    /**
+     * Purges every table. Meant to be run periodically from a background thread, so it never throws.
+     */
+    public void purgeAll() {
+        ZonedDateTime cutoff = ZonedDateTime.now(ZoneId.of("UTC")).minusSeconds(configuration.getRetention().toSeconds());
+        try {
+            Optional<AdvisoryLocks.HeldLock> lock = advisoryLocks.tryLock(ADVISORY_LOCK_KEY);
+            if (!lock.isPresent()) {
+                LOGGER.info("Expired records are being purged by another instance");
+                return;
+            }
+            try (AdvisoryLocks.HeldLock ignored = lock.get()) {
+                for (PurgedTable table : tables) {
+                    purge(table, cutoff);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOGGER.error("Failed to purge expired records", e);
+        }
+    }
+
+    private void purge(PurgedTable table, ZonedDateTime cutoff) throws InterruptedException {
+        int lastDeletedId = 0;
+        int totalDeleted = 0;
+        while (true) {
+            List<Integer> ids;
+            try (Timer.Context ignored = table.batches.time()) {
+                ids = purgeBatch(table, cutoff, lastDeletedId);
+            }
+
+            table.rowsPurged.inc(ids.size());
+            totalDeleted += ids.size();
+            if (ids.size() < configuration.getBatchSize()) {
+                LOGGER.info("Purged {} expired {}", totalDeleted, table.name);
+                return;
+            }
+
+            lastDeletedId = ids.stream().mapToInt(Integer::intValue).max().getAsInt();
+            Thread.sleep(configuration.getPauseBetweenBatches().toMilliseconds());
+        }
+    }
+
+    /**
+     * @return the ids of the rows deleted
+     */
+    @Transactional
+    /* default */ List<Integer> purgeBatch(PurgedTable table, ZonedDateTime cutoff, int afterId) {
+        return table.deleter.deleteBatch(cutoff, afterId, configuration.getBatchSize());
+    }
+
+    /* default */ static class PurgedTable {
+
+        private final String name;
+        private final BatchDeleter deleter;
+        private final Counter rowsPurged;
+        private final Timer batches;
+
+        private PurgedTable(String name, BatchDeleter deleter, MetricRegistry metricRegistry) {
+            this.name = name;
+            this.deleter = deleter;
+            this.rowsPurged = metricRegistry.counter(name("expired-records-purger", name, "rows-purged"));
+            this.batches = metricRegistry.timer(name("expired-records-purger", name, "batches"));
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package uk.gov.pay.adminusers.service;
 
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
 import com.google.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.adminusers.app.config.AdminUsersConfig;
+import uk.gov.pay.adminusers.app.config.ForgottenPasswordThrottleConfiguration;
 import uk.gov.pay.adminusers.model.ForgottenPassword;
 import uk.gov.pay.adminusers.persistence.dao.ForgottenPasswordDao;
 import uk.gov.pay.adminusers.persistence.dao.UserDao;
 import uk.gov.pay.adminusers.persistence.entity.ForgottenPasswordEntity;
 import uk.gov.pay.adminusers.persistence.entity.UserEntity;
 
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Optional;
 
@@ -27,22 +31,57 @@ public class ForgottenPasswordServices {
     private final LinksBuilder linksBuilder;
     private final NotificationService notificationService;
     private final String selfserviceBaseUrl;
+    private final long reuseWindowMinutes;
+    private final ForgottenPasswordThrottle throttle;
+    private final Meter codesIssued;
+    private final Meter codesReused;
+    private final Meter emailsSuppressed;
 
     @Inject
-    public ForgottenPasswordServices(UserDao userDao, ForgottenPasswordDao forgottenPasswordDao, LinksBuilder linksBuilder, NotificationService notificationService, AdminUsersConfig config) {
+    public ForgottenPasswordServices(UserDao userDao, ForgottenPasswordDao forgottenPasswordDao, LinksBuilder linksBuilder, NotificationService notificationService, AdminUsersConfig config,
+                                     ForgottenPasswordThrottle throttle, MetricRegistry metricRegistry) {
         this.userDao = userDao;
         this.forgottenPasswordDao = forgottenPasswordDao;
         this.linksBuilder = linksBuilder;
         this.notificationService = notificationService;
         this.selfserviceBaseUrl = config.getLinks().getSelfserviceUrl();
+        // a reused code must still be valid for long enough to follow the link, which can shorten the reuse window
+        ForgottenPasswordThrottleConfiguration throttleConfiguration = config.getForgottenPasswordThrottleConfiguration();
+        this.reuseWindowMinutes = Math.max(0, Math.min(throttleConfiguration.getReuseWindow().toMinutes(),
+                config.getForgottenPasswordExpiryMinutes() - throttleConfiguration.getMinRemainingValidity().toMinutes()));
+        this.throttle = throttle;
+        this.codesIssued = metricRegistry.meter("forgotten-passwords.codes-issued");
+        this.codesReused = metricRegistry.meter("forgotten-passwords.codes-reused");
+        this.emailsSuppressed = metricRegistry.meter("forgotten-passwords.emails-suppressed");
     }
 
+    /**
+     * Emails the user a link to reset their password. A code created for them within the reuse window is sent again
+     * rather than creating another, and nothing is sent once they have had the hourly maximum, though the caller cannot
+     * tell either apart from a new code being sent.
+     */
     public void create(String username) {
         Optional<UserEntity> userOptional = userDao.findByUsername(username);
         if (userOptional.isPresent()) {
             UserEntity userEntity = userOptional.get();
-            ForgottenPasswordEntity forgottenPasswordEntity = new ForgottenPasswordEntity(randomUuid(), ZonedDateTime.now(), userEntity);
-            forgottenPasswordDao.persist(forgottenPasswordEntity);
+            if (!throttle.tryAcquire(userEntity)) {
+                emailsSuppressed.mark();
+                LOGGER.warn("Not sending forgotten password email for user [{}] as they have reached the hourly limit", userEntity.getExternalId());
+                return;
+            }
+
+            ForgottenPasswordEntity forgottenPasswordEntity = findReusable(userEntity)
+                    .map(existingForgottenPassword -> {
+                        codesReused.mark();
+                        return existingForgottenPassword;
+                    })
+                    .orElseGet(() -> {
+                        ForgottenPasswordEntity newForgottenPassword = new ForgottenPasswordEntity(randomUuid(), ZonedDateTime.now(), userEntity);
+                        forgottenPasswordDao.persist(newForgottenPassword);
+                        codesIssued.mark();
+                        return newForgottenPassword;
+                    });
+            throttle.recordEmail(forgottenPasswordEntity);
             String forgottenPasswordUrl = fromUri(selfserviceBaseUrl).path(SELFSERVICE_FORGOTTEN_PASSWORD_PATH).path(forgottenPasswordEntity.getCode()).build().toString();
             
             try {
@@ -58,6 +97,13 @@ public class ForgottenPasswordServices {
         }
     }
 
+    private Optional<ForgottenPasswordEntity> findReusable(UserEntity userEntity) {
+        if (reuseWindowMinutes == 0) {
+            return Optional.empty();
+        }
+        return forgottenPasswordDao.findLatestByUserCreatedSince(userEntity, ZonedDateTime.now(ZoneId.of("UTC")).minusMinutes(reuseWindowMinutes));
+    }
+
     public Optional<ForgottenPassword> findNonExpired(String code) {
         return forgottenPasswordDao.findNonExpiredByCode(code)
                 .map(forgottenPasswordEntity -> Optional.of(linksBuilder.decorate(forgottenPasswordEntity.toForgottenPassword())))
@@ -0,0 +1,86 @@
+package uk.gov.pay.adminusers.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Inject;
+import uk.gov.pay.adminusers.app.config.ForgottenPasswordThrottleConfiguration;
+import uk.gov.pay.adminusers.persistence.dao.ForgottenPasswordDao;
+import uk.gov.pay.adminusers.persistence.entity.ForgottenPasswordEntity;
+import uk.gov.pay.adminusers.persistence.entity.UserEntity;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many forgotten password emails each user can be sent in an hour, so that repeated submissions cannot flood
+ * their inbox or Notify.
+ * <p>
+ * Emails are counted in memory, so each instance enforces the cap on its own. When backed by the database, every email is
+ * also recorded there, and the emails any instance sent the user in the last hour are counted before allowing another.
+ */
+public class ForgottenPasswordThrottle {
+
+    private static final Duration WINDOW = Duration.ofHours(1);
+    private static final long MAX_TRACKED_USERS = 100_000;
+
+    private final ForgottenPasswordDao forgottenPasswordDao;
+    private final ForgottenPasswordThrottleConfiguration configuration;
+    private final Clock clock;
+    // a user's entry is only needed while they keep asking, so it can go once it has not been touched for the window
+    private final Cache<String, Deque<Instant>> recentEmails = CacheBuilder.newBuilder()
+            .expireAfterAccess(WINDOW.toMinutes(), TimeUnit.MINUTES)
+            .maximumSize(MAX_TRACKED_USERS)
+            .build();
+
+    @Inject
+    public ForgottenPasswordThrottle(ForgottenPasswordDao forgottenPasswordDao, ForgottenPasswordThrottleConfiguration configuration, Clock clock) {
+        this.forgottenPasswordDao = forgottenPasswordDao;
+        this.configuration = configuration;
+        this.clock = clock;
+    }
+
+    /**
+     * Records an email to the user unless they have already been sent the maximum in the last hour.
+     *
+     * @return whether the email may be sent
+     */
+    public boolean tryAcquire(UserEntity user) {
+        Instant now = clock.instant();
+        Instant windowStart = now.minus(WINDOW);
+        Deque<Instant> sent = recentEmails.asMap().computeIfAbsent(user.getExternalId(), externalId -> new ArrayDeque<>());
+
+        synchronized (sent) {
+            while (!sent.isEmpty() && !sent.peekFirst().isAfter(windowStart)) {
+                sent.pollFirst();
+            }
+
+            long sentInWindow = sent.size();
+            if (configuration.isBackedByDatabase() && sentInWindow < configuration.getMaxEmailsPerUserPerHour()) {
+                long sentByAnyInstance = forgottenPasswordDao.countEmailsSentToUserSince(user, ZonedDateTime.ofInstant(windowStart, ZoneId.of("UTC")));
+                sentInWindow = Math.max(sentInWindow, sentByAnyInstance);
+            }
+            if (sentInWindow >= configuration.getMaxEmailsPerUserPerHour()) {
+                return false;
+            }
+
+            sent.addLast(now);
+            return true;
+        }
+    }
+
+    /**
+     * Records that the code is being emailed to its user, so other instances count the email when backed by the
+     * database. Called once per email allowed by {@link #tryAcquire(UserEntity)}, whether the code is new or reused.
+     */
+    public void recordEmail(ForgottenPasswordEntity forgottenPassword) {
+        if (configuration.isBackedByDatabase()) {
+            forgottenPasswordDao.recordEmailSent(forgottenPassword, ZonedDateTime.ofInstant(clock.instant(), ZoneId.of("UTC")));
+        }
+    }
+}
@@ -2,14 +2,45 @@ package uk.gov.pay.adminusers.service;
 
 import uk.gov.pay.adminusers.model.InviteCompleteRequest;
 import uk.gov.pay.adminusers.model.InviteCompleteResponse;
+import uk.gov.pay.adminusers.persistence.dao.InviteDao;
+import uk.gov.pay.adminusers.persistence.entity.InviteEntity;
 
 import java.util.Optional;
 
+import static uk.gov.pay.adminusers.service.AdminUsersExceptions.inviteLockedException;
+
 public abstract class InviteCompleter {
 
+    /* default */ InviteEntity inviteEntity = null;
     /* default */ InviteCompleteRequest data = null;
 
-    public abstract Optional<InviteCompleteResponse> complete(String inviteCode);
+    /**
+     * Completes the invite this completer was routed for. Implementations call {@link #disableInvite(InviteDao)} before
+     * doing anything else, so two requests completing the same invite cannot both succeed.
+     */
+    public abstract Optional<InviteCompleteResponse> complete();
+
+    /**
+     * Loads the routed invite again with its row locked, in a single statement, and disables it if it is still active.
+     * The routed invite was found in an earlier transaction, so it is detached and may be stale; implementations
+     * complete the invite returned here instead. A concurrent request completing the same invite waits on the lock
+     * and then finds it disabled.
+     */
+    /* default */ InviteEntity disableInvite(InviteDao inviteDao) {
+        if (inviteEntity.isExpired() || inviteEntity.isDisabled()) {
+            throw inviteLockedException(inviteEntity.getCode());
+        }
+        InviteEntity lockedInvite = inviteDao.findByIdForUpdate(inviteEntity.getId())
+                .filter(invite -> !invite.isExpired() && !invite.isDisabled())
+                .orElseThrow(() -> inviteLockedException(inviteEntity.getCode()));
+        lockedInvite.setDisabled(true);
+        return lockedInvite;
+    }
+
+    public InviteCompleter withInvite(InviteEntity inviteEntity) {
+        this.inviteEntity = inviteEntity;
+        return this;
+    }
 
     public InviteCompleter withData(InviteCompleteRequest data) {
         this.data = data;
@@ -2,11 +2,18 @@ package uk.gov.pay.adminusers.service;
 
 import com.google.inject.Inject;
 import uk.gov.pay.adminusers.model.Invite;
+import uk.gov.pay.adminusers.model.InviteSearchParams;
+import uk.gov.pay.adminusers.model.InviteSummary;
+import uk.gov.pay.adminusers.model.InvitesPage;
 import uk.gov.pay.adminusers.persistence.dao.InviteDao;
 import uk.gov.pay.adminusers.persistence.dao.UserDao;
+import uk.gov.pay.adminusers.persistence.entity.InviteEntity;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static uk.gov.pay.adminusers.service.AdminUsersExceptions.inviteLockedException;
@@ -38,18 +45,35 @@ public class InviteFinder {
     }
 
 
-    public List<Invite> findAllActiveInvites(String serviceId) {
-        return inviteDao.findAllByServiceId(serviceId)
-                .stream()
-                .filter(inviteEntity -> !(inviteEntity.isDisabled()))
-                .filter(inviteEntity -> !(inviteEntity.isExpired()))
+    public InvitesPage<Invite> findActiveInvites(String serviceId, InviteSearchParams searchParams) {
+        InvitesPage<InviteEntity> page = pageOf(inviteDao.findActiveByServiceId(serviceId, searchParams), searchParams, InviteEntity::getId);
+        Set<String> existingUserEmails = userDao.findEmailsOfExistingUsers(page.getInvites().stream()
+                .map(InviteEntity::getEmail)
+                .collect(Collectors.toList()));
+
+        List<Invite> invites = page.getInvites().stream()
                 .map(inviteEntity -> {
                     Invite invite = inviteEntity.toInvite();
-                    return userDao.findByEmail(inviteEntity.getEmail()).map(userEntity -> {
+                    if (existingUserEmails.contains(inviteEntity.getEmail().toLowerCase(Locale.ENGLISH))) {
                         invite.setUserExist(true);
-                        return invite;
-                    }).orElse(invite);
+                    }
+                    return invite;
                 })
                 .collect(Collectors.toList());
+        return new InvitesPage<>(invites, page.getNextAfterId().orElse(null));
+    }
+
+    /**
+     * Lists invites without checking whether each invitee is already a user, selecting only the columns needed.
+     */
+    public InvitesPage<InviteSummary> findActiveInviteSummaries(String serviceId, InviteSearchParams searchParams) {
+        return pageOf(inviteDao.findActiveSummariesByServiceId(serviceId, searchParams), searchParams, InviteSummary::getId);
+    }
+
+    private static <T> InvitesPage<T> pageOf(List<T> invites, InviteSearchParams searchParams, Function<T, Integer> idOf) {
+        return searchParams.getLimit()
+                .filter(limit -> invites.size() > limit)
+                .map(limit -> new InvitesPage<>(invites.subList(0, limit), idOf.apply(invites.get(limit - 1))))
+                .orElseGet(() -> new InvitesPage<>(invites, null));
     }
 }
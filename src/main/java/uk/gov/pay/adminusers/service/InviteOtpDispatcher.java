@@ -1,14 +1,21 @@
 package uk.gov.pay.adminusers.service;
 
 import uk.gov.pay.adminusers.model.InviteOtpRequest;
+import uk.gov.pay.adminusers.persistence.entity.InviteEntity;
 
 public abstract class InviteOtpDispatcher {
 
     /* default */ static final String SIX_DIGITS_WITH_LEADING_ZEROS = "%06d";
 
+    /* default */ InviteEntity inviteEntity = null;
     /* default */ InviteOtpRequest inviteOtpRequest = null;
 
-    public abstract boolean dispatchOtp(String inviteCode);
+    public abstract boolean dispatchOtp();
+
+    public InviteOtpDispatcher withInvite(InviteEntity inviteEntity) {
+        this.inviteEntity = inviteEntity;
+        return this;
+    }
 
     public InviteOtpDispatcher withData(InviteOtpRequest data){
         this.inviteOtpRequest = data;
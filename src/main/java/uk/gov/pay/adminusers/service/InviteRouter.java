@@ -24,7 +24,7 @@ public class InviteRouter {
                 inviteEntity -> {
                     boolean isServiceType = inviteEntity.isServiceType();
                     InviteCompleter inviteCompleter = isServiceType ? inviteServiceFactory.completeServiceInvite() : inviteServiceFactory.completeUserInvite();
-                    return Optional.of(Pair.of(inviteCompleter, isServiceType));
+                    return Optional.of(Pair.of(inviteCompleter.withInvite(inviteEntity), isServiceType));
                 });
     }
 
@@ -33,11 +33,14 @@ public class InviteRouter {
                 inviteEntity -> {
                     boolean isUserType = inviteEntity.isUserType();
                     InviteOtpDispatcher inviteOtpDispatcher = isUserType ? inviteServiceFactory.dispatchUserOtp() : inviteServiceFactory.dispatchServiceOtp();
-                    return Optional.of(Pair.of(inviteOtpDispatcher, isUserType));
+                    return Optional.of(Pair.of(inviteOtpDispatcher.withInvite(inviteEntity), isUserType));
                 });
 
     }
 
+    /**
+     * Loads the invite once and hands it to the chosen completer or dispatcher, so they do not look it up again.
+     */
     private <T> Optional<Pair<T, Boolean>> routeIfExist(String inviteCode, Function<InviteEntity, Optional<Pair<T, Boolean>>> routeFunction) {
         return inviteDao.findByCode(inviteCode).map(routeFunction)
                 .orElseGet(Optional::empty);
@@ -7,7 +7,6 @@ import uk.gov.pay.adminusers.model.Link.Rel;
 import uk.gov.pay.adminusers.model.Service;
 import uk.gov.pay.adminusers.model.User;
 
-import java.net.URI;
 import java.util.List;
 
 import static javax.ws.rs.core.UriBuilder.fromUri;
@@ -18,49 +17,53 @@ import static uk.gov.pay.adminusers.resources.UserResource.USERS_RESOURCE;
 
 public class LinksBuilder {
 
-    private final String baseUrl;
+    private static final String GET = "GET";
+
+    // Resolved once up front; building a URI per decorated object showed up in profiles of the list endpoints.
+    // Identifiers and codes are generated from URL-safe characters, so they can be appended without encoding.
+    private final String usersPrefix;
+    private final String servicesPrefix;
+    private final String forgottenPasswordsPrefix;
+    private final String invitesPrefix;
 
     public LinksBuilder(String baseUrl) {
-        this.baseUrl = baseUrl;
+        this.usersPrefix = prefix(baseUrl, USERS_RESOURCE);
+        this.servicesPrefix = prefix(baseUrl, SERVICES_RESOURCE);
+        this.forgottenPasswordsPrefix = prefix(baseUrl, FORGOTTEN_PASSWORDS_RESOURCE);
+        this.invitesPrefix = prefix(baseUrl, INVITES_RESOURCE);
     }
 
     public User decorate(User user) {
-        URI uri = fromUri(baseUrl).path(USERS_RESOURCE).path(user.getExternalId())
-                .build();
-        Link selfLink = Link.from(Rel.SELF, "GET", uri.toString());
+        Link selfLink = Link.from(Rel.SELF, GET, usersPrefix + user.getExternalId());
         user.setLinks(List.of(selfLink));
         return user;
     }
 
     public Service decorate(Service service) {
-        URI uri = fromUri(baseUrl).path(SERVICES_RESOURCE).path(String.valueOf(service.getExternalId()))
-                .build();
-        Link selfLink = Link.from(Rel.SELF, "GET", uri.toString());
+        Link selfLink = Link.from(Rel.SELF, GET, servicesPrefix + service.getExternalId());
         service.setLinks(List.of(selfLink));
         return service;
     }
 
     public ForgottenPassword decorate(ForgottenPassword forgottenPassword) {
-        URI uri = fromUri(baseUrl).path(FORGOTTEN_PASSWORDS_RESOURCE).path(forgottenPassword.getCode())
-                .build();
-        Link selfLink = Link.from(Rel.SELF, "GET", uri.toString());
+        Link selfLink = Link.from(Rel.SELF, GET, forgottenPasswordsPrefix + forgottenPassword.getCode());
         forgottenPassword.setLinks(List.of(selfLink));
         return forgottenPassword;
     }
 
     public Invite decorate(Invite invite) {
-        URI uri = fromUri(baseUrl).path(INVITES_RESOURCE).path(invite.getCode())
-                .build();
-        Link selfLink = Link.from(Rel.SELF, "GET", uri.toString());
+        Link selfLink = Link.from(Rel.SELF, GET, invitesPrefix + invite.getCode());
         invite.getLinks().add(selfLink);
         return invite;
     }
 
     public Invite addUserLink(User user, Invite invite) {
-        URI uri = fromUri(baseUrl).path(USERS_RESOURCE).path(user.getExternalId())
-                .build();
-        Link userLink = Link.from(Rel.USER, "GET", uri.toString());
+        Link userLink = Link.from(Rel.USER, GET, usersPrefix + user.getExternalId());
         invite.getLinks().add(userLink);
         return invite;
     }
+
+    private static String prefix(String baseUrl, String resource) {
+        return fromUri(baseUrl).path(resource).build().toString() + "/";
+    }
 }
@@ -30,8 +30,9 @@ public class ServiceCreator {
         serviceName.forEach((language, name) -> serviceEntity.addOrUpdateServiceName(ServiceNameEntity.from(language, name)));
 
         if (!gatewayAccountIds.isEmpty()) {
-            if (serviceDao.checkIfGatewayAccountsUsed(gatewayAccountIds)) {
-                throw conflictingServiceGatewayAccounts(gatewayAccountIds);
+            List<String> gatewayAccountIdsInUse = serviceDao.findGatewayAccountIdsInUse(gatewayAccountIds);
+            if (!gatewayAccountIdsInUse.isEmpty()) {
+                throw conflictingServiceGatewayAccounts(gatewayAccountIdsInUse);
             }
             serviceEntity.addGatewayAccountIds(gatewayAccountIds.toArray(new String[0]));
         }
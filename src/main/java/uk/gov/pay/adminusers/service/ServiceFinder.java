@@ -3,6 +3,7 @@ package uk.gov.pay.adminusers.service;
 import com.google.inject.Inject;
 import uk.gov.pay.adminusers.model.Service;
 import uk.gov.pay.adminusers.persistence.dao.ServiceDao;
+import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
 
 import java.util.Optional;
 
@@ -10,15 +11,26 @@ public class ServiceFinder {
 
     private final ServiceDao serviceDao;
     private final LinksBuilder linksBuilder;
+    private final ServiceLookupCoalescer serviceLookupCoalescer;
 
     @Inject
-    public ServiceFinder(ServiceDao serviceDao, LinksBuilder linksBuilder) {
+    public ServiceFinder(ServiceDao serviceDao, LinksBuilder linksBuilder, ServiceLookupCoalescer serviceLookupCoalescer) {
         this.serviceDao = serviceDao;
         this.linksBuilder = linksBuilder;
+        this.serviceLookupCoalescer = serviceLookupCoalescer;
     }
 
     public Optional<Service> byGatewayAccountId(String gatewayAccountId) {
-        return serviceDao.findByGatewayAccountId(gatewayAccountId)
-                .map(serviceEntity -> linksBuilder.decorate(serviceEntity.toService()));
+        return serviceLookupCoalescer.byGatewayAccountId(gatewayAccountId, () -> serviceDao.findByGatewayAccountId(gatewayAccountId)
+                .map(this::toService));
+    }
+
+    public Optional<Service> byExternalId(String serviceExternalId) {
+        return serviceLookupCoalescer.byExternalId(serviceExternalId, () -> serviceDao.findByExternalId(serviceExternalId)
+                .map(this::toService));
+    }
+
+    private Service toService(ServiceEntity serviceEntity) {
+        return linksBuilder.decorate(serviceEntity.toService());
     }
 }
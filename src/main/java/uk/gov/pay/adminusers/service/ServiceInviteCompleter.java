@@ -8,6 +8,7 @@ import uk.gov.pay.adminusers.model.Service;
 import uk.gov.pay.adminusers.persistence.dao.InviteDao;
 import uk.gov.pay.adminusers.persistence.dao.ServiceDao;
 import uk.gov.pay.adminusers.persistence.dao.UserDao;
+import uk.gov.pay.adminusers.persistence.entity.InviteEntity;
 import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
 import uk.gov.pay.adminusers.persistence.entity.ServiceRoleEntity;
 import uk.gov.pay.adminusers.persistence.entity.UserEntity;
@@ -17,7 +18,6 @@ import java.util.Optional;
 import static java.lang.String.format;
 import static uk.gov.pay.adminusers.service.AdminUsersExceptions.conflictingEmail;
 import static uk.gov.pay.adminusers.service.AdminUsersExceptions.internalServerError;
-import static uk.gov.pay.adminusers.service.AdminUsersExceptions.inviteLockedException;
 
 public class ServiceInviteCompleter extends InviteCompleter {
 
@@ -45,12 +45,10 @@ public class ServiceInviteCompleter extends InviteCompleter {
      */
     @Override
     @Transactional
-    public Optional<InviteCompleteResponse> complete(String inviteCode) {
-        return inviteDao.findByCode(inviteCode)
-                .map(inviteEntity -> {
-                    if (inviteEntity.isExpired() || inviteEntity.isDisabled()) {
-                        throw inviteLockedException(inviteEntity.getCode());
-                    }
+    public Optional<InviteCompleteResponse> complete() {
+        return Optional.ofNullable(inviteEntity)
+                .map(routedInvite -> {
+                    InviteEntity inviteEntity = disableInvite(inviteDao);
                     if (userDao.findByEmail(inviteEntity.getEmail()).isPresent()) {
                         throw conflictingEmail(inviteEntity.getEmail());
                     }
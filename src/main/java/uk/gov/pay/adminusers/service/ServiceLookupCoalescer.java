@@ -0,0 +1,37 @@
+package uk.gov.pay.adminusers.service;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.inject.Inject;
+import uk.gov.pay.adminusers.app.config.ServiceLookupCoalescingConfiguration;
+import uk.gov.pay.adminusers.model.Service;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Shares in-flight lookups of a service between concurrent requests for it, so a spike of identical requests for a
+ * popular service makes one trip to the database rather than one each.
+ * <p>
+ * Only the finished {@link Service} is shared, never the entity, which belongs to the loading thread's
+ * EntityManager. A lookup that joins one already in flight can miss a change committed after that load started, so
+ * this is only for request paths that read a service, not ones that go on to change it.
+ */
+public class ServiceLookupCoalescer {
+
+    private final SingleFlight<String, Optional<Service>> byGatewayAccountId;
+    private final SingleFlight<String, Optional<Service>> byExternalId;
+
+    @Inject
+    public ServiceLookupCoalescer(ServiceLookupCoalescingConfiguration configuration, MetricRegistry metricRegistry) {
+        this.byGatewayAccountId = new SingleFlight<>("service-lookups.by-gateway-account-id", configuration.getTimeout(), metricRegistry);
+        this.byExternalId = new SingleFlight<>("service-lookups.by-external-id", configuration.getTimeout(), metricRegistry);
+    }
+
+    public Optional<Service> byGatewayAccountId(String gatewayAccountId, Supplier<Optional<Service>> loader) {
+        return byGatewayAccountId.load(gatewayAccountId, loader);
+    }
+
+    public Optional<Service> byExternalId(String serviceExternalId, Supplier<Optional<Service>> loader) {
+        return byExternalId.load(serviceExternalId, loader);
+    }
+}
@@ -3,9 +3,9 @@ package uk.gov.pay.adminusers.service;
 import com.google.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import uk.gov.pay.adminusers.persistence.dao.InviteDao;
 
 import java.util.Locale;
+import java.util.Optional;
 
 import static java.lang.String.format;
 import static uk.gov.pay.adminusers.service.NotificationService.OtpNotifySmsTemplateId.SELF_INITIATED_CREATE_NEW_USER_AND_SERVICE;
@@ -13,22 +13,20 @@ import static uk.gov.pay.adminusers.service.NotificationService.OtpNotifySmsTemp
 public class ServiceOtpDispatcher extends InviteOtpDispatcher {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ServiceOtpDispatcher.class);
-    private final InviteDao inviteDao;
     private final SecondFactorAuthenticator secondFactorAuthenticator;
     private final NotificationService notificationService;
 
     @Inject
-    public ServiceOtpDispatcher(InviteDao inviteDao, SecondFactorAuthenticator secondFactorAuthenticator, NotificationService notificationService) {
+    public ServiceOtpDispatcher(SecondFactorAuthenticator secondFactorAuthenticator, NotificationService notificationService) {
         super();
-        this.inviteDao = inviteDao;
         this.secondFactorAuthenticator = secondFactorAuthenticator;
         this.notificationService = notificationService;
     }
 
-    //This doesn't really need to be transactional. as it read-only from database
+    //Not transactional: the routed invite is only read
     @Override
-    public boolean dispatchOtp(String inviteCode) {
-        return inviteDao.findByCode(inviteCode)
+    public boolean dispatchOtp() {
+        return Optional.ofNullable(inviteEntity)
                 .map(inviteEntity -> {
                     int newPassCode = secondFactorAuthenticator.newPassCode(inviteEntity.getOtpKey());
                     String passcode = format(Locale.ENGLISH, SIX_DIGITS_WITH_LEADING_ZEROS, newPassCode);
@@ -45,7 +43,7 @@ public class ServiceOtpDispatcher extends InviteOtpDispatcher {
                     
                     return true;
                 }).orElseGet(() -> {
-                    LOGGER.error("Unable to locate invite after validating and reaching to the service otp dispatcher. invite code [{}]", inviteCode);
+                    LOGGER.error("No invite was routed to the service otp dispatcher");
                     return false;
                 });
     }
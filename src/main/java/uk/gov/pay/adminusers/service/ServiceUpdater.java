@@ -8,11 +8,13 @@ import uk.gov.pay.adminusers.model.Service;
 import uk.gov.pay.adminusers.model.ServiceUpdateRequest;
 import uk.gov.pay.adminusers.model.UpdateMerchantDetailsRequest;
 import uk.gov.pay.adminusers.persistence.dao.ServiceDao;
+import uk.gov.pay.adminusers.persistence.entity.GatewayAccountIdEntity;
 import uk.gov.pay.adminusers.persistence.entity.MerchantDetailsEntity;
 import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
 import uk.gov.pay.adminusers.persistence.entity.service.ServiceNameEntity;
 import uk.gov.pay.commons.model.SupportedLanguage;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -20,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
 
 import static java.util.Map.entry;
 import static uk.gov.pay.adminusers.service.AdminUsersExceptions.conflictingServiceGatewayAccounts;
@@ -42,10 +45,11 @@ public class ServiceUpdater {
     public static final String FIELD_MERCHANT_DETAILS_EMAIL = "merchant_details/email";
     public static final String FIELD_MERCHANT_DETAILS_TELEPHONE_NUMBER = "merchant_details/telephone_number";
     private final ServiceDao serviceDao;
+    private final EmailService emailService;
     private final Map<String, BiConsumer<ServiceUpdateRequest, ServiceEntity>> attributeUpdaters;
 
     @Inject
-    public ServiceUpdater(ServiceDao serviceDao) {
+    public ServiceUpdater(ServiceDao serviceDao, EmailService emailService) {
         Map<String, BiConsumer<ServiceUpdateRequest, ServiceEntity>> attributeUpdaters = new HashMap<>(Map.ofEntries(
                 entry(FIELD_GATEWAY_ACCOUNT_IDS, assignGatewayAccounts()),
                 entry(FIELD_CUSTOM_BRANDING, updateCustomBranding()),
@@ -67,46 +71,87 @@ public class ServiceUpdater {
                 .forEach(language -> attributeUpdaters.put(FIELD_SERVICE_NAME_PREFIX + '/' + language.toString(), updateServiceName()));
         this.attributeUpdaters = Map.copyOf(attributeUpdaters);
         this.serviceDao = serviceDao;
+        this.emailService = emailService;
     }
 
-    @Transactional
     public Optional<Service> doUpdate(String serviceExternalId, ServiceUpdateRequest updateRequests) {
         return doUpdate(serviceExternalId, Collections.singletonList(updateRequests));
     }
 
-    @Transactional
+    /**
+     * Applies every update to the service and merges it once, so EclipseLink writes a single update of the changed
+     * columns however many operations there are. Gateway accounts from all the operations are checked for conflicts in
+     * one query before anything is changed.
+     * <p>
+     * Cached email content for the service's gateway accounts is only evicted once the update is committed, as a
+     * concurrent email evicted any earlier could cache the content as it was before.
+     */
     public Optional<Service> doUpdate(String serviceExternalId, List<ServiceUpdateRequest> updateRequests) {
+        List<String> changedGatewayAccountIds = new ArrayList<>();
+        Optional<Service> service = doUpdate(serviceExternalId, updateRequests, changedGatewayAccountIds);
+        emailService.invalidateTemplateMappingsFor(changedGatewayAccountIds);
+        return service;
+    }
+
+    @Transactional
+    Optional<Service> doUpdate(String serviceExternalId, List<ServiceUpdateRequest> updateRequests, List<String> changedGatewayAccountIds) {
         return serviceDao.findByExternalId(serviceExternalId)
                 .map(serviceEntity -> {
-                    updateRequests.forEach(req -> {
-                        attributeUpdaters.get(req.getPath())
-                                .accept(req, serviceEntity);
-                        serviceDao.merge(serviceEntity);
-                    });
+                    checkGatewayAccountsNotUsed(updateRequests);
+                    updateRequests.forEach(req -> attributeUpdaters.get(req.getPath())
+                            .accept(req, serviceEntity));
+                    serviceDao.merge(serviceEntity);
+                    serviceDao.incrementVersion(serviceEntity);
+                    changedGatewayAccountIds.addAll(gatewayAccountIdsOf(serviceEntity));
                     return serviceEntity.toService();
                 });
     }
 
-    @Transactional
     public Service doUpdateMerchantDetails(String serviceExternalId, UpdateMerchantDetailsRequest updateMerchantDetailsRequest) throws ServiceNotFoundException {
+        List<String> changedGatewayAccountIds = new ArrayList<>();
+        Service service = doUpdateMerchantDetails(serviceExternalId, updateMerchantDetailsRequest, changedGatewayAccountIds);
+        emailService.invalidateTemplateMappingsFor(changedGatewayAccountIds);
+        return service;
+    }
+
+    @Transactional
+    Service doUpdateMerchantDetails(String serviceExternalId, UpdateMerchantDetailsRequest updateMerchantDetailsRequest,
+                                    List<String> changedGatewayAccountIds) throws ServiceNotFoundException {
         return serviceDao.findByExternalId(serviceExternalId)
                 .map(serviceEntity -> {
                     MerchantDetailsEntity merchantEntity = MerchantDetailsEntity.from(updateMerchantDetailsRequest);
                     serviceEntity.setMerchantDetailsEntity(merchantEntity);
                     serviceDao.merge(serviceEntity);
+                    serviceDao.incrementVersion(serviceEntity);
+                    changedGatewayAccountIds.addAll(gatewayAccountIdsOf(serviceEntity));
                     return serviceEntity.toService();
                 }).orElseThrow(() -> new ServiceNotFoundException(serviceExternalId));
     }
 
+    private static List<String> gatewayAccountIdsOf(ServiceEntity serviceEntity) {
+        return serviceEntity.getGatewayAccountIds().stream()
+                .map(GatewayAccountIdEntity::getGatewayAccountId)
+                .collect(Collectors.toList());
+    }
+
+    private void checkGatewayAccountsNotUsed(List<ServiceUpdateRequest> updateRequests) {
+        List<String> gatewayAccountIds = updateRequests.stream()
+                .filter(req -> FIELD_GATEWAY_ACCOUNT_IDS.equals(req.getPath()))
+                .flatMap(req -> req.valueAsList().stream())
+                .distinct()
+                .collect(Collectors.toList());
+        if (gatewayAccountIds.isEmpty()) {
+            return;
+        }
+        List<String> gatewayAccountIdsInUse = serviceDao.findGatewayAccountIdsInUse(gatewayAccountIds);
+        if (!gatewayAccountIdsInUse.isEmpty()) {
+            throw conflictingServiceGatewayAccounts(gatewayAccountIdsInUse);
+        }
+    }
+
     private BiConsumer<ServiceUpdateRequest, ServiceEntity> assignGatewayAccounts() {
-        return (serviceUpdateRequest, serviceEntity) -> {
-            List<String> gatewayAccountIds = serviceUpdateRequest.valueAsList();
-            if (serviceDao.checkIfGatewayAccountsUsed(gatewayAccountIds)) {
-                throw conflictingServiceGatewayAccounts(gatewayAccountIds);
-            } else {
-                serviceEntity.addGatewayAccountIds(gatewayAccountIds.toArray(new String[0]));
-            }
-        };
+        return (serviceUpdateRequest, serviceEntity) ->
+                serviceEntity.addGatewayAccountIds(serviceUpdateRequest.valueAsList().toArray(new String[0]));
     }
 
     private BiConsumer<ServiceUpdateRequest, ServiceEntity> updateCustomBranding() {
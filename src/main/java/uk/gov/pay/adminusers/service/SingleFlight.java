@@ -0,0 +1,83 @@
+package uk.gov.pay.adminusers.service;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import com.google.common.base.Throwables;
+import io.dropwizard.util.Duration;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static uk.gov.pay.adminusers.service.AdminUsersExceptions.serviceUnavailable;
+
+/**
+ * Lets concurrent loads of the same key share one call to the loader. The first caller for a key runs the loader on
+ * its own thread; anyone asking for that key while it runs waits for its result, or its exception, instead of loading
+ * again. Nothing is kept once the load completes, so this is not a cache.
+ * <p>
+ * Values are handed to several threads at once, so they must not be mutated by callers.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Duration timeout;
+    private final Meter loads;
+    private final Meter coalesced;
+    private final Meter timeouts;
+
+    public SingleFlight(String name, Duration timeout, MetricRegistry metricRegistry) {
+        this.timeout = timeout;
+        this.loads = metricRegistry.meter(name(name, "loads"));
+        this.coalesced = metricRegistry.meter(name(name, "coalesced"));
+        this.timeouts = metricRegistry.meter(name(name, "timeouts"));
+        metricRegistry.register(name(name, "coalescing-ratio"), new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                return Ratio.of(coalesced.getOneMinuteRate(), loads.getOneMinuteRate() + coalesced.getOneMinuteRate());
+            }
+        });
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existingFlight = inFlight.putIfAbsent(key, flight);
+        if (existingFlight != null) {
+            coalesced.mark();
+            return await(existingFlight);
+        }
+
+        loads.mark();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return flight.get(timeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.mark();
+            throw serviceUnavailable("Timed out waiting for an identical request to complete, please try again later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw serviceUnavailable("Interrupted waiting for an identical request to complete, please try again later");
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -5,13 +5,13 @@ import com.google.inject.persist.Transactional;
 import uk.gov.pay.adminusers.model.InviteCompleteResponse;
 import uk.gov.pay.adminusers.persistence.dao.InviteDao;
 import uk.gov.pay.adminusers.persistence.dao.UserDao;
+import uk.gov.pay.adminusers.persistence.entity.InviteEntity;
 import uk.gov.pay.adminusers.persistence.entity.ServiceRoleEntity;
 
 import java.util.Optional;
 
 import static java.lang.String.format;
 import static uk.gov.pay.adminusers.service.AdminUsersExceptions.internalServerError;
-import static uk.gov.pay.adminusers.service.AdminUsersExceptions.inviteLockedException;
 
 public class UserInviteCompleter extends InviteCompleter {
 
@@ -27,12 +27,10 @@ public class UserInviteCompleter extends InviteCompleter {
 
     @Override
     @Transactional
-    public Optional<InviteCompleteResponse> complete(String inviteCode) {
-        return inviteDao.findByCode(inviteCode)
-                .map(inviteEntity -> {
-                    if (inviteEntity.isExpired() || inviteEntity.isDisabled()) {
-                        throw inviteLockedException(inviteEntity.getCode());
-                    }
+    public Optional<InviteCompleteResponse> complete() {
+        return Optional.ofNullable(inviteEntity)
+                .map(routedInvite -> {
+                    InviteEntity inviteEntity = disableInvite(inviteDao);
                     return userDao.findByEmail(inviteEntity.getEmail())
                             .map(userEntity -> {
                                 if (inviteEntity.getService() != null && inviteEntity.isUserType()) {
@@ -1,26 +1,35 @@
 package uk.gov.pay.adminusers.service;
 
 import com.google.inject.Inject;
+import com.google.inject.name.Named;
 import com.google.inject.persist.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.adminusers.app.config.LinksConfig;
 import uk.gov.pay.adminusers.model.Invite;
 import uk.gov.pay.adminusers.model.InviteUserRequest;
+import uk.gov.pay.adminusers.model.InviteUsersRequest;
+import uk.gov.pay.adminusers.model.UserInviteResult;
 import uk.gov.pay.adminusers.persistence.dao.InviteDao;
 import uk.gov.pay.adminusers.persistence.dao.RoleDao;
 import uk.gov.pay.adminusers.persistence.dao.ServiceDao;
 import uk.gov.pay.adminusers.persistence.dao.UserDao;
 import uk.gov.pay.adminusers.persistence.entity.InviteEntity;
+import uk.gov.pay.adminusers.persistence.entity.RoleEntity;
 import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
 import uk.gov.pay.adminusers.persistence.entity.UserEntity;
 import uk.gov.pay.commons.model.SupportedLanguage;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 import static java.lang.String.format;
-import static java.util.stream.Collectors.toList;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
 import static javax.ws.rs.core.UriBuilder.fromUri;
 import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomUuid;
 import static uk.gov.pay.adminusers.model.InviteType.USER;
@@ -39,15 +48,18 @@ public class UserInviteCreator {
     private final LinksConfig linksConfig;
     private final NotificationService notificationService;
     private final ServiceDao serviceDao;
+    private final ExecutorService inviteEmailExecutor;
 
     @Inject
-    public UserInviteCreator(InviteDao inviteDao, UserDao userDao, RoleDao roleDao, LinksConfig linksConfig, NotificationService notificationService, ServiceDao serviceDao) {
+    public UserInviteCreator(InviteDao inviteDao, UserDao userDao, RoleDao roleDao, LinksConfig linksConfig, NotificationService notificationService, ServiceDao serviceDao,
+                             @Named("INVITE_EMAIL_EXECUTOR") ExecutorService inviteEmailExecutor) {
         this.inviteDao = inviteDao;
         this.userDao = userDao;
         this.roleDao = roleDao;
         this.linksConfig = linksConfig;
         this.notificationService = notificationService;
         this.serviceDao = serviceDao;
+        this.inviteEmailExecutor = inviteEmailExecutor;
     }
 
     @Transactional
@@ -64,20 +76,15 @@ public class UserInviteCreator {
             }
         });
 
-        List<InviteEntity> existingInvites = inviteDao.findByEmail(inviteUserRequest.getEmail());
-        List<InviteEntity> validInvitesToTheSameService = existingInvites.stream()
-                .filter(inviteEntity -> !inviteEntity.isDisabled() && !inviteEntity.isExpired())
-                .filter(inviteEntity -> inviteEntity.getService() != null && inviteUserRequest.getServiceExternalId().equals(inviteEntity.getService().getExternalId()))
-                .collect(toList());
+        Optional<InviteEntity> validInviteToTheSameService = inviteDao.findActiveByEmailAndServiceId(
+                inviteUserRequest.getEmail(), inviteUserRequest.getServiceExternalId());
 
-        if (!validInvitesToTheSameService.isEmpty()) {
-            InviteEntity existingInvite = validInvitesToTheSameService.get(0);
+        if (validInviteToTheSameService.isPresent()) {
+            InviteEntity existingInvite = validInviteToTheSameService.get();
             if (inviteUserRequest.getSender().equals(existingInvite.getSender().getExternalId())) {
-                String inviteUrl = fromUri(linksConfig.getSelfserviceInvitesUrl()).path(existingInvite.getCode()).build().toString();
-                sendUserInviteNotification(existingInvite, inviteUrl, existingInvite.getService(), existingUser);
-                Invite invite = existingInvite.toInvite();
-                invite.setInviteLink(inviteUrl);
-                return Optional.of(invite);
+                String inviteUrl = inviteUrlFor(existingInvite);
+                userInviteNotification(existingInvite, inviteUrl, existingInvite.getService(), existingUser).run();
+                return Optional.of(toInvite(existingInvite, inviteUrl));
             } else {
                 throw conflictingInvite(inviteUserRequest.getEmail());
             }
@@ -94,11 +101,9 @@ public class UserInviteCreator {
                         inviteEntity.setService(serviceEntity);
                         inviteEntity.setType(USER);
                         inviteDao.persist(inviteEntity);
-                        String inviteUrl = fromUri(linksConfig.getSelfserviceInvitesUrl()).path(inviteEntity.getCode()).build().toString();
-                        sendUserInviteNotification(inviteEntity, inviteUrl, serviceEntity, existingUser);
-                        Invite invite = inviteEntity.toInvite();
-                        invite.setInviteLink(inviteUrl);
-                        return Optional.of(invite);
+                        String inviteUrl = inviteUrlFor(inviteEntity);
+                        userInviteNotification(inviteEntity, inviteUrl, serviceEntity, existingUser).run();
+                        return Optional.of(toInvite(inviteEntity, inviteUrl));
                     } else {
                         throw forbiddenOperationException(inviteUserRequest.getSender(), "invite", serviceEntity.getExternalId());
                     }
@@ -106,22 +111,107 @@ public class UserInviteCreator {
                 .orElseThrow(() -> undefinedRoleException(inviteUserRequest.getRoleName()));
     }
 
-    private void sendUserInviteNotification(InviteEntity inviteEntity, String inviteUrl, ServiceEntity serviceEntity, Optional<UserEntity> existingUser) {
-        UserEntity sender = inviteEntity.getSender();
-        LOGGER.info("New invite created by User [{}]", sender.getExternalId());
-        try {
-            String notificationId;
-            
-            if (existingUser.isPresent()) {
-                String serviceName = serviceEntity.getServiceNames().get(SupportedLanguage.ENGLISH).getName();
-                notificationId = notificationService.sendInviteExistingUserEmail(inviteEntity.getSender().getEmail(), inviteEntity.getEmail(), inviteUrl, serviceName);
+    /**
+     * Invites several email addresses to a service with the same role. The service, role and sender are looked up and
+     * checked once for the whole batch, and existing users and invites for every address are found in one query each.
+     * All new invites are written in a single transaction and their emails are only sent once it has committed, on a
+     * bounded pool so a large batch neither holds up the response nor floods Notify.
+     * <p>
+     * An address that already belongs to the service or has an active invite from someone else is reported rather than
+     * failing the batch; an active invite from the same sender is emailed again.
+     */
+    public Optional<List<UserInviteResult>> doInvites(InviteUsersRequest inviteUsersRequest) {
+        List<Runnable> notifications = new ArrayList<>();
+        Optional<List<UserInviteResult>> results = createInvites(inviteUsersRequest, notifications);
+        notifications.forEach(inviteEmailExecutor::execute);
+        return results;
+    }
+
+    @Transactional
+    /* default */ Optional<List<UserInviteResult>> createInvites(InviteUsersRequest inviteUsersRequest, List<Runnable> notifications) {
+        Optional<ServiceEntity> serviceEntityOptional = serviceDao.findByExternalId(inviteUsersRequest.getServiceExternalId());
+        if (!serviceEntityOptional.isPresent()) {
+            return Optional.empty();
+        }
+
+        ServiceEntity serviceEntity = serviceEntityOptional.get();
+        RoleEntity role = roleDao.findByRoleName(inviteUsersRequest.getRoleName())
+                .orElseThrow(() -> undefinedRoleException(inviteUsersRequest.getRoleName()));
+        UserEntity sender = userDao.findByExternalId(inviteUsersRequest.getSender())
+                .filter(userSender -> userSender.canInviteUsersTo(serviceEntity.getId()))
+                .orElseThrow(() -> forbiddenOperationException(inviteUsersRequest.getSender(), "invite", serviceEntity.getExternalId()));
+
+        Map<String, UserEntity> existingUsers = userDao.findByEmails(inviteUsersRequest.getEmails()).stream()
+                .collect(toMap(userEntity -> userEntity.getEmail().toLowerCase(Locale.ENGLISH), identity(), (userEntity, duplicate) -> userEntity));
+        Map<String, InviteEntity> activeInvites = inviteDao.findActiveByEmailsAndServiceId(inviteUsersRequest.getEmails(), serviceEntity.getExternalId()).stream()
+                .collect(toMap(inviteEntity -> inviteEntity.getEmail().toLowerCase(Locale.ENGLISH), identity(), (oldest, newer) -> oldest));
+
+        List<UserInviteResult> results = new ArrayList<>();
+        for (String email : inviteUsersRequest.getEmails()) {
+            String lowerCaseEmail = email.toLowerCase(Locale.ENGLISH);
+            Optional<UserEntity> existingUser = Optional.ofNullable(existingUsers.get(lowerCaseEmail));
+            Optional<InviteEntity> existingInvite = Optional.ofNullable(activeInvites.get(lowerCaseEmail));
+
+            if (existingUser.flatMap(userEntity -> userEntity.getServicesRole(serviceEntity.getExternalId())).isPresent()) {
+                results.add(UserInviteResult.alreadyInService(email));
+            } else if (existingInvite.isPresent()) {
+                InviteEntity inviteEntity = existingInvite.get();
+                if (inviteUsersRequest.getSender().equals(inviteEntity.getSender().getExternalId())) {
+                    String inviteUrl = inviteUrlFor(inviteEntity);
+                    notifications.add(userInviteNotification(inviteEntity, inviteUrl, serviceEntity, existingUser));
+                    results.add(UserInviteResult.resent(toInvite(inviteEntity, inviteUrl)));
+                } else {
+                    results.add(UserInviteResult.conflictingInvite(email));
+                }
             } else {
-                notificationId = notificationService.sendInviteEmail(inviteEntity.getSender().getEmail(), inviteEntity.getEmail(), inviteUrl);
+                // a bulk request carries no otp key, and one key must never be shared by several invitees, so each gets
+                // the random key a single invite gets when the request leaves it out
+                InviteEntity inviteEntity = new InviteEntity(email, randomUuid(), randomUuid(), role);
+                inviteEntity.setSender(sender);
+                inviteEntity.setService(serviceEntity);
+                inviteEntity.setType(USER);
+                inviteDao.persist(inviteEntity);
+                String inviteUrl = inviteUrlFor(inviteEntity);
+                notifications.add(userInviteNotification(inviteEntity, inviteUrl, serviceEntity, existingUser));
+                results.add(UserInviteResult.created(toInvite(inviteEntity, inviteUrl)));
             }
-
-            LOGGER.info("sent invite email successfully by user [{}], notification id [{}]", sender.getExternalId(), notificationId);
-        } catch(Exception e) {
-            LOGGER.error(format("error sending email by user [%s]", sender.getExternalId()), e);
         }
+        return Optional.of(results);
+    }
+
+    private String inviteUrlFor(InviteEntity inviteEntity) {
+        return fromUri(linksConfig.getSelfserviceInvitesUrl()).path(inviteEntity.getCode()).build().toString();
+    }
+
+    private static Invite toInvite(InviteEntity inviteEntity, String inviteUrl) {
+        Invite invite = inviteEntity.toInvite();
+        invite.setInviteLink(inviteUrl);
+        return invite;
+    }
+
+    /**
+     * Captures everything the invite email needs up front, so it can be sent after the entities are detached.
+     */
+    private Runnable userInviteNotification(InviteEntity inviteEntity, String inviteUrl, ServiceEntity serviceEntity, Optional<UserEntity> existingUser) {
+        String senderExternalId = inviteEntity.getSender().getExternalId();
+        String senderEmail = inviteEntity.getSender().getEmail();
+        String email = inviteEntity.getEmail();
+        Optional<String> serviceName = existingUser.map(userEntity -> serviceEntity.getServiceNames().get(SupportedLanguage.ENGLISH).getName());
+        return () -> {
+            LOGGER.info("New invite created by User [{}]", senderExternalId);
+            try {
+                String notificationId;
+
+                if (serviceName.isPresent()) {
+                    notificationId = notificationService.sendInviteExistingUserEmail(senderEmail, email, inviteUrl, serviceName.get());
+                } else {
+                    notificationId = notificationService.sendInviteEmail(senderEmail, email, inviteUrl);
+                }
+
+                LOGGER.info("sent invite email successfully by user [{}], notification id [{}]", senderExternalId, notificationId);
+            } catch(Exception e) {
+                LOGGER.error(format("error sending email by user [%s]", senderExternalId), e);
+            }
+        };
     }
 }
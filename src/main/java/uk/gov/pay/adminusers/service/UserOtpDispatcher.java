@@ -8,6 +8,7 @@ import uk.gov.pay.adminusers.persistence.dao.InviteDao;
 import uk.gov.pay.adminusers.utils.telephonenumber.TelephoneNumberUtility;
 
 import java.util.Locale;
+import java.util.Optional;
 
 import static java.lang.String.format;
 import static uk.gov.pay.adminusers.service.NotificationService.OtpNotifySmsTemplateId.CREATE_USER_IN_RESPONSE_TO_INVITATION_TO_SERVICE;
@@ -33,27 +34,27 @@ public class UserOtpDispatcher extends InviteOtpDispatcher {
 
     @Transactional
     @Override
-    public boolean dispatchOtp(String inviteCode) {
-        return inviteDao.findByCode(inviteCode)
+    public boolean dispatchOtp() {
+        return Optional.ofNullable(inviteEntity)
                 .map(inviteEntity -> {
                     inviteEntity.setTelephoneNumber(TelephoneNumberUtility.formatToE164(inviteOtpRequest.getTelephoneNumber()));
                     inviteEntity.setPassword(passwordHasher.hash(inviteOtpRequest.getPassword()));
                     inviteDao.merge(inviteEntity);
                     int newPassCode = secondFactorAuthenticator.newPassCode(inviteEntity.getOtpKey());
                     String passcode = format(Locale.ENGLISH, SIX_DIGITS_WITH_LEADING_ZEROS, newPassCode);
-                    LOGGER.info("New 2FA token generated for invite code [{}]", inviteCode);
+                    LOGGER.info("New 2FA token generated for invite code [{}]", inviteEntity.getCode());
                     
                     try {
                         String notificationId = notificationService.sendSecondFactorPasscodeSms(inviteOtpRequest.getTelephoneNumber(), passcode,
                                 CREATE_USER_IN_RESPONSE_TO_INVITATION_TO_SERVICE);
-                        LOGGER.info("sent 2FA token successfully for invite code [{}], notification id [{}]", inviteCode, notificationId);
+                        LOGGER.info("sent 2FA token successfully for invite code [{}], notification id [{}]", inviteEntity.getCode(), notificationId);
                     } catch (Exception e) {
-                        LOGGER.info(format("error sending 2FA token for invite code [%s]", inviteCode), e);
+                        LOGGER.info(format("error sending 2FA token for invite code [%s]", inviteEntity.getCode()), e);
                     }
                     
                     return true;
                 }).orElseGet(() -> {
-                    LOGGER.info("New 2FA token generated for invite code [{}]", inviteCode);
+                    LOGGER.error("No invite was routed to the user otp dispatcher");
                     return false;
                 });
     }
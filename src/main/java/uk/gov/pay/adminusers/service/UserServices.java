@@ -1,5 +1,8 @@
 package uk.gov.pay.adminusers.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.name.Named;
@@ -9,14 +12,21 @@ import org.slf4j.LoggerFactory;
 import uk.gov.pay.adminusers.model.PatchRequest;
 import uk.gov.pay.adminusers.model.SecondFactorMethod;
 import uk.gov.pay.adminusers.model.User;
+import uk.gov.pay.adminusers.model.UserSession;
 import uk.gov.pay.adminusers.persistence.dao.UserDao;
 import uk.gov.pay.adminusers.persistence.entity.UserEntity;
 import uk.gov.pay.adminusers.utils.telephonenumber.TelephoneNumberUtility;
 
+import javax.ws.rs.core.EntityTag;
+import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.lang.Boolean.parseBoolean;
@@ -32,11 +42,19 @@ public class UserServices {
 
     private static Logger logger = LoggerFactory.getLogger(UserServices.class);
 
+    // Writes on another instance cannot invalidate this cache, so entries only live for a few seconds
+    private static final long USER_SESSION_CACHE_EXPIRY_SECONDS = 5;
+    private static final long USER_SESSION_CACHE_MAX_SIZE = 10_000;
+
     private final UserDao userDao;
     private final PasswordHasher passwordHasher;
     private final LinksBuilder linksBuilder;
     private final Integer loginAttemptCap;
     private final SecondFactorAuthenticator secondFactorAuthenticator;
+    private final Cache<String, UserSession> userSessionCache = CacheBuilder.newBuilder()
+            .expireAfterWrite(USER_SESSION_CACHE_EXPIRY_SECONDS, TimeUnit.SECONDS)
+            .maximumSize(USER_SESSION_CACHE_MAX_SIZE)
+            .build();
 
     @Inject
     public UserServices(UserDao userDao,
@@ -55,6 +73,8 @@ public class UserServices {
      * validates given username and password against persisted users
      * <p> on successful authentication, user's login count is reset to <b>0</b></p>
      * <p> on authentication failure, user's login count is increment by <b>1</b></p>
+     * <p> login counts are kept in {@link uk.gov.pay.adminusers.persistence.entity.UserLoginStateEntity}, so the users
+     * row itself is only written when the account gets locked</p>
      *
      * @param username
      * @param password
@@ -62,8 +82,12 @@ public class UserServices {
      * @throws javax.ws.rs.WebApplicationException if user account is disabled
      * @throws javax.ws.rs.WebApplicationException with status 423 (Locked) if login attempts >  ALLOWED_FAILED_LOGIN_ATTEMPTS
      */
-    @Transactional
     public Optional<User> authenticate(String username, String password) {
+        return invalidatingChangedSessions(changedSessions -> authenticate(username, password, changedSessions));
+    }
+
+    @Transactional
+    Optional<User> authenticate(String username, String password, Set<String> changedSessions) {
         Optional<UserEntity> userEntityOptional = userDao.findByUsername(username);
         logger.debug("Login attempt - username={}", username);
         if (userEntityOptional.isPresent()) { //interestingly java cannot map/orElseGet this block properly, without getting the compiler confused. :)
@@ -71,7 +95,6 @@ public class UserServices {
             if (passwordHasher.isEqual(password, userEntity.getPassword())) {
                 if (!userEntity.isDisabled()) {
                     userEntity.setLoginCounter(0);
-                    userEntity.setUpdatedAt(ZonedDateTime.now(ZoneId.of("UTC")));
                     userDao.merge(userEntity);
                 }
 
@@ -79,8 +102,11 @@ public class UserServices {
                 return Optional.of(linksBuilder.decorate(userEntity.toUser()));
             } else {
                 userEntity.setLoginCounter(userEntity.getLoginCounter() + 1);
-                userEntity.setUpdatedAt(ZonedDateTime.now(ZoneId.of("UTC")));
-                userEntity.setDisabled(userEntity.getLoginCounter() >= loginAttemptCap);
+                if (userEntity.getLoginCounter() >= loginAttemptCap) {
+                    userEntity.setDisabled(true);
+                    userEntity.setUpdatedAt(ZonedDateTime.now(ZoneId.of("UTC")));
+                    changedSessions.add(userEntity.getExternalId());
+                }
                 logger.info("Failed login attempt - user_id={}, login_counter={}", userEntity.getExternalId(), userEntity.getLoginCounter());
                 userDao.merge(userEntity);
                 if (userEntity.isDisabled()) {
@@ -101,8 +127,49 @@ public class UserServices {
      * @return {@link User} as an {@link Optional} if found. Otherwise Optional.empty() will be returned.
      */
     public Optional<User> findUserByExternalId(String externalId) {
+        return findUserByExternalId(externalId, true);
+    }
+
+    /**
+     * finds a user by externalId, only loading their service roles when asked to
+     *
+     * @param externalId
+     * @param withServiceRoles
+     * @return {@link User} as an {@link Optional} if found. Otherwise Optional.empty() will be returned.
+     */
+    public Optional<User> findUserByExternalId(String externalId, boolean withServiceRoles) {
         Optional<UserEntity> userEntityOptional = userDao.findByExternalId(externalId);
-        return userEntityOptional.map(userEntity -> linksBuilder.decorate(userEntity.toUser()));
+        return userEntityOptional.map(userEntity -> linksBuilder.decorate(userEntity.toUser(withServiceRoles)));
+    }
+
+    /**
+     * finds the session version, disabled flag and second factor method of a user by externalId, without loading
+     * the rest of the user. Results are cached briefly and evicted whenever this instance changes any of them.
+     *
+     * @param externalId
+     * @return {@link UserSession} as an {@link Optional} if found. Otherwise Optional.empty() will be returned.
+     */
+    public Optional<UserSession> findUserSessionByExternalId(String externalId) {
+        String cacheKey = externalId.toLowerCase();
+        UserSession userSession = userSessionCache.getIfPresent(cacheKey);
+        if (userSession != null) {
+            return Optional.of(userSession);
+        }
+        Optional<UserSession> userSessionOptional = userDao.findSessionByExternalId(externalId);
+        userSessionOptional.ifPresent(session -> userSessionCache.put(cacheKey, session));
+        return userSessionOptional;
+    }
+
+    /**
+     * derives a strong entity tag for a user from the versions of the rows that make up its representation, without
+     * loading the user itself
+     *
+     * @param externalId
+     * @return {@link EntityTag} as an {@link Optional} if the user is found. Otherwise Optional.empty() will be returned.
+     */
+    public Optional<EntityTag> findUserEntityTag(String externalId) {
+        return userDao.findVersionsByExternalId(externalId)
+                .map(versions -> new EntityTag(Hashing.murmur3_128().hashString(versions, StandardCharsets.UTF_8).toString()));
     }
 
     /**
@@ -110,9 +177,18 @@ public class UserServices {
      * @return A {@link List} of {@link User} or an empty {@link List} otherwise
      */
     public List<User> findUsersByExternalIds(List<String> externalIds) {
+        return findUsersByExternalIds(externalIds, true);
+    }
+
+    /**
+     * @param externalIds
+     * @param withServiceRoles false to leave each user's service roles empty rather than loading them
+     * @return A {@link List} of {@link User} or an empty {@link List} otherwise
+     */
+    public List<User> findUsersByExternalIds(List<String> externalIds, boolean withServiceRoles) {
         return userDao.findByExternalIds(externalIds)
                 .stream()
-                .map(userEntity -> linksBuilder.decorate(userEntity.toUser()))
+                .map(userEntity -> linksBuilder.decorate(userEntity.toUser(withServiceRoles)))
                 .collect(Collectors.toList());
     }
 
@@ -129,8 +205,12 @@ public class UserServices {
 
 
 
-    @Transactional
     public Optional<User> authenticateSecondFactor(String externalId, int code) {
+        return invalidatingChangedSessions(changedSessions -> authenticateSecondFactor(externalId, code, changedSessions));
+    }
+
+    @Transactional
+    Optional<User> authenticateSecondFactor(String externalId, int code, Set<String> changedSessions) {
         logger.debug("OTP attempt - user_id={}", externalId);
         ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
         return userDao.findByExternalId(externalId)
@@ -141,15 +221,17 @@ public class UserServices {
                     }
                     if (secondFactorAuthenticator.authorize(userEntity.getOtpKey(), code)) {
                         userEntity.setLoginCounter(0);
-                        userEntity.setUpdatedAt(now);
                         userEntity.setLastLoggedInAt(now);
                         userDao.merge(userEntity);
                         logger.info("Successful OTP. user_id={}", userEntity.getExternalId());
                         return Optional.of(linksBuilder.decorate(userEntity.toUser()));
                     } else {
                         userEntity.setLoginCounter(userEntity.getLoginCounter() + 1);
-                        userEntity.setUpdatedAt(now);
-                        userEntity.setDisabled(userEntity.getLoginCounter() > loginAttemptCap);
+                        if (userEntity.getLoginCounter() > loginAttemptCap) {
+                            userEntity.setDisabled(true);
+                            userEntity.setUpdatedAt(now);
+                            changedSessions.add(userEntity.getExternalId());
+                        }
                         userDao.merge(userEntity);
                         if (userEntity.isDisabled()) {
                             logger.warn("Failed OTP attempt - user_id={}, login_counter={}. Invalid second factor in an account currently locked", userEntity.getExternalId(), userEntity.getLoginCounter());
@@ -187,8 +269,12 @@ public class UserServices {
                 });
     }
 
-    @Transactional
     public Optional<User> activateNewOtpKey(String externalId, SecondFactorMethod secondFactor, int code) {
+        return invalidatingChangedSessions(changedSessions -> activateNewOtpKey(externalId, secondFactor, code, changedSessions));
+    }
+
+    @Transactional
+    Optional<User> activateNewOtpKey(String externalId, SecondFactorMethod secondFactor, int code, Set<String> changedSessions) {
         return userDao.findByExternalId(externalId)
                 .map(userEntity -> {
                     if (userEntity.isDisabled()) {
@@ -221,6 +307,7 @@ public class UserServices {
                     userEntity.setProvisionalOtpKeyCreatedAt(null);
                     userEntity.setUpdatedAt(now);
                     userDao.merge(userEntity);
+                    changedSessions.add(userEntity.getExternalId());
                     return Optional.of(linksBuilder.decorate(userEntity.toUser()));
                 }).orElseGet(() -> {
                     logger.error("Attempt to activate a new OTP key for a non-existent user {}", externalId);
@@ -228,8 +315,12 @@ public class UserServices {
                 });
     }
 
-    @Transactional
     public Optional<User> resetSecondFactor(String externalId) {
+        return invalidatingChangedSessions(changedSessions -> resetSecondFactor(externalId, changedSessions));
+    }
+
+    @Transactional
+    Optional<User> resetSecondFactor(String externalId, Set<String> changedSessions) {
         return userDao.findByExternalId(externalId).map(userEntity -> {
             if (userEntity.getSecondFactor().equals(SMS)) {
                 logger.info("Second factor method is already SMS, doing nothing");
@@ -241,13 +332,22 @@ public class UserServices {
             userEntity.setUpdatedAt(ZonedDateTime.now(ZoneId.of("UTC")));
             userEntity.setSecondFactor(SMS);
             userDao.merge(userEntity);
+            changedSessions.add(userEntity.getExternalId());
             
             return linksBuilder.decorate(userEntity.toUser());
         });
     }
 
+    /**
+     * Applies every operation, in order, to the user in a single transaction and merges it once, so either all of the
+     * operations take effect or none do.
+     */
+    public Optional<User> patchUser(String externalId, List<PatchRequest> patchRequests) {
+        return invalidatingChangedSessions(changedSessions -> patchUser(externalId, patchRequests, changedSessions));
+    }
+
     @Transactional
-    public Optional<User> patchUser(String externalId, PatchRequest patchRequest) {
+    Optional<User> patchUser(String externalId, List<PatchRequest> patchRequests, Set<String> changedSessions) {
 
         Optional<UserEntity> userOptional = userDao.findByExternalId(externalId);
 
@@ -256,19 +356,30 @@ public class UserServices {
         }
 
         UserEntity user = userOptional.get();
+        boolean sessionChanged = false;
+
+        for (PatchRequest patchRequest : patchRequests) {
+            if (PATH_SESSION_VERSION.equals(patchRequest.getPath())) {
+                incrementSessionVersion(user, parseInt(patchRequest.getValue()));
+                sessionChanged = true;
+            } else if (PATH_DISABLED.equals(patchRequest.getPath())) {
+                changeUserDisabled(user, parseBoolean(patchRequest.getValue()));
+                sessionChanged = true;
+            } else if (PATH_TELEPHONE_NUMBER.equals(patchRequest.getPath())) {
+                changeUserTelephoneNumber(user, patchRequest.getValue());
+            } else if (PATH_FEATURES.equals(patchRequest.getPath())) {
+                changeUserFeatures(user, patchRequest.getValue());
+            } else {
+                String error = format("Invalid patch request with path [%s]", patchRequest.getPath());
+                logger.error(error);
+                throw new RuntimeException(error);
+            }
+        }
 
-        if (PATH_SESSION_VERSION.equals(patchRequest.getPath())) {
-            incrementSessionVersion(user, parseInt(patchRequest.getValue()));
-        } else if (PATH_DISABLED.equals(patchRequest.getPath())) {
-            changeUserDisabled(user, parseBoolean(patchRequest.getValue()));
-        } else if (PATH_TELEPHONE_NUMBER.equals(patchRequest.getPath())) {
-            changeUserTelephoneNumber(user, patchRequest.getValue());
-        } else if (PATH_FEATURES.equals(patchRequest.getPath())) {
-            changeUserFeatures(user, patchRequest.getValue());
-        } else {
-            String error = format("Invalid patch request with path [%s]", patchRequest.getPath());
-            logger.error(error);
-            throw new RuntimeException(error);
+        user.setUpdatedAt(ZonedDateTime.now(ZoneId.of("UTC")));
+        userDao.merge(user);
+        if (sessionChanged) {
+            changedSessions.add(user.getExternalId());
         }
 
         return Optional.of(linksBuilder.decorate(user.toUser()));
@@ -276,27 +387,32 @@ public class UserServices {
 
     private void changeUserFeatures(UserEntity userEntity, String features) {
         userEntity.setFeatures(features);
-        userEntity.setUpdatedAt(ZonedDateTime.now(ZoneId.of("UTC")));
-        userDao.merge(userEntity);
     }
 
     private void changeUserTelephoneNumber(UserEntity userEntity, String telephoneNumber) {
         userEntity.setTelephoneNumber(TelephoneNumberUtility.formatToE164(telephoneNumber));
-        userEntity.setUpdatedAt(ZonedDateTime.now(ZoneId.of("UTC")));
-        userDao.merge(userEntity);
     }
 
     private void changeUserDisabled(UserEntity userEntity, Boolean value) {
         userEntity.setLoginCounter(0);
         userEntity.setDisabled(value);
-        userEntity.setUpdatedAt(ZonedDateTime.now(ZoneId.of("UTC")));
-        userDao.merge(userEntity);
     }
 
     private void incrementSessionVersion(UserEntity userEntity, Integer value) {
         userEntity.setSessionVersion(userEntity.getSessionVersion() + value);
-        userEntity.setUpdatedAt(ZonedDateTime.now(ZoneId.of("UTC")));
-        userDao.merge(userEntity);
+    }
+
+    /**
+     * Runs a change that collects the external ids of the users whose sessions it changed, and only evicts their
+     * cached sessions once it has returned. The change must be {@link Transactional} and called on {@code this}, so
+     * that Guice commits it before the eviction; evicting any earlier would let a concurrent lookup cache the session
+     * as it was before the commit.
+     */
+    private <T> T invalidatingChangedSessions(Function<Set<String>, T> change) {
+        Set<String> changedSessions = new HashSet<>();
+        T result = change.apply(changedSessions);
+        changedSessions.forEach(externalId -> userSessionCache.invalidate(externalId.toLowerCase()));
+        return result;
     }
 
 }
@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 
 import static java.lang.String.format;
 import static java.util.Collections.singletonList;
@@ -20,6 +21,9 @@ import static org.apache.commons.lang3.math.NumberUtils.isDigits;
 
 public class RequestValidations {
 
+    private static final String FIELD_PATH = "[a-z_][a-z0-9_]*(\\.[a-z_][a-z0-9_]*)*";
+    private static final Pattern FIELD_SELECTION = Pattern.compile(FIELD_PATH + "(," + FIELD_PATH + ")*");
+
     public Optional<List<String>> checkIsNumeric(JsonNode payload, String... fieldNames) {
         return applyCheck(payload, isNotNumeric(), fieldNames, "Field [%s] must be a number");
     }
@@ -56,6 +60,13 @@ public class RequestValidations {
         return applyCheck(payload, isNotValidTelephoneNumber(), fieldNames, "Field [%s] must be a valid telephone number");
     }
 
+    public Optional<List<String>> checkIsFieldSelection(String queryParameterName, String value) {
+        if (isBlank(value) || FIELD_SELECTION.matcher(value).matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(singletonList(format("Query parameter [%s] must be a comma separated list of field names, such as external_id,service_roles.service.external_id", queryParameterName)));
+    }
+
     private Function<JsonNode, Boolean> exceedsMaxLength(int maxLength) {
         return jsonNode -> jsonNode.asText().length() > maxLength;
     }
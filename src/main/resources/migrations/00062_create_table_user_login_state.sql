@@ -0,0 +1,14 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:create_table-user_login_state
+CREATE TABLE user_login_state (
+  user_id INT PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE,
+  login_counter INT NOT NULL DEFAULT 0,
+  last_logged_in_at TIMESTAMP WITH TIME ZONE,
+  updated_at TIMESTAMP WITH TIME ZONE,
+  version INT NOT NULL DEFAULT 0
+) WITH (fillfactor = 70);
+
+INSERT INTO user_login_state (user_id, login_counter, last_logged_in_at, updated_at)
+SELECT id, login_counter, last_logged_in_at, "updatedAt" FROM users;
+--rollback drop table user_login_state;
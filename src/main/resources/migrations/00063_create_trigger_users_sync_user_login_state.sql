@@ -0,0 +1,22 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:create_trigger-users_sync_user_login_state splitStatements:false
+CREATE OR REPLACE FUNCTION sync_user_login_state() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO user_login_state (user_id, login_counter, last_logged_in_at, updated_at)
+    VALUES (NEW.id, NEW.login_counter, NEW.last_logged_in_at, now())
+    ON CONFLICT (user_id) DO UPDATE
+        SET login_counter = EXCLUDED.login_counter,
+            last_logged_in_at = EXCLUDED.last_logged_in_at,
+            updated_at = EXCLUDED.updated_at,
+            version = user_login_state.version + 1;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER users_sync_user_login_state
+    AFTER UPDATE OF login_counter, last_logged_in_at ON users
+    FOR EACH ROW
+    WHEN (OLD.login_counter IS DISTINCT FROM NEW.login_counter OR OLD.last_logged_in_at IS DISTINCT FROM NEW.last_logged_in_at)
+    EXECUTE PROCEDURE sync_user_login_state();
+--rollback DROP TRIGGER users_sync_user_login_state ON users; DROP FUNCTION sync_user_login_state();
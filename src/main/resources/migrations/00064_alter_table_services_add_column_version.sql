@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:alter_table-services-add_column-version
+ALTER TABLE services ADD COLUMN version INT NOT NULL DEFAULT 0;
+--rollback ALTER TABLE services DROP COLUMN version;
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:create_index-invites-email-service_id-where-not-disabled
+CREATE INDEX invites_email_service_id_active_idx ON invites (email, service_id) WHERE disabled = false;
+--rollback DROP INDEX invites_email_service_id_active_idx;
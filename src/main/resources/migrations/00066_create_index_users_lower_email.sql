@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:create_index-users-lower_email
+CREATE INDEX users_lower_email_idx ON users (LOWER(email));
+--rollback DROP INDEX users_lower_email_idx;
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:create_index-invites-service_id-id-where-not-disabled
+CREATE INDEX invites_service_id_id_active_idx ON invites (service_id, id) WHERE disabled = false;
+--rollback DROP INDEX invites_service_id_id_active_idx;
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:create_index-forgotten_passwords-userId-date
+CREATE INDEX forgotten_passwords_user_id_date_idx ON forgotten_passwords ("userId", date DESC);
+--rollback DROP INDEX forgotten_passwords_user_id_date_idx;
@@ -0,0 +1,12 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:create_table-forgotten_password_emails
+CREATE TABLE forgotten_password_emails (
+  id SERIAL PRIMARY KEY,
+  forgotten_password_id INT NOT NULL REFERENCES forgotten_passwords (id) ON DELETE CASCADE,
+  user_id INT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+  sent_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+CREATE INDEX forgotten_password_emails_user_id_sent_at_idx ON forgotten_password_emails (user_id, sent_at DESC);
+CREATE INDEX forgotten_password_emails_forgotten_password_id_idx ON forgotten_password_emails (forgotten_password_id);
+--rollback drop table forgotten_password_emails;
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:create_index-users-lower_external_id
+CREATE INDEX users_lower_external_id_idx ON users (LOWER(external_id));
+--rollback DROP INDEX users_lower_external_id_idx;
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset uk.gov.pay:create_index-invites-lower_email-service_id-where-not-disabled
+CREATE INDEX invites_lower_email_service_id_active_idx ON invites (LOWER(email), service_id) WHERE disabled = false;
+--rollback DROP INDEX invites_lower_email_service_id_active_idx;
@@ -0,0 +1,183 @@
+package uk.gov.pay.adminusers.filters;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.db.DataSourceFactory;
+import io.dropwizard.setup.Environment;
+import io.dropwizard.util.Duration;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import uk.gov.pay.adminusers.app.config.AdminUsersConfig;
+import uk.gov.pay.adminusers.app.config.BulkheadConfiguration;
+import uk.gov.pay.adminusers.app.config.BulkheadsConfiguration;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BulkheadFilterTest {
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final BulkheadConfiguration login = mock(BulkheadConfiguration.class);
+    private final BulkheadConfiguration admin = mock(BulkheadConfiguration.class);
+    private final BulkheadConfiguration email = mock(BulkheadConfiguration.class);
+    private final DataSourceFactory dataSourceFactory = new DataSourceFactory();
+
+    @Before
+    public void before() {
+        for (BulkheadConfiguration configuration : new BulkheadConfiguration[]{login, admin, email}) {
+            when(configuration.getMaxConcurrentRequests()).thenReturn(Optional.of(1));
+            when(configuration.getMaxQueued()).thenReturn(Optional.of(0));
+            when(configuration.getMaxWait()).thenReturn(Duration.milliseconds(10));
+        }
+    }
+
+    @Test
+    public void shouldPutAuthenticationAndSecondFactorRequestsInTheLoginBulkhead() {
+        assertThat(groupOf("/v1/api/users/authenticate"), is("login"));
+        assertThat(groupOf("v1/api/users/7d19aff33f8948deb97ed16b2912dcd3/second-factor/authenticate"), is("login"));
+        assertThat(groupOf("/v1/api/users/7d19aff33f8948deb97ed16b2912dcd3/second-factor/provision"), is("login"));
+    }
+
+    @Test
+    public void shouldPutEmailRequestsInTheEmailBulkhead() {
+        assertThat(groupOf("/v1/emails/send"), is("email"));
+    }
+
+    @Test
+    public void shouldPutEveryOtherApiRequestInTheAdminBulkhead() {
+        assertThat(groupOf("/v1/api/users/7d19aff33f8948deb97ed16b2912dcd3"), is("admin"));
+        assertThat(groupOf("/v1/api/services/a-service/users"), is("admin"));
+        assertThat(groupOf("/v1/api/invites/user"), is("admin"));
+    }
+
+    @Test
+    public void shouldNotLimitRequestsOutsideTheApi() {
+        assertThat(groupOf("/healthcheck"), is("none"));
+        assertThat(groupOf("/v1/frontend/something"), is("none"));
+    }
+
+    @Test
+    public void shouldReleaseThePermit_whenTheResourceFailed() {
+        BulkheadFilter bulkheadFilter = bulkheadFilter();
+        ContainerRequestContext requestContext = requestTo("/v1/api/users/authenticate");
+        bulkheadFilter.filter(requestContext);
+        assertThat(activeCount("login"), is(1));
+
+        ContainerResponseContext responseContext = mock(ContainerResponseContext.class);
+        when(responseContext.getStatus()).thenReturn(500);
+        bulkheadFilter.filter(requestContext, responseContext);
+
+        assertThat(activeCount("login"), is(0));
+    }
+
+    @Test
+    public void shouldReleaseThePermitOnlyOnce_whenTheResponseIsFilteredAgain() {
+        BulkheadFilter bulkheadFilter = bulkheadFilter();
+        ContainerRequestContext requestContext = requestTo("/v1/api/users/authenticate");
+        bulkheadFilter.filter(requestContext);
+
+        bulkheadFilter.filter(requestContext, mock(ContainerResponseContext.class));
+        bulkheadFilter.filter(requestContext, mock(ContainerResponseContext.class));
+
+        assertThat(activeCount("login"), is(0));
+    }
+
+    @Test
+    public void shouldRejectWith503_andNotReleaseAPermit_whenTimedOutWaitingForOne() {
+        BulkheadFilter bulkheadFilter = bulkheadFilter();
+        bulkheadFilter.filter(requestTo("/v1/api/services/a-service"));
+
+        ContainerRequestContext rejectedRequest = requestTo("/v1/api/services/another-service");
+        bulkheadFilter.filter(rejectedRequest);
+        bulkheadFilter.filter(rejectedRequest, mock(ContainerResponseContext.class));
+
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(rejectedRequest).abortWith(response.capture());
+        assertThat(response.getValue().getStatus(), is(503));
+        assertThat(activeCount("admin"), is(1));
+        assertThat(metricRegistry.meter("bulkhead.admin.rejected").getCount(), is(1L));
+    }
+
+    @Test
+    public void shouldDeriveTheLimit_fromTheDatabaseConnectionPool_whenNotConfigured() {
+        when(admin.getMaxConcurrentRequests()).thenReturn(Optional.empty());
+        dataSourceFactory.setMaxSize(2);
+        BulkheadFilter bulkheadFilter = bulkheadFilter();
+
+        for (int i = 0; i < 4; i++) {
+            ContainerRequestContext requestContext = requestTo("/v1/api/services/a-service");
+            bulkheadFilter.filter(requestContext);
+            verify(requestContext, never()).abortWith(any());
+        }
+        ContainerRequestContext rejectedRequest = requestTo("/v1/api/services/a-service");
+        bulkheadFilter.filter(rejectedRequest);
+
+        verify(rejectedRequest).abortWith(any());
+        assertThat(activeCount("admin"), is(4));
+    }
+
+    private String groupOf(String path) {
+        MetricRegistry registry = new MetricRegistry();
+        new BulkheadFilter(config(), environment(registry)).filter(requestTo(path));
+        for (String group : new String[]{"login", "admin", "email"}) {
+            if (registry.getGauges().get("bulkhead." + group + ".active").getValue().equals(1)) {
+                return group;
+            }
+        }
+        return "none";
+    }
+
+    private int activeCount(String group) {
+        return (Integer) metricRegistry.getGauges().get("bulkhead." + group + ".active").getValue();
+    }
+
+    private BulkheadFilter bulkheadFilter() {
+        return new BulkheadFilter(config(), environment(metricRegistry));
+    }
+
+    private AdminUsersConfig config() {
+        BulkheadsConfiguration bulkheadsConfiguration = mock(BulkheadsConfiguration.class);
+        when(bulkheadsConfiguration.getLogin()).thenReturn(login);
+        when(bulkheadsConfiguration.getAdmin()).thenReturn(admin);
+        when(bulkheadsConfiguration.getEmail()).thenReturn(email);
+        AdminUsersConfig configuration = mock(AdminUsersConfig.class);
+        when(configuration.getBulkheadsConfiguration()).thenReturn(bulkheadsConfiguration);
+        when(configuration.getDataSourceFactory()).thenReturn(dataSourceFactory);
+        return configuration;
+    }
+
+    private static Environment environment(MetricRegistry metricRegistry) {
+        Environment environment = mock(Environment.class);
+        when(environment.metrics()).thenReturn(metricRegistry);
+        return environment;
+    }
+
+    private static ContainerRequestContext requestTo(String path) {
+        UriInfo uriInfo = mock(UriInfo.class);
+        when(uriInfo.getPath()).thenReturn(path);
+        ContainerRequestContext requestContext = mock(ContainerRequestContext.class);
+        when(requestContext.getUriInfo()).thenReturn(uriInfo);
+        Map<String, Object> properties = new HashMap<>();
+        doAnswer(invocation -> properties.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(requestContext).setProperty(anyString(), any());
+        when(requestContext.getProperty(anyString())).thenAnswer(invocation -> properties.get(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> properties.remove(invocation.<String>getArgument(0)))
+                .when(requestContext).removeProperty(anyString());
+        return requestContext;
+    }
+}
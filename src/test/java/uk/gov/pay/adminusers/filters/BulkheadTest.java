@@ -0,0 +1,92 @@
+package uk.gov.pay.adminusers.filters;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.Duration;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class BulkheadTest {
+
+    private MetricRegistry metricRegistry;
+    private Bulkhead bulkhead;
+
+    @Before
+    public void before() {
+        metricRegistry = new MetricRegistry();
+        bulkhead = new Bulkhead("login", 2, 1, Duration.milliseconds(10), metricRegistry);
+    }
+
+    @Test
+    public void shouldAllowRequestsUpToTheLimit() throws Exception {
+        assertThat(bulkhead.tryEnter(), is(true));
+        assertThat(bulkhead.tryEnter(), is(true));
+
+        assertThat(bulkhead.getActiveCount(), is(2));
+        assertThat(metricRegistry.getGauges().get("bulkhead.login.active").getValue(), is(2));
+    }
+
+    @Test
+    public void shouldRejectRequestsOverTheLimit() throws Exception {
+        bulkhead.tryEnter();
+        bulkhead.tryEnter();
+
+        assertThat(bulkhead.tryEnter(), is(false));
+        assertThat(metricRegistry.meter("bulkhead.login.rejected").getCount(), is(1L));
+    }
+
+    @Test
+    public void shouldAllowRequestAgainOnceAnotherHasExited() throws Exception {
+        bulkhead.tryEnter();
+        bulkhead.tryEnter();
+        bulkhead.exit();
+
+        assertThat(bulkhead.tryEnter(), is(true));
+        assertThat(bulkhead.getActiveCount(), is(2));
+    }
+
+    @Test
+    public void shouldReportNoQueuedRequestsWhenNoneAreWaiting() {
+        Gauge<?> queued = metricRegistry.getGauges().get("bulkhead.login.queued");
+
+        assertThat(queued.getValue(), is(0));
+    }
+
+    @Test
+    public void shouldRejectRequestsStraightAway_onceTooManyAreWaiting() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("admin", 1, 1, Duration.seconds(30), metricRegistry);
+        bulkhead.tryEnter();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> waitingRequest = executorService.submit(bulkhead::tryEnter);
+            waitUntil(() -> bulkhead.getQueuedCount() == 1);
+
+            long startedAt = System.nanoTime();
+            assertThat(bulkhead.tryEnter(), is(false));
+            assertThat(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(10), is(true));
+
+            bulkhead.exit();
+            assertThat(waitingRequest.get(10, TimeUnit.SECONDS), is(true));
+            assertThat(bulkhead.getQueuedCount(), is(0));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean(), is(true));
+    }
+}
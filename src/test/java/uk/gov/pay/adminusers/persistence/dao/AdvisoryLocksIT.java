@@ -0,0 +1,40 @@
+package uk.gov.pay.adminusers.persistence.dao;
+
+import io.dropwizard.db.DataSourceFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class AdvisoryLocksIT extends DaoTestBase {
+
+    private static final long KEY = 42L;
+
+    private AdvisoryLocks advisoryLocks;
+
+    @Before
+    public void before() {
+        DataSourceFactory dataSourceFactory = new DataSourceFactory();
+        dataSourceFactory.setUrl(postgres.getConnectionUrl());
+        dataSourceFactory.setUser(postgres.getUsername());
+        dataSourceFactory.setPassword(postgres.getPassword());
+        advisoryLocks = new AdvisoryLocks(dataSourceFactory);
+    }
+
+    @Test
+    public void shouldNotTakeTheLock_whileAnotherSessionHoldsIt_andTakeItOnceReleased() throws Exception {
+        Optional<AdvisoryLocks.HeldLock> first = advisoryLocks.tryLock(KEY);
+        assertThat(first.isPresent(), is(true));
+
+        assertThat(advisoryLocks.tryLock(KEY).isPresent(), is(false));
+
+        first.get().close();
+
+        Optional<AdvisoryLocks.HeldLock> second = advisoryLocks.tryLock(KEY);
+        assertThat(second.isPresent(), is(true));
+        second.get().close();
+    }
+}
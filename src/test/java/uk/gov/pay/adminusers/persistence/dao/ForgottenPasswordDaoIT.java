@@ -13,8 +13,10 @@ import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static java.time.temporal.ChronoUnit.MINUTES;
+import static java.util.stream.Collectors.toList;
 import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 import static org.apache.commons.lang3.RandomStringUtils.random;
@@ -124,4 +126,60 @@ public class ForgottenPasswordDaoIT extends DaoTestBase {
 
         assertThat(forgottenPasswordDao.findNonExpiredByCode(forgottenPassword.getCode()).isPresent(), is(false));
     }
+
+    @Test
+    public void deleteCreatedBefore_shouldDeleteOldForgottenPasswordsInBatchesInIdOrder() {
+        User user = userDbFixture(databaseHelper).insertUser();
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
+        List<Integer> oldIds = Stream.of(randomInt(), randomInt()).sorted().collect(toList());
+        int recentId = randomInt();
+
+        oldIds.forEach(id -> databaseHelper.add(forgottenPassword(id, randomUuid(), now.minusDays(31), user.getExternalId()), user.getId()));
+        databaseHelper.add(forgottenPassword(recentId, randomUuid(), now.minusDays(29), user.getExternalId()), user.getId());
+
+        ZonedDateTime cutoff = now.minusDays(30);
+        assertThat(forgottenPasswordDao.deleteCreatedBefore(cutoff, 0, 1), is(List.of(oldIds.get(0))));
+        assertThat(forgottenPasswordDao.deleteCreatedBefore(cutoff, oldIds.get(0), 1), is(List.of(oldIds.get(1))));
+        assertThat(forgottenPasswordDao.deleteCreatedBefore(cutoff, oldIds.get(1), 1).isEmpty(), is(true));
+
+        assertThat(databaseHelper.findForgottenPasswordById(oldIds.get(0)).isEmpty(), is(true));
+        assertThat(databaseHelper.findForgottenPasswordById(recentId).size(), is(1));
+    }
+
+    @Test
+    public void shouldFindLatestForgottenPassword_createdForUserSinceGivenTime() {
+        User user = userDbFixture(databaseHelper).insertUser();
+        User otherUser = userDbFixture(databaseHelper).insertUser();
+        UserEntity userEntity = userDao.findByExternalId(user.getExternalId()).get();
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
+        String latestCode = randomUuid();
+
+        databaseHelper.add(forgottenPassword(randomInt(), randomUuid(), now.minusMinutes(70), user.getExternalId()), user.getId());
+        databaseHelper.add(forgottenPassword(randomInt(), randomUuid(), now.minusMinutes(20), user.getExternalId()), user.getId());
+        databaseHelper.add(forgottenPassword(randomInt(), latestCode, now.minusMinutes(10), user.getExternalId()), user.getId());
+        databaseHelper.add(forgottenPassword(randomInt(), randomUuid(), now.minusMinutes(5), otherUser.getExternalId()), otherUser.getId());
+
+        Optional<ForgottenPasswordEntity> latest = forgottenPasswordDao.findLatestByUserCreatedSince(userEntity, now.minusMinutes(15));
+        assertThat(latest.map(ForgottenPasswordEntity::getCode), is(Optional.of(latestCode)));
+        assertThat(forgottenPasswordDao.findLatestByUserCreatedSince(userEntity, now.minusMinutes(5)).isPresent(), is(false));
+    }
+
+    @Test
+    public void shouldCountEmailsSentToUser_sinceGivenTime_includingEachResendOfACode() {
+        UserEntity userEntity = userDao.findByExternalId(userDbFixture(databaseHelper).insertUser().getExternalId()).get();
+        UserEntity otherUserEntity = userDao.findByExternalId(userDbFixture(databaseHelper).insertUser().getExternalId()).get();
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
+        ForgottenPasswordEntity oldCode = new ForgottenPasswordEntity(randomUuid(), now.minusMinutes(70), userEntity);
+        ForgottenPasswordEntity recentCode = new ForgottenPasswordEntity(randomUuid(), now.minusMinutes(10), userEntity);
+        ForgottenPasswordEntity otherUsersCode = new ForgottenPasswordEntity(randomUuid(), now.minusMinutes(10), otherUserEntity);
+        Stream.of(oldCode, recentCode, otherUsersCode).forEach(forgottenPasswordDao::persist);
+
+        forgottenPasswordDao.recordEmailSent(oldCode, now.minusMinutes(70));
+        forgottenPasswordDao.recordEmailSent(recentCode, now.minusMinutes(10));
+        forgottenPasswordDao.recordEmailSent(recentCode, now.minusMinutes(5));
+        forgottenPasswordDao.recordEmailSent(otherUsersCode, now.minusMinutes(5));
+
+        assertThat(forgottenPasswordDao.countEmailsSentToUserSince(userEntity, now.minusHours(1)), is(2L));
+        assertThat(forgottenPasswordDao.countEmailsSentToUserSince(otherUserEntity, now.minusHours(1)), is(1L));
+    }
 }
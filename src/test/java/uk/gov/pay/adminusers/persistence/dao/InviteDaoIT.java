@@ -2,19 +2,30 @@ package uk.gov.pay.adminusers.persistence.dao;
 
 import org.junit.Before;
 import org.junit.Test;
+import uk.gov.pay.adminusers.model.InviteSearchParams;
+import uk.gov.pay.adminusers.model.InviteSummary;
 import uk.gov.pay.adminusers.model.Role;
+import uk.gov.pay.adminusers.model.Service;
 import uk.gov.pay.adminusers.model.User;
 import uk.gov.pay.adminusers.persistence.entity.InviteEntity;
 import uk.gov.pay.adminusers.persistence.entity.RoleEntity;
 import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
 import uk.gov.pay.adminusers.persistence.entity.UserEntity;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import static java.sql.Timestamp.from;
+import static java.time.format.DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+import static java.util.stream.IntStream.range;
 import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
+import static org.apache.commons.lang3.RandomUtils.nextInt;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNull.notNullValue;
@@ -24,6 +35,8 @@ import static uk.gov.pay.adminusers.fixtures.InviteDbFixture.inviteDbFixture;
 import static uk.gov.pay.adminusers.fixtures.RoleDbFixture.roleDbFixture;
 import static uk.gov.pay.adminusers.fixtures.ServiceDbFixture.serviceDbFixture;
 import static uk.gov.pay.adminusers.fixtures.UserDbFixture.userDbFixture;
+import static uk.gov.pay.adminusers.persistence.dao.StatementCounter.captureStatements;
+import static uk.gov.pay.adminusers.persistence.dao.StatementCounter.countStatements;
 
 public class InviteDaoIT extends DaoTestBase {
 
@@ -109,4 +122,193 @@ public class InviteDaoIT extends DaoTestBase {
         
         assertThat(invites.size(), is(1));
     }
+
+    @Test
+    public void findAllByServiceId_shouldLoadInvitesFromDifferentSenders_inTheSameNumberOfStatements() {
+        Service service = serviceDbFixture(databaseHelper).withGatewayAccountIds(randomUuid()).insertService();
+        int roleId = roleDbFixture(databaseHelper).insertRole().getId();
+
+        addInvitesFromNewSenders(service.getId(), roleId, 1);
+        int statementsForOneInvite = countStatements(env, () -> inviteDao.findAllByServiceId(service.getExternalId()));
+
+        addInvitesFromNewSenders(service.getId(), roleId, 4);
+        int statementsForMoreInvites = countStatements(env, () -> inviteDao.findAllByServiceId(service.getExternalId()));
+
+        assertThat(statementsForMoreInvites, is(statementsForOneInvite));
+    }
+
+    @Test
+    public void findActiveByServiceId_shouldOnlyFindInvitesThatAreNeitherDisabledNorExpired() {
+        Service service = serviceDbFixture(databaseHelper).insertService();
+        int roleId = roleDbFixture(databaseHelper).insertRole().getId();
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
+
+        String activeInviteEmail = addInviteFromNewSender(service.getId(), roleId, false, now.plusDays(1));
+        addInviteFromNewSender(service.getId(), roleId, true, now.plusDays(1));
+        addInviteFromNewSender(service.getId(), roleId, false, now.minusMinutes(1));
+
+        List<InviteEntity> invites = inviteDao.findActiveByServiceId(service.getExternalId(), InviteSearchParams.none());
+
+        assertThat(invites.size(), is(1));
+        assertThat(invites.get(0).getEmail(), is(activeInviteEmail));
+    }
+
+    @Test
+    public void findActiveByServiceId_shouldFilterByRoleSenderAndExpiryWindow() {
+        Service service = serviceDbFixture(databaseHelper).insertService();
+        Role role = roleDbFixture(databaseHelper).insertRole();
+        int otherRoleId = roleDbFixture(databaseHelper).insertRole().getId();
+        User sender = userDbFixture(databaseHelper).insertUser();
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
+
+        String matchingEmail = addInvite(sender.getId(), service.getId(), role.getId(), now.plusDays(1));
+        addInvite(sender.getId(), service.getId(), otherRoleId, now.plusDays(1));
+        addInviteFromNewSender(service.getId(), role.getId(), false, now.plusDays(1));
+        addInvite(sender.getId(), service.getId(), role.getId(), now.plusDays(5));
+
+        InviteSearchParams searchParams = InviteSearchParams.from("user", role.getName(), sender.getExternalId(),
+                now.format(ISO_OFFSET_DATE_TIME), now.plusDays(2).format(ISO_OFFSET_DATE_TIME), null, null);
+        List<InviteEntity> invites = inviteDao.findActiveByServiceId(service.getExternalId(), searchParams);
+
+        assertThat(invites.size(), is(1));
+        assertThat(invites.get(0).getEmail(), is(matchingEmail));
+    }
+
+    @Test
+    public void findActiveSummariesByServiceId_shouldPageThroughThousandsOfInvites_inOneStatementPerPage() {
+        Service service = serviceDbFixture(databaseHelper).insertService();
+        int roleId = roleDbFixture(databaseHelper).insertRole().getId();
+        User sender = userDbFixture(databaseHelper).insertUser();
+        ZonedDateTime expiryDate = ZonedDateTime.now(ZoneId.of("UTC")).plusDays(1);
+        int firstId = nextInt(1, Integer.MAX_VALUE - 2000);
+        range(0, 2000).forEach(i -> addInvite(firstId + i, sender.getId(), service.getId(), roleId, expiryDate));
+
+        int invitesSeen = 0;
+        int pages = 0;
+        String afterId = null;
+        do {
+            List<InviteSummary> page = inviteDao.findActiveSummariesByServiceId(service.getExternalId(),
+                    InviteSearchParams.from(null, null, null, null, null, afterId, "500"));
+            pages++;
+            invitesSeen += Math.min(page.size(), 500);
+            afterId = page.size() > 500 ? String.valueOf(page.get(499).getId()) : null;
+        } while (afterId != null);
+
+        assertThat(invitesSeen, is(2000));
+        assertThat(pages, is(4));
+
+        InviteSearchParams firstPage = InviteSearchParams.from(null, null, null, null, null, null, "500");
+        int statementsForSummaries = countStatements(env, () -> inviteDao.findActiveSummariesByServiceId(service.getExternalId(), firstPage));
+        int statementsForInvites = countStatements(env, () -> inviteDao.findActiveByServiceId(service.getExternalId(), firstPage));
+
+        assertThat(statementsForSummaries, is(1));
+        assertThat(statementsForInvites > statementsForSummaries, is(true));
+    }
+
+    @Test
+    public void findActiveByEmailAndServiceId_shouldOnlyFindAnActiveInviteToTheSameService() {
+        Service service = serviceDbFixture(databaseHelper).insertService();
+        Service anotherService = serviceDbFixture(databaseHelper).insertService();
+        int roleId = roleDbFixture(databaseHelper).insertRole().getId();
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
+        String email = randomUuid() + "@example.com";
+
+        addInviteFromNewSender(service.getId(), roleId, email, true, now.plusDays(1));
+        addInviteFromNewSender(service.getId(), roleId, email, false, now.minusMinutes(1));
+        addInviteFromNewSender(anotherService.getId(), roleId, email, false, now.plusDays(1));
+
+        assertThat(inviteDao.findActiveByEmailAndServiceId(email, service.getExternalId()).isPresent(), is(false));
+
+        addInviteFromNewSender(service.getId(), roleId, email, false, now.plusDays(1));
+
+        Optional<InviteEntity> invite = inviteDao.findActiveByEmailAndServiceId(email, service.getExternalId());
+
+        assertThat(invite.isPresent(), is(true));
+        assertThat(invite.get().getService().getExternalId(), is(service.getExternalId()));
+        assertThat(invite.get().isDisabled(), is(false));
+        assertThat(invite.get().isExpired(), is(false));
+    }
+
+    @Test
+    public void findActiveByEmailsAndServiceId_shouldFindAnInviteStoredWithAMixedCaseAddress() {
+        Service service = serviceDbFixture(databaseHelper).insertService();
+        int roleId = roleDbFixture(databaseHelper).insertRole().getId();
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
+        String localPart = randomUuid();
+
+        addInviteFromNewSender(service.getId(), roleId, localPart + "@Example.COM", false, now.plusDays(1));
+
+        List<InviteEntity> invites = inviteDao.findActiveByEmailsAndServiceId(List.of(localPart + "@example.com"), service.getExternalId());
+
+        assertThat(invites.size(), is(1));
+        assertThat(invites.get(0).getEmail(), is(localPart + "@Example.COM"));
+    }
+
+    @Test
+    public void findByIdForUpdate_shouldLoadTheInviteAndLockItsRow_inOneStatement() {
+        Service service = serviceDbFixture(databaseHelper).insertService();
+        int roleId = roleDbFixture(databaseHelper).insertRole().getId();
+        String email = addInviteFromNewSender(service.getId(), roleId, false, ZonedDateTime.now(ZoneId.of("UTC")).plusDays(1));
+        Integer inviteId = inviteDao.findByEmail(email).get(0).getId();
+
+        List<Optional<InviteEntity>> result = new ArrayList<>();
+        List<String> statements = captureStatements(env, () -> inTransaction(() -> result.add(inviteDao.findByIdForUpdate(inviteId))));
+
+        assertThat(result.get(0).get().getEmail(), is(email));
+        assertThat(statements.stream().filter(statement -> statement.startsWith("SELECT") && statement.contains("FROM invites")).count(), is(1L));
+        assertThat(statements.stream().anyMatch(statement -> statement.contains("FROM invites") && statement.contains("FOR UPDATE")), is(true));
+    }
+
+    @Test
+    public void deleteExpiredBefore_shouldOnlyDeleteInvitesThatExpiredBeforeTheCutoff() {
+        Service service = serviceDbFixture(databaseHelper).insertService();
+        int roleId = roleDbFixture(databaseHelper).insertRole().getId();
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
+
+        String longExpiredInviteEmail = addInviteFromNewSender(service.getId(), roleId, true, now.minusDays(31));
+        String recentlyExpiredInviteEmail = addInviteFromNewSender(service.getId(), roleId, false, now.minusDays(29));
+        int longExpiredInviteId = inviteDao.findByEmail(longExpiredInviteEmail).get(0).getId();
+
+        List<Integer> deletedIds = inviteDao.deleteExpiredBefore(now.minusDays(30), 0, 1000);
+
+        assertThat(deletedIds.contains(longExpiredInviteId), is(true));
+        assertThat(inviteDao.findByEmail(longExpiredInviteEmail).isEmpty(), is(true));
+        assertThat(inviteDao.findByEmail(recentlyExpiredInviteEmail).size(), is(1));
+    }
+
+    private void addInvitesFromNewSenders(int serviceId, int roleId, int numberOfInvites) {
+        ZonedDateTime expiryDate = ZonedDateTime.now(ZoneId.of("UTC")).plusDays(1);
+        range(0, numberOfInvites).forEach(i -> addInviteFromNewSender(serviceId, roleId, false, expiryDate));
+    }
+
+    private String addInvite(int senderId, int serviceId, int roleId, ZonedDateTime expiryDate) {
+        return addInvite(nextInt(), senderId, serviceId, roleId, expiryDate);
+    }
+
+    private String addInvite(int id, int senderId, int serviceId, int roleId, ZonedDateTime expiryDate) {
+        String email = randomUuid() + "@example.com";
+        databaseHelper.addInvite(id, senderId, serviceId, roleId,
+                email, randomAlphanumeric(100), randomAlphanumeric(100),
+                ZonedDateTime.now(ZoneId.of("UTC")), expiryDate, null, null, false, 0);
+        return email;
+    }
+
+    private String addInviteFromNewSender(int serviceId, int roleId, boolean disabled, ZonedDateTime expiryDate) {
+        return addInviteFromNewSender(serviceId, roleId, randomUuid() + "@example.com", disabled, expiryDate);
+    }
+
+    private String addInviteFromNewSender(int serviceId, int roleId, String email, boolean disabled, ZonedDateTime expiryDate) {
+        int senderId = userDbFixture(databaseHelper).insertUser().getId();
+        databaseHelper.addInvite(nextInt(), senderId, serviceId, roleId,
+                email, randomAlphanumeric(100), randomAlphanumeric(100),
+                ZonedDateTime.now(ZoneId.of("UTC")), expiryDate, null, null, disabled, 0);
+        return email;
+    }
+
+    private void inTransaction(Runnable work) {
+        EntityTransaction transaction = env.getInstance(EntityManager.class).getTransaction();
+        transaction.begin();
+        work.run();
+        transaction.commit();
+    }
 }
@@ -12,6 +12,7 @@ import uk.gov.pay.adminusers.model.Permission;
 import uk.gov.pay.adminusers.model.Role;
 import uk.gov.pay.adminusers.model.Service;
 import uk.gov.pay.adminusers.model.ServiceName;
+import uk.gov.pay.adminusers.model.ServiceUpdateRequest;
 import uk.gov.pay.adminusers.model.User;
 import uk.gov.pay.adminusers.persistence.entity.CustomBrandingConverter;
 import uk.gov.pay.adminusers.persistence.entity.GatewayAccountIdEntity;
@@ -20,8 +21,14 @@ import uk.gov.pay.adminusers.persistence.entity.MerchantDetailsEntityBuilder;
 import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
 import uk.gov.pay.adminusers.persistence.entity.ServiceEntityBuilder;
 import uk.gov.pay.adminusers.persistence.entity.service.ServiceNameEntity;
+import uk.gov.pay.adminusers.service.EmailService;
+import uk.gov.pay.adminusers.service.ServiceUpdater;
 import uk.gov.pay.commons.model.SupportedLanguage;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -30,16 +37,24 @@ import java.util.Optional;
 import java.util.Set;
 
 import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.IntStream.range;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
 import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomInt;
 import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomUuid;
+import static uk.gov.pay.adminusers.fixtures.ServiceDbFixture.serviceDbFixture;
 import static uk.gov.pay.adminusers.model.Role.role;
+import static uk.gov.pay.adminusers.persistence.dao.StatementCounter.captureStatements;
+import static uk.gov.pay.adminusers.persistence.dao.StatementCounter.countStatements;
 
 public class ServiceDaoIT extends DaoTestBase {
 
@@ -112,7 +127,7 @@ public class ServiceDaoIT extends DaoTestBase {
 
         assertThat(savedService.size(), is(1));
         assertThat(savedService.get(0).get("external_id"), is(thisServiceEntity.getExternalId()));
-        Map<String, Object> storedBranding = new CustomBrandingConverter().convertToEntityAttribute((PGobject) savedService.get(0).get("custom_branding"));
+        Map<String, Object> storedBranding = CustomBrandingConverter.fromJson(new CustomBrandingConverter().convertToEntityAttribute((PGobject) savedService.get(0).get("custom_branding")));
         assertNull(storedBranding);
 
         List<Map<String, Object>> savedServiceName = databaseHelper.findServiceNameByServiceId(thisServiceEntity.getId());
@@ -170,6 +185,16 @@ public class ServiceDaoIT extends DaoTestBase {
         assertCustomBranding(thatServiceEntity);
     }
 
+    @Test
+    public void shouldFindVersionByServiceExternalId() {
+        ServiceEntity thisServiceEntity = ServiceEntityBuilder.aServiceEntity().build();
+
+        databaseHelper.insertServiceEntity(thisServiceEntity);
+
+        assertThat(serviceDao.findVersionByExternalId(thisServiceEntity.getExternalId()), is(Optional.of(0L)));
+        assertThat(serviceDao.findVersionByExternalId(randomUuid()), is(Optional.empty()));
+    }
+
     @Test
     public void shouldFindByServiceExternalIdAndRedirectTrue() {
 
@@ -268,6 +293,98 @@ public class ServiceDaoIT extends DaoTestBase {
         assertThat(optionalService.get().getCurrentGoLiveStage(), is(GoLiveStage.CHOSEN_PSP_STRIPE));
     }
 
+
+    @Test
+    public void shouldListAllServices_inTheSameNumberOfStatements_howeverManyServicesThereAre() {
+        range(0, 2).forEach(i -> serviceDbFixture(databaseHelper).withGatewayAccountIds(randomUuid(), randomUuid()).insertService());
+        int statementsForFewServices = countStatements(env, () -> serviceDao.listAll());
+
+        range(0, 5).forEach(i -> serviceDbFixture(databaseHelper).withGatewayAccountIds(randomUuid(), randomUuid()).insertService());
+        int statementsForMoreServices = countStatements(env, () -> serviceDao.listAll());
+
+        assertThat(statementsForMoreServices, is(statementsForFewServices));
+    }
+
+    @Test
+    public void shouldFindExactlyTheGatewayAccountIdsInUse() {
+        String takenGatewayAccountId = randomUuid();
+        String takenGatewayAccountIdWithSpecialCharacters = "{taken},\"id\\'" + randomUuid();
+        serviceDbFixture(databaseHelper).withGatewayAccountIds(takenGatewayAccountId, takenGatewayAccountIdWithSpecialCharacters).insertService();
+
+        List<String> gatewayAccountIdsInUse = serviceDao.findGatewayAccountIdsInUse(
+                List.of(randomUuid(), takenGatewayAccountId, "taken", takenGatewayAccountIdWithSpecialCharacters));
+
+        assertThat(gatewayAccountIdsInUse, containsInAnyOrder(takenGatewayAccountId, takenGatewayAccountIdWithSpecialCharacters));
+    }
+
+    @Test
+    public void shouldIgnoreNullGatewayAccountIds_whenFindingThoseInUse() {
+        String takenGatewayAccountId = randomUuid();
+        serviceDbFixture(databaseHelper).withGatewayAccountIds(takenGatewayAccountId).insertService();
+
+        List<String> gatewayAccountIdsInUse = serviceDao.findGatewayAccountIdsInUse(Arrays.asList(null, takenGatewayAccountId, "NULL"));
+
+        assertThat(gatewayAccountIdsInUse, containsInAnyOrder(takenGatewayAccountId));
+    }
+
+    @Test
+    public void shouldFindGatewayAccountIdsInUse_inOneStatement_forHundredsOfIds() {
+        List<String> takenGatewayAccountIds = range(0, 200).mapToObj(i -> randomUuid()).collect(toList());
+        serviceDbFixture(databaseHelper).withGatewayAccountIds(takenGatewayAccountIds.toArray(new String[0])).insertService();
+        List<String> requestedGatewayAccountIds = new ArrayList<>(takenGatewayAccountIds.subList(0, 100));
+        range(0, 400).forEach(i -> requestedGatewayAccountIds.add(randomUuid()));
+
+        List<List<String>> result = new ArrayList<>();
+        int statements = countStatements(env, () -> result.add(serviceDao.findGatewayAccountIdsInUse(requestedGatewayAccountIds)));
+
+        assertThat(statements, is(1));
+        assertThat(result.get(0), containsInAnyOrder(takenGatewayAccountIds.subList(0, 100).toArray()));
+    }
+
+    @Test
+    public void shouldWritePatchedServiceOnce_withOnlyTheChangedColumns_howeverManyOperationsThereAre() {
+        Service service = serviceDbFixture(databaseHelper).withGatewayAccountIds(randomUuid()).insertService();
+        ServiceUpdater serviceUpdater = new ServiceUpdater(serviceDao, mock(EmailService.class));
+
+        List<String> statementsForOneOperation = captureStatements(env, () -> inTransaction(() ->
+                serviceUpdater.doUpdate(service.getExternalId(), List.of(
+                        gatewayAccountIdsUpdateRequest(randomUuid(), randomUuid())))));
+
+        List<String> statementsForSeveralOperations = captureStatements(env, () -> inTransaction(() ->
+                serviceUpdater.doUpdate(service.getExternalId(), List.of(
+                        gatewayAccountIdsUpdateRequest(randomUuid()),
+                        serviceUpdateRequest("replace", "redirect_to_service_immediately_on_terminal_state", true),
+                        serviceUpdateRequest("replace", "experimental_features_enabled", true),
+                        gatewayAccountIdsUpdateRequest(randomUuid())))));
+
+        assertThat(statementsForSeveralOperations.size(), is(statementsForOneOperation.size()));
+        List<String> serviceUpdates = statementsForSeveralOperations.stream()
+                .filter(statement -> statement.startsWith("UPDATE services"))
+                .collect(toList());
+        assertThat(serviceUpdates.size(), is(1));
+        assertThat(serviceUpdates.get(0), containsString("experimental_features_enabled"));
+        assertThat(serviceUpdates.get(0), not(containsString("custom_branding")));
+        assertThat(serviceUpdates.get(0), not(containsString("merchant_name")));
+    }
+
+    private void inTransaction(Runnable work) {
+        EntityTransaction transaction = env.getInstance(EntityManager.class).getTransaction();
+        transaction.begin();
+        work.run();
+        transaction.commit();
+    }
+
+    private ServiceUpdateRequest gatewayAccountIdsUpdateRequest(String... gatewayAccountIds) {
+        return ServiceUpdateRequest.from(objectMapper.valueToTree(Map.of(
+                "op", "add",
+                "path", "gateway_account_ids",
+                "value", List.of(gatewayAccountIds))));
+    }
+
+    private ServiceUpdateRequest serviceUpdateRequest(String op, String path, Object value) {
+        return ServiceUpdateRequest.from(objectMapper.valueToTree(Map.of("op", op, "path", path, "value", value)));
+    }
+
     private void setupUsersForServiceAndRole(String externalId, int roleId, int noOfUsers) {
         Permission perm1 = aPermission();
         Permission perm2 = aPermission();
@@ -0,0 +1,53 @@
+package uk.gov.pay.adminusers.persistence.dao;
+
+import com.google.inject.persist.UnitOfWork;
+import org.eclipse.persistence.internal.databaseaccess.DatabaseCall;
+import org.eclipse.persistence.jpa.JpaHelper;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.SessionEventManager;
+import uk.gov.pay.adminusers.infra.GuicedTestEnvironment;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Counts the SQL statements EclipseLink sends to the database while running some work in a fresh unit of work with an
+ * empty shared cache, so tests can pin down how many queries a DAO method needs and which columns they write.
+ */
+class StatementCounter {
+
+    private StatementCounter() {
+    }
+
+    static int countStatements(GuicedTestEnvironment env, Runnable work) {
+        return captureStatements(env, work).size();
+    }
+
+    static List<String> captureStatements(GuicedTestEnvironment env, Runnable work) {
+        UnitOfWork unitOfWork = env.getInstance(UnitOfWork.class);
+        EntityManagerFactory entityManagerFactory = env.getInstance(EntityManagerFactory.class);
+        SessionEventManager eventManager = JpaHelper.getServerSession(entityManagerFactory).getEventManager();
+
+        List<String> statements = new CopyOnWriteArrayList<>();
+        SessionEventAdapter listener = new SessionEventAdapter() {
+            @Override
+            public void preExecuteCall(SessionEvent event) {
+                statements.add(event.getCall() instanceof DatabaseCall ? ((DatabaseCall) event.getCall()).getSQLString() : String.valueOf(event.getCall()));
+            }
+        };
+
+        unitOfWork.end();
+        entityManagerFactory.getCache().evictAll();
+        eventManager.addListener(listener);
+        unitOfWork.begin();
+        try {
+            work.run();
+        } finally {
+            unitOfWork.end();
+            eventManager.removeListener(listener);
+        }
+        return statements;
+    }
+}
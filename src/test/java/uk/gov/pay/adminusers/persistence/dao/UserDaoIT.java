@@ -6,6 +6,7 @@ import uk.gov.pay.adminusers.model.Role;
 import uk.gov.pay.adminusers.model.SecondFactorMethod;
 import uk.gov.pay.adminusers.model.Service;
 import uk.gov.pay.adminusers.model.User;
+import uk.gov.pay.adminusers.model.UserSession;
 import uk.gov.pay.adminusers.persistence.entity.RoleEntity;
 import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
 import uk.gov.pay.adminusers.persistence.entity.ServiceRoleEntity;
@@ -13,11 +14,13 @@ import uk.gov.pay.adminusers.persistence.entity.UserEntity;
 
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.lang.String.valueOf;
 import static java.util.stream.Collectors.toList;
@@ -36,6 +39,7 @@ import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomUuid;
 import static uk.gov.pay.adminusers.fixtures.RoleDbFixture.roleDbFixture;
 import static uk.gov.pay.adminusers.fixtures.ServiceDbFixture.serviceDbFixture;
 import static uk.gov.pay.adminusers.fixtures.UserDbFixture.userDbFixture;
+import static uk.gov.pay.adminusers.persistence.dao.StatementCounter.captureStatements;
 
 public class UserDaoIT extends DaoTestBase {
 
@@ -95,6 +99,7 @@ public class UserDaoIT extends DaoTestBase {
         assertThat(savedUserData.get(0).get("telephone_number"), is(userEntity.getTelephoneNumber()));
         assertThat(savedUserData.get(0).get("disabled"), is(Boolean.FALSE));
         assertThat(savedUserData.get(0).get("session_version"), is(0));
+        assertThat(savedUserData.get(0).get("login_counter"), is(0));
         assertThat(savedUserData.get(0).get("createdat"), is(java.sql.Timestamp.from(timeNow.toInstant())));
         assertThat(savedUserData.get(0).get("updatedat"), is(java.sql.Timestamp.from(timeNow.toInstant())));
 
@@ -142,6 +147,44 @@ public class UserDaoIT extends DaoTestBase {
         assertThat(foundUser.getRoles().get(0).getId(), is(role.getId()));
     }
 
+    @Test
+    public void shouldFindUserSessionBy_ExternalId() {
+        String username = randomUuid();
+        User user = userDbFixture(databaseHelper)
+                .withUsername(username)
+                .withEmail(username + "@example.com")
+                .insertUser();
+
+        Optional<UserSession> userSessionMaybe = userDao.findSessionByExternalId(user.getExternalId().toUpperCase(Locale.ENGLISH));
+        assertTrue(userSessionMaybe.isPresent());
+
+        UserSession userSession = userSessionMaybe.get();
+        assertThat(userSession.getSessionVersion(), is(0));
+        assertThat(userSession.isDisabled(), is(false));
+        assertThat(userSession.getSecondFactor(), is(SecondFactorMethod.SMS));
+    }
+
+    @Test
+    public void shouldChangeVersionsBy_ExternalId_whenServiceRolesChange() {
+        String username = randomUuid();
+        User user = userDbFixture(databaseHelper)
+                .withUsername(username)
+                .withEmail(username + "@example.com")
+                .insertUser();
+
+        Optional<String> versionsBefore = userDao.findVersionsByExternalId(user.getExternalId());
+        assertTrue(versionsBefore.isPresent());
+
+        Role role = roleDbFixture(databaseHelper).insertRole();
+        Service service = serviceDbFixture(databaseHelper).insertService();
+        databaseHelper.addUserServiceRole(user.getId(), service.getId(), role.getId());
+
+        Optional<String> versionsAfter = userDao.findVersionsByExternalId(user.getExternalId());
+        assertTrue(versionsAfter.isPresent());
+        assertThat(versionsAfter.get(), not(versionsBefore.get()));
+        assertThat(userDao.findVersionsByExternalId(randomUuid()), is(Optional.empty()));
+    }
+
     @Test
     public void shouldFindUsersBy_ExternalIds() {
         Role role = roleDbFixture(databaseHelper).insertRole();
@@ -234,6 +277,16 @@ public class UserDaoIT extends DaoTestBase {
         assertThat(foundUser.getRoles().get(0).getId(), is(role.getId()));
     }
 
+    @Test
+    public void shouldFindEmailsOfExistingUsers_caseInsensitive() {
+        String username = randomUuid();
+        userDbFixture(databaseHelper).withUsername(username).withEmail(username + "@example.com").insertUser();
+
+        Set<String> existingEmails = userDao.findEmailsOfExistingUsers(List.of(username + "@EXAMPLE.com", randomUuid() + "@example.com"));
+
+        assertThat(existingEmails, is(Set.of(username + "@example.com")));
+    }
+
     @Test
     public void shouldFindUser_ByEmail_caseInsensitive() {
         Role role = roleDbFixture(databaseHelper).insertRole();
@@ -342,4 +395,39 @@ public class UserDaoIT extends DaoTestBase {
 
         assertThat(users.isEmpty(), is(true));
     }
+
+    @Test
+    public void shouldNotLoadServiceRoles_whenConvertingAUserWithoutThem() {
+        int serviceId = serviceDbFixture(databaseHelper).insertService().getId();
+        Role role = roleDbFixture(databaseHelper).insertRole();
+        String username = randomUuid();
+        User user = userDbFixture(databaseHelper)
+                .withUsername(username)
+                .withEmail(username + "@example.com")
+                .withServiceRole(serviceId, role.getId()).insertUser();
+
+        List<User> withoutServiceRoles = new ArrayList<>();
+        List<String> statementsWithoutServiceRoles = captureStatements(env, () ->
+                withoutServiceRoles.add(userDao.findByExternalId(user.getExternalId()).get().toUser(false)));
+        List<String> statementsWithServiceRoles = captureStatements(env, () ->
+                userDao.findByExternalId(user.getExternalId()).get().toUser(true));
+
+        assertThat(withoutServiceRoles.get(0).getServiceRoles().isEmpty(), is(true));
+        assertThat(statementsWithoutServiceRoles.stream().noneMatch(statement -> statement.contains("user_services_roles")), is(true));
+        assertThat(statementsWithServiceRoles.stream().anyMatch(statement -> statement.contains("user_services_roles")), is(true));
+    }
+
+    @Test
+    public void shouldCopyLoginCounterWritesToTheUsersTable_intoTheUserLoginState() {
+        String username = randomUuid();
+        User user = userDbFixture(databaseHelper)
+                .withUsername(username)
+                .withEmail(username + "@example.com")
+                .insertUser();
+
+        databaseHelper.updateLegacyLoginCount(username, 3);
+
+        assertThat(userDao.findByExternalId(user.getExternalId()).get().getLoginCounter(), is(3));
+        assertThat(databaseHelper.findUserLoginState(user.getId()).get(0).get("login_counter"), is(3));
+    }
 }
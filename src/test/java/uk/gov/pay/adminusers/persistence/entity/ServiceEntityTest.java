@@ -6,6 +6,8 @@ import uk.gov.pay.adminusers.model.Service;
 import uk.gov.pay.adminusers.persistence.entity.service.ServiceNameEntity;
 import uk.gov.pay.commons.model.SupportedLanguage;
 
+import java.util.Map;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
@@ -47,4 +49,16 @@ public class ServiceEntityTest {
         assertThat(service.getGoLiveStage(), is(GoLiveStage.NOT_STARTED));
     }
 
+    @Test
+    public void shouldRoundTripCustomBrandingThroughItsJson() {
+        ServiceEntity serviceEntity = ServiceEntityBuilder.aServiceEntity()
+                .withCustomBranding(Map.of("image_url", "image.png", "css_url", "style.css"))
+                .build();
+
+        Service service = serviceEntity.toService();
+
+        assertThat(service.getCustomBranding(), is(Map.of("image_url", "image.png", "css_url", "style.css")));
+        assertThat(CustomBrandingConverter.fromJson(CustomBrandingConverter.toJson(serviceEntity.getCustomBranding())), is(service.getCustomBranding()));
+    }
+
 }
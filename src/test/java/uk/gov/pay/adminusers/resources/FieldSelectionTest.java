@@ -0,0 +1,71 @@
+package uk.gov.pay.adminusers.resources;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import javax.ws.rs.core.EntityTag;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class FieldSelectionTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, Object> user = Map.of(
+            "external_id", "a-user",
+            "username", "a-username",
+            "service_roles", List.of(
+                    Map.of("service", Map.of("external_id", "a-service", "name", "A service"),
+                            "role", Map.of("name", "admin", "permissions", List.of("perm-1", "perm-2")))));
+
+    @Test
+    public void shouldLeaveTheRepresentationAsItIs_whenNoFieldsAreSelected() {
+        FieldSelection fieldSelection = FieldSelection.from(null);
+
+        assertThat(fieldSelection.isAll(), is(true));
+        assertThat(fieldSelection.select(user, objectMapper), is(sameInstance(user)));
+        assertThat(fieldSelection.includes("service_roles"), is(true));
+    }
+
+    @Test
+    public void shouldSelectOnlyTheGivenFields_throughArrays() {
+        FieldSelection fieldSelection = FieldSelection.from("username,service_roles.service.external_id");
+
+        JsonNode selected = (JsonNode) fieldSelection.select(user, objectMapper);
+
+        assertThat(selected.toString(), is("{\"service_roles\":[{\"service\":{\"external_id\":\"a-service\"}}],\"username\":\"a-username\"}"));
+    }
+
+    @Test
+    public void shouldSelectEverythingBeneathAField() {
+        FieldSelection fieldSelection = FieldSelection.from("service_roles.role,service_roles.role.name");
+
+        JsonNode selected = (JsonNode) fieldSelection.select(user, objectMapper);
+
+        assertThat(selected.at("/service_roles/0/role/permissions").size(), is(2));
+        assertThat(selected.at("/service_roles/0").has("service"), is(false));
+    }
+
+    @Test
+    public void shouldIncludeAPath_whenItOrAnythingBeneathItIsSelected() {
+        FieldSelection fieldSelection = FieldSelection.from("external_id,service_roles.service.external_id");
+
+        assertThat(fieldSelection.includes("service_roles"), is(true));
+        assertThat(fieldSelection.includes("service_roles.service"), is(true));
+        assertThat(fieldSelection.includes("service_roles.role"), is(false));
+        assertThat(fieldSelection.includes("username"), is(false));
+    }
+
+    @Test
+    public void shouldTagSparseRepresentationsDifferently() {
+        EntityTag entityTag = new EntityTag("3");
+
+        assertThat(FieldSelection.from(null).tag(entityTag), is(entityTag));
+        assertThat(FieldSelection.from("username,external_id").tag(entityTag), is(new EntityTag("3;fields=external_id,username")));
+    }
+}
@@ -8,6 +8,7 @@ import static io.restassured.http.ContentType.JSON;
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
 import static javax.ws.rs.core.Response.Status.OK;
 import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomUuid;
 import static uk.gov.pay.adminusers.fixtures.ForgottenPasswordDbFixture.forgottenPasswordDbFixture;
@@ -34,6 +35,27 @@ public class ForgottenPasswordResourceIT extends IntegrationTest {
                 .statusCode(OK.getStatusCode());
     }
 
+    @Test
+    public void shouldReuseForgottenPassword_whenCreatedRepeatedly_forTheSameUser() throws Exception {
+
+        String username = randomUuid();
+        int userId = userDbFixture(databaseHelper).withUsername(username).withEmail(username + "@example.com").insertUser().getId();
+
+        for (int i = 0; i < 3; i++) {
+            givenSetup()
+                    .when()
+                    .body(mapper.writeValueAsString(Map.of("username", username)))
+                    .contentType(JSON)
+                    .accept(JSON)
+                    .post(FORGOTTEN_PASSWORDS_RESOURCE_URL)
+                    .then()
+                    .statusCode(OK.getStatusCode());
+        }
+
+        assertThat(databaseHelper.findForgottenPasswordsByUserId(userId).size(), is(1));
+        assertThat(databaseHelper.findForgottenPasswordEmailsByUserId(userId).size(), is(3));
+    }
+
     @Test
     public void shouldReturn404_whenCreate_forNonExistingUser() throws Exception {
 
@@ -24,7 +24,9 @@ public class IntegrationTest {
     /* default */ static final String USERS_RESOURCE_URL = "/v1/api/users";
     /* default */ static final String FIND_RESOURCE_URL = "/v1/api/users/find";
     /* default */ static final String USER_RESOURCE_URL = "/v1/api/users/%s";
+    /* default */ static final String USER_SESSION_RESOURCE_URL = "/v1/api/users/%s/session";
     /* default */ static final String USERS_AUTHENTICATE_URL = "/v1/api/users/authenticate";
+    /* default */ static final String USERS_AUTHENTICATE_AND_SEND_OTP_URL = "/v1/api/users/authenticate-and-send-otp";
     /* default */ static final String USER_2FA_URL = "/v1/api/users/%s/second-factor";
     /* default */ static final String USER_SERVICES_RESOURCE = USER_RESOURCE_URL + "/services";
     /* default */ static final String USER_SERVICE_RESOURCE = USER_RESOURCE_URL + "/services/%s";
@@ -41,6 +43,7 @@ public class IntegrationTest {
     @Deprecated
     /* default */ static final String SERVICE_INVITES_RESOURCE_URL = "/v1/api/services/%d/invites";
     /* default */ static final String INVITE_USER_RESOURCE_URL = "/v1/api/invites/user";
+    /* default */ static final String INVITE_USERS_RESOURCE_URL = "/v1/api/invites/user/batch";
 
     @ClassRule
     public static final DropwizardAppWithPostgresRule APP;
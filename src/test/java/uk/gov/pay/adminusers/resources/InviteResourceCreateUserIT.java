@@ -7,6 +7,7 @@ import uk.gov.pay.adminusers.model.Service;
 import uk.gov.pay.adminusers.model.ServiceName;
 import uk.gov.pay.adminusers.model.User;
 
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -16,6 +17,7 @@ import static javax.ws.rs.core.Response.Status.CONFLICT;
 import static javax.ws.rs.core.Response.Status.CREATED;
 import static javax.ws.rs.core.Response.Status.FORBIDDEN;
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
+import static javax.ws.rs.core.Response.Status.OK;
 import static javax.ws.rs.core.Response.Status.PRECONDITION_FAILED;
 import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
 import static org.hamcrest.Matchers.hasItems;
@@ -267,4 +269,86 @@ public class InviteResourceCreateUserIT extends IntegrationTest {
                 .then()
                 .statusCode(FORBIDDEN.getStatusCode());
     }
+
+    @Test
+    public void createInvitations_shouldReportTheResultForEachAddress() throws Exception {
+
+        String serviceExternalId = randomUuid();
+        Integer serviceId = randomInt();
+        Service otherService = Service.from(serviceId, serviceExternalId, new ServiceName("service name"));
+        String conflictingEmail = randomUuid() + "-invite@example.com";
+        inviteDbFixture(databaseHelper)
+                .withEmail(conflictingEmail)
+                .withServiceExternalId(serviceExternalId)
+                .withServiceId(serviceId)
+                .insertInvite();
+
+        String senderUsername = randomUuid();
+        String sender = userDbFixture(databaseHelper)
+                .withServiceRole(otherService, ADMIN.getId())
+                .withUsername(senderUsername)
+                .withEmail(senderUsername + "@example.com")
+                .insertUser().getExternalId();
+
+        String existingUserUsername = randomUuid();
+        String existingUserEmail = existingUserUsername + "-invite@example.com";
+        userDbFixture(databaseHelper)
+                .withServiceRole(otherService, 2)
+                .withUsername(existingUserUsername)
+                .withEmail(existingUserEmail)
+                .insertUser();
+
+        String newEmail = randomAlphanumeric(5) + "-invite@example.com";
+
+        Map<Object, Object> invitationRequest = Map.of(
+                "sender", sender,
+                "emails", List.of(newEmail, existingUserEmail, conflictingEmail),
+                "role_name", roleAdminName,
+                "service_external_id", serviceExternalId);
+
+        givenSetup()
+                .when()
+                .body(mapper.writeValueAsString(invitationRequest))
+                .contentType(ContentType.JSON)
+                .post(INVITE_USERS_RESOURCE_URL)
+                .then()
+                .statusCode(OK.getStatusCode())
+                .body("", hasSize(3))
+                .body("[0].email", is(newEmail.toLowerCase(Locale.ENGLISH)))
+                .body("[0].result", is("created"))
+                .body("[0].invite._links[0].href", matchesPattern("^https://selfservice.pymnt.localdomain/invites/[0-9a-z]{32}$"))
+                .body("[1].email", is(existingUserEmail))
+                .body("[1].result", is("already_in_service"))
+                .body("[1].invite", is(nullValue()))
+                .body("[2].email", is(conflictingEmail))
+                .body("[2].result", is("conflicting_invite"));
+
+        givenSetup()
+                .when()
+                .body(mapper.writeValueAsString(invitationRequest))
+                .contentType(ContentType.JSON)
+                .post(INVITE_USERS_RESOURCE_URL)
+                .then()
+                .statusCode(OK.getStatusCode())
+                .body("[0].result", is("resent"));
+    }
+
+    @Test
+    public void createInvitations_shouldFail_whenNoEmailsAreGiven() throws Exception {
+
+        Map<Object, Object> invitationRequest = Map.of(
+                "sender", senderExternalId,
+                "emails", List.of(),
+                "role_name", roleAdminName,
+                "service_external_id", service.getExternalId());
+
+        givenSetup()
+                .when()
+                .body(mapper.writeValueAsString(invitationRequest))
+                .contentType(ContentType.JSON)
+                .post(INVITE_USERS_RESOURCE_URL)
+                .then()
+                .statusCode(BAD_REQUEST.getStatusCode())
+                .body("errors", hasItems("Field [emails] is required"));
+    }
 }
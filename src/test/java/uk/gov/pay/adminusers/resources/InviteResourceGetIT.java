@@ -1,14 +1,28 @@
 package uk.gov.pay.adminusers.resources;
 
 import org.junit.Test;
+import uk.gov.pay.adminusers.model.Role;
+import uk.gov.pay.adminusers.model.Service;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 
 import static io.restassured.http.ContentType.JSON;
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
 import static javax.ws.rs.core.Response.Status.GONE;
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
 import static javax.ws.rs.core.Response.Status.OK;
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
+import static org.apache.commons.lang3.RandomUtils.nextInt;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static uk.gov.pay.adminusers.fixtures.InviteDbFixture.inviteDbFixture;
+import static uk.gov.pay.adminusers.fixtures.RoleDbFixture.roleDbFixture;
+import static uk.gov.pay.adminusers.fixtures.ServiceDbFixture.serviceDbFixture;
+import static uk.gov.pay.adminusers.fixtures.UserDbFixture.userDbFixture;
 
 public class InviteResourceGetIT extends IntegrationTest {
 
@@ -118,4 +132,54 @@ public class InviteResourceGetIT extends IntegrationTest {
                 .body("[0].user_exist", is(false))
                 .body("[0].attempt_counter", is(0));
     }
+
+    @Test
+    public void getInvitations_shouldReturnAPageOfSummaries_withALinkToTheNextPage() {
+        Service service = serviceDbFixture(databaseHelper).insertService();
+        Role role = roleDbFixture(databaseHelper).insertRole();
+        int senderId = userDbFixture(databaseHelper).insertUser().getId();
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
+        int firstId = nextInt(1, Integer.MAX_VALUE - 3);
+        for (int i = 0; i < 3; i++) {
+            databaseHelper.addInvite(firstId + i, senderId, service.getId(), role.getId(),
+                    "user" + i + "@example.com", randomAlphanumeric(100), randomAlphanumeric(100),
+                    now, now.plusDays(1), null, null, false, 0);
+        }
+
+        String nextPage = givenSetup()
+                .when()
+                .accept(JSON)
+                .get(INVITES_RESOURCE_URL + "?serviceId=" + service.getExternalId() + "&view=summary&limit=2")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .body("", hasSize(2))
+                .body("[0].email", is("user0@example.com"))
+                .body("[0].role", is(role.getName()))
+                .body("[0].type", is("user"))
+                .body("[0].user_exist", is(nullValue()))
+                .body("[1].email", is("user1@example.com"))
+                .header("Link", containsString("after=" + (firstId + 1)))
+                .extract().header("Link");
+
+        givenSetup()
+                .when()
+                .accept(JSON)
+                .get(nextPage.substring(nextPage.indexOf('<') + 1, nextPage.indexOf('>')))
+                .then()
+                .statusCode(OK.getStatusCode())
+                .body("", hasSize(1))
+                .body("[0].email", is("user2@example.com"))
+                .header("Link", is(nullValue()));
+    }
+
+    @Test
+    public void getInvitations_shouldFail_whenTheLimitIsNotANumber() {
+        givenSetup()
+                .when()
+                .accept(JSON)
+                .get(INVITES_RESOURCE_URL + "?serviceId=abc&limit=lots")
+                .then()
+                .statusCode(BAD_REQUEST.getStatusCode())
+                .body("errors", hasItems("Query parameter [limit] must be a whole number between 1 and 500"));
+    }
 }
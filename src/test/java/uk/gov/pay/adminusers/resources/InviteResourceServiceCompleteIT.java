@@ -3,8 +3,14 @@ package uk.gov.pay.adminusers.resources;
 import io.restassured.response.ValidatableResponse;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static io.restassured.http.ContentType.JSON;
 import static java.lang.String.format;
@@ -129,6 +135,45 @@ public class InviteResourceServiceCompleteIT extends IntegrationTest {
                 .statusCode(GONE.getStatusCode());
     }
 
+    @Test
+    public void shouldCompleteInviteOnlyOnce_whenSameInviteCodeCompletedConcurrently() throws Exception {
+        String email = format("%s@example.gov.uk", randomUuid());
+        String inviteCode = inviteDbFixture(databaseHelper)
+                .withTelephoneNumber("+447700900000")
+                .withEmail(email)
+                .withPassword("valid_password")
+                .insertServiceInvite();
+
+        int concurrentRequests = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(concurrentRequests);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Integer> statusCodes = new ArrayList<>();
+        try {
+            List<Future<Integer>> responses = new ArrayList<>();
+            for (int i = 0; i < concurrentRequests; i++) {
+                responses.add(executor.submit(() -> {
+                    startSignal.await();
+                    return givenSetup()
+                            .when()
+                            .post(INVITES_RESOURCE_URL + "/" + inviteCode + "/complete")
+                            .then()
+                            .extract().statusCode();
+                }));
+            }
+            startSignal.countDown();
+            // a deadlock or lock wait would show up as a timeout here
+            for (Future<Integer> response : responses) {
+                statusCodes.add(response.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(statusCodes.stream().filter(statusCode -> statusCode == OK.getStatusCode()).count(), is(1L));
+        assertThat(statusCodes.stream().filter(statusCode -> statusCode == GONE.getStatusCode()).count(), is((long) concurrentRequests - 1));
+        assertThat(databaseHelper.findUserByUsername(email).size(), is(1));
+    }
+
     @Test
     public void shouldReturn409_ifAUserExistsWithTheSameEmail_whenServiceInviteCompletes() {
         String email = format("%s@example.gov.uk", randomUuid());
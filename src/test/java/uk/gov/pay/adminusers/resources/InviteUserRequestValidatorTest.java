@@ -325,4 +325,56 @@ public class InviteUserRequestValidatorTest {
         assertThat(errors.get().getErrors(),hasItems("Field [telephone_number] must be a valid telephone number"));
         assertThat(errors.get().getErrors().size(),is(1));
     }
+
+    @Test
+    public void validateCreateUsersRequest_shouldError_ifEmailsIsNotAnArray() throws Exception {
+
+        String invalidPayload = "{" +
+                "\"sender\": \"12345abc\"," +
+                "\"emails\": \"email@example.com\"," +
+                "\"role_name\": \"admin\"," +
+                "\"service_external_id\": \"abc123\"" +
+                "}";
+        JsonNode jsonNode = objectMapper.readTree(invalidPayload);
+
+        Optional<Errors> optionalErrors = validator.validateCreateUsersRequest(jsonNode);
+
+        assertTrue(optionalErrors.isPresent());
+        assertThat(optionalErrors.get().getErrors(), hasItems("Field [emails] must be an array of email addresses"));
+    }
+
+    @Test
+    public void validateCreateUsersRequest_shouldError_forEachEmailThatIsNotAValidEmailAddress() throws Exception {
+
+        String invalidPayload = "{" +
+                "\"sender\": \"12345abc\"," +
+                "\"emails\": [\"email@example.com\", \"not-an-email\", 42, {\"email\": \"email@example.com\"}]," +
+                "\"role_name\": \"admin\"," +
+                "\"service_external_id\": \"abc123\"" +
+                "}";
+        JsonNode jsonNode = objectMapper.readTree(invalidPayload);
+
+        Optional<Errors> optionalErrors = validator.validateCreateUsersRequest(jsonNode);
+
+        assertTrue(optionalErrors.isPresent());
+        assertThat(optionalErrors.get().getErrors().size(), is(3));
+        assertThat(optionalErrors.get().getErrors(), hasItems(
+                "Field [emails] must only contain valid email addresses, but element [1] is not",
+                "Field [emails] must only contain valid email addresses, but element [2] is not",
+                "Field [emails] must only contain valid email addresses, but element [3] is not"));
+    }
+
+    @Test
+    public void validateCreateUsersRequest_shouldPass_whenEveryEmailIsValid() throws Exception {
+
+        String validPayload = "{" +
+                "\"sender\": \"12345abc\"," +
+                "\"emails\": [\"email@example.com\", \"another-email@example.com\"]," +
+                "\"role_name\": \"admin\"," +
+                "\"service_external_id\": \"abc123\"" +
+                "}";
+        JsonNode jsonNode = objectMapper.readTree(validPayload);
+
+        assertFalse(validator.validateCreateUsersRequest(jsonNode).isPresent());
+    }
 }
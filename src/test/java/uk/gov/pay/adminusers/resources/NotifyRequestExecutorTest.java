@@ -0,0 +1,164 @@
+package uk.gov.pay.adminusers.resources;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.inject.persist.UnitOfWork;
+import io.dropwizard.util.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.MDC;
+import uk.gov.pay.adminusers.app.config.NotifyRequestsConfiguration;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.Response;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.logging.LoggingKeys.SERVICE_EXTERNAL_ID;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NotifyRequestExecutorTest {
+
+    @Mock
+    private UnitOfWork unitOfWork;
+    @Mock
+    private NotifyRequestsConfiguration configuration;
+    @Mock
+    private AsyncResponse asyncResponse;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    @Before
+    public void setUp() {
+        when(configuration.getTimeout()).thenReturn(Duration.seconds(15));
+    }
+
+    @After
+    public void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    public void shouldResumeWithTheResponse_inAUnitOfWork_withTheRequestMdc() {
+        NotifyRequestExecutor notifyRequestExecutor = notifyRequestExecutor(MoreExecutors.newDirectExecutorService());
+        MDC.put(SERVICE_EXTERNAL_ID, "service-external-id");
+        AtomicReference<String> serviceExternalIdWhileHandling = new AtomicReference<>();
+        Response response = Response.ok().build();
+
+        notifyRequestExecutor.execute(asyncResponse, () -> {
+            serviceExternalIdWhileHandling.set(MDC.get(SERVICE_EXTERNAL_ID));
+            return response;
+        });
+
+        InOrder inOrder = inOrder(unitOfWork, asyncResponse);
+        inOrder.verify(unitOfWork).begin();
+        inOrder.verify(asyncResponse).resume(response);
+        inOrder.verify(unitOfWork).end();
+        assertThat(serviceExternalIdWhileHandling.get(), is("service-external-id"));
+        assertThat(MDC.get(SERVICE_EXTERNAL_ID), is(nullValue()));
+    }
+
+    @Test
+    public void shouldResumeWithTheException_whenHandlingFails() {
+        NotifyRequestExecutor notifyRequestExecutor = notifyRequestExecutor(MoreExecutors.newDirectExecutorService());
+        WebApplicationException exception = new WebApplicationException(404);
+
+        notifyRequestExecutor.execute(asyncResponse, () -> {
+            throw exception;
+        });
+
+        verify(asyncResponse).resume(exception);
+        verify(unitOfWork).end();
+    }
+
+    @Test
+    public void shouldResumeWith503_whenTooManyRequestsAreWaiting() {
+        ExecutorService executorService = mock(ExecutorService.class);
+        doThrow(new RejectedExecutionException()).when(executorService).execute(any());
+        when(configuration.getMaxQueued()).thenReturn(100);
+        NotifyRequestExecutor notifyRequestExecutor = notifyRequestExecutor(executorService);
+
+        notifyRequestExecutor.execute(asyncResponse, () -> Response.ok().build());
+
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(response.capture());
+        assertThat(response.getValue().getStatus(), is(503));
+        assertThat(metricRegistry.meter("notify-requests.rejections").getCount(), is(1L));
+    }
+
+    @Test
+    public void shouldResumeWith503_andNeverHandleTheRequest_whenItTimesOutWaitingForAThread() {
+        ExecutorService executorService = mock(ExecutorService.class);
+        NotifyRequestExecutor notifyRequestExecutor = notifyRequestExecutor(executorService);
+        AtomicBoolean handled = new AtomicBoolean();
+
+        notifyRequestExecutor.execute(asyncResponse, () -> {
+            handled.set(true);
+            return Response.ok().build();
+        });
+        timeoutHandler().handleTimeout(asyncResponse);
+        queuedTask(executorService).run();
+
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(response.capture());
+        assertThat(response.getValue().getStatus(), is(503));
+        assertThat(handled.get(), is(false));
+        verify(unitOfWork, never()).begin();
+        assertThat(metricRegistry.meter("notify-requests.timeouts").getCount(), is(1L));
+    }
+
+    @Test
+    public void shouldWaitForTheResponse_whenItTimesOutOnceHandlingHasStarted() {
+        NotifyRequestExecutor notifyRequestExecutor = notifyRequestExecutor(MoreExecutors.newDirectExecutorService());
+        Response response = Response.ok().build();
+
+        notifyRequestExecutor.execute(asyncResponse, () -> {
+            timeoutHandler().handleTimeout(asyncResponse);
+            return response;
+        });
+
+        verify(asyncResponse, times(2)).setTimeout(15000L, TimeUnit.MILLISECONDS);
+        verify(asyncResponse).resume(response);
+        verify(asyncResponse, never()).resume(any(Throwable.class));
+        assertThat(metricRegistry.meter("notify-requests.timeouts").getCount(), is(0L));
+        assertThat(metricRegistry.meter("notify-requests.overruns").getCount(), is(1L));
+    }
+
+    private TimeoutHandler timeoutHandler() {
+        ArgumentCaptor<TimeoutHandler> timeoutHandler = ArgumentCaptor.forClass(TimeoutHandler.class);
+        verify(asyncResponse).setTimeoutHandler(timeoutHandler.capture());
+        return timeoutHandler.getValue();
+    }
+
+    private static Runnable queuedTask(ExecutorService executorService) {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService).execute(task.capture());
+        return task.getValue();
+    }
+
+    private NotifyRequestExecutor notifyRequestExecutor(ExecutorService executorService) {
+        return new NotifyRequestExecutor(executorService, unitOfWork, configuration, metricRegistry);
+    }
+}
@@ -105,4 +105,17 @@ public class RequestValidationsTest {
         assertThat(errors.isPresent(), is(true));
     }
 
+    @Test
+    public void checkIsFieldSelection_shouldSucceed_forCommaSeparatedDottedFieldNames() {
+        assertThat(requestValidations.checkIsFieldSelection("fields", "external_id,service_roles.service.external_id,_links").isPresent(), is(false));
+        assertThat(requestValidations.checkIsFieldSelection("fields", null).isPresent(), is(false));
+    }
+
+    @Test
+    public void checkIsFieldSelection_shouldFail_forMalformedFieldNames() {
+        Optional<List<String>> errors = requestValidations.checkIsFieldSelection("fields", "external_id,,service_roles.");
+
+        assertThat(errors.isPresent(), is(true));
+        assertThat(errors.get().get(0), is("Query parameter [fields] must be a comma separated list of field names, such as external_id,service_roles.service.external_id"));
+    }
 }
@@ -0,0 +1,77 @@
+package uk.gov.pay.adminusers.resources;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import uk.gov.pay.adminusers.model.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.http.ContentType.JSON;
+import static java.lang.String.format;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.oneOf;
+import static org.hamcrest.Matchers.startsWith;
+import static uk.gov.pay.adminusers.fixtures.ServiceDbFixture.serviceDbFixture;
+
+public class ServiceResourceConcurrentUpdateIT extends IntegrationTest {
+
+    private static final int CONCURRENT_UPDATES = 8;
+
+    private String serviceExternalId;
+
+    @Before
+    public void setUp() {
+        Service service = serviceDbFixture(databaseHelper).insertService();
+        serviceExternalId = service.getExternalId();
+    }
+
+    @Test
+    public void shouldAnswerEachConcurrentUpdateWithSuccessOrConflict_neverAServerError() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_UPDATES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statusCodes = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONCURRENT_UPDATES; i++) {
+                JsonNode payload = new ObjectMapper().valueToTree(Map.of("op", "replace", "path", "service_name/en", "value", "Service name " + i));
+                statusCodes.add(executor.submit(() -> {
+                    start.await();
+                    return givenSetup()
+                            .when()
+                            .accept(JSON)
+                            .body(payload)
+                            .patch(format("/v1/api/services/%s", serviceExternalId))
+                            .statusCode();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> statusCode : statusCodes) {
+                results.add(statusCode.get());
+            }
+
+            results.forEach(statusCode -> assertThat(statusCode, is(oneOf(200, 409))));
+            assertThat(results, hasItem(200));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        givenSetup()
+                .when()
+                .accept(JSON)
+                .get(format("/v1/api/services/%s", serviceExternalId))
+                .then()
+                .statusCode(200)
+                .body("service_name.en", startsWith("Service name "));
+    }
+}
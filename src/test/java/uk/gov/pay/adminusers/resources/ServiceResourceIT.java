@@ -13,6 +13,9 @@ import static io.restassured.http.ContentType.JSON;
 import static java.lang.String.format;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.isEmptyString;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomUuid;
@@ -142,6 +145,102 @@ public class ServiceResourceIT extends IntegrationTest {
                 .body("experimental_features_enabled", is(true));
     }
 
+    @Test
+    public void shouldReturnNotModified_whenServiceHasNotChangedSinceETag() {
+        Service service = serviceDbFixture(databaseHelper).insertService();
+
+        String eTag = givenSetup()
+                .when()
+                .accept(JSON)
+                .get(format(SERVICE_RESOURCE, service.getExternalId()))
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .extract().header("ETag");
+
+        givenSetup()
+                .when()
+                .accept(JSON)
+                .header("If-None-Match", eTag)
+                .get(format(SERVICE_RESOURCE, service.getExternalId()))
+                .then()
+                .statusCode(304)
+                .header("ETag", is(eTag));
+
+        givenSetup()
+                .when()
+                .contentType(JSON)
+                .accept(JSON)
+                .body(mapper.valueToTree(Map.of("op", "replace", "path", "service_name/en", "value", "Renamed Service")))
+                .patch(format(SERVICE_RESOURCE, service.getExternalId()))
+                .then()
+                .statusCode(200);
+
+        givenSetup()
+                .when()
+                .accept(JSON)
+                .header("If-None-Match", eTag)
+                .get(format(SERVICE_RESOURCE, service.getExternalId()))
+                .then()
+                .statusCode(200)
+                .header("ETag", not(eTag))
+                .body("service_name.en", is("Renamed Service"));
+    }
+
+    @Test
+    public void shouldReturnOnlyTheSelectedFields_withTheirOwnETag() {
+        String gatewayAccountId = randomUuid();
+        Service service = serviceDbFixture(databaseHelper).withGatewayAccountIds(gatewayAccountId, randomUuid()).insertService();
+
+        String fullETag = givenSetup()
+                .when()
+                .accept(JSON)
+                .get(format(SERVICE_RESOURCE, service.getExternalId()))
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+
+        givenSetup()
+                .when()
+                .accept(JSON)
+                .queryParam("fields", "external_id,gateway_account_ids")
+                .header("If-None-Match", fullETag)
+                .get(format(SERVICE_RESOURCE, service.getExternalId()))
+                .then()
+                .statusCode(200)
+                .header("ETag", not(fullETag))
+                .body("external_id", is(service.getExternalId()))
+                .body("gateway_account_ids", hasSize(2))
+                .body("name", nullValue())
+                .body("merchant_details", nullValue())
+                .body("_links", nullValue());
+
+        givenSetup()
+                .when()
+                .accept(JSON)
+                .queryParam("gatewayAccountId", gatewayAccountId)
+                .queryParam("fields", "external_id")
+                .get(SERVICES_RESOURCE)
+                .then()
+                .statusCode(200)
+                .body("external_id", is(service.getExternalId()))
+                .body("gateway_account_ids", nullValue());
+    }
+
+    @Test
+    public void shouldReturn400_whenTheSelectedFieldsAreMalformed() {
+        Service service = serviceDbFixture(databaseHelper).insertService();
+
+        givenSetup()
+                .when()
+                .accept(JSON)
+                .queryParam("fields", "external_id,,name")
+                .get(format(SERVICE_RESOURCE, service.getExternalId()))
+                .then()
+                .statusCode(400)
+                .body("errors", hasSize(1));
+    }
+
     @Test
     public void getServiceUsers_shouldReturn404WhenServiceDoesNotExist() {
         givenSetup()
@@ -9,6 +9,7 @@ import uk.gov.pay.adminusers.utils.Errors;
 import uk.gov.pay.adminusers.validations.RequestValidations;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -112,6 +113,32 @@ public class UserRequestValidatorTest {
         assertThat(errors.getErrors(), hasItems("Operation [replace] not allowed for path [sessionVersion]"));
     }
 
+    @Test
+    public void shouldError_ifNoOperations_whenPatching() {
+        JsonNode payload = new ObjectMapper().valueToTree(List.of());
+        Optional<Errors> optionalErrors = validator.validatePatchRequest(payload);
+
+        assertTrue(optionalErrors.isPresent());
+        assertThat(optionalErrors.get().getErrors(), is(List.of("Patch request must contain at least one operation")));
+    }
+
+    @Test
+    public void shouldReportErrorsForEveryOperation_whenPatchingWithSeveral() {
+        JsonNode payload = new ObjectMapper().valueToTree(List.of(
+                Map.of("op", "append", "path", "sessionVersion", "value", "1r"),
+                Map.of("op", "replace", "path", "features", "value", "1,2"),
+                Map.of("op", "replace", "path", "version", "value", "1")));
+        Optional<Errors> optionalErrors = validator.validatePatchRequest(payload);
+
+        assertTrue(optionalErrors.isPresent());
+        Errors errors = optionalErrors.get();
+
+        assertThat(errors.getErrors().size(), is(2));
+        assertThat(errors.getErrors(), hasItems(
+                "path [sessionVersion] must contain a value of positive integer",
+                "Patching path [version] not allowed"));
+    }
+
     @Test
     public void shouldError_ifSessionVersionNotNumeric_whenPatching() {
         JsonNode payload = new ObjectMapper().valueToTree(Map.of("op", "append", "path", "sessionVersion", "value", "1r"));
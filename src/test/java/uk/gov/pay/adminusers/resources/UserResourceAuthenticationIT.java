@@ -4,13 +4,17 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import org.junit.Test;
 import uk.gov.pay.adminusers.fixtures.UserDbFixture;
 import uk.gov.pay.adminusers.model.Service;
+import uk.gov.pay.adminusers.model.User;
 import uk.gov.pay.adminusers.service.PasswordHasher;
 
 import java.util.Map;
 import java.util.UUID;
 
 import static io.restassured.http.ContentType.JSON;
+import static java.lang.String.valueOf;
 import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
+import static org.apache.commons.lang3.RandomUtils.nextInt;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.core.Is.is;
@@ -104,6 +108,90 @@ public class UserResourceAuthenticationIT extends IntegrationTest {
                 .body("errors[0]", is("invalid username and/or password"));
     }
 
+    @Test
+    public void shouldAuthenticateUserAndSendOtp_onAValidUsernamePasswordCombination() throws Exception {
+        String[] gatewayAccountIds = {valueOf(nextInt()), valueOf(nextInt())};
+        Service service = serviceDbFixture(databaseHelper).withGatewayAccountIds(gatewayAccountIds).insertService();
+
+        String username = createAValidUser(service);
+
+        Map<Object, Object> authPayload = Map.of(
+                "username", username,
+                "password", "password-" + username);
+
+        givenSetup()
+                .when()
+                .body(mapper.writeValueAsString(authPayload))
+                .contentType(JSON)
+                .accept(JSON)
+                .post(USERS_AUTHENTICATE_AND_SEND_OTP_URL)
+                .then()
+                .statusCode(200)
+                .body("username", is(username))
+                .body("login_counter", is(0))
+                .body("disabled", is(false))
+                .body("service_roles", hasSize(1))
+                .body("_links", hasSize(1));
+    }
+
+    @Test
+    public void shouldAuthenticateAndSendOtpFail_onAInvalidUsernamePasswordCombination() throws Exception {
+        String[] gatewayAccountIds = {valueOf(nextInt()), valueOf(nextInt())};
+        Service service = serviceDbFixture(databaseHelper).withGatewayAccountIds(gatewayAccountIds).insertService();
+
+        String username = createAValidUser(service);
+
+        Map<Object, Object> authPayload = Map.of(
+                "username", username,
+                "password", "invalid-password");
+
+        givenSetup()
+                .when()
+                .body(mapper.writeValueAsString(authPayload))
+                .contentType(JSON)
+                .accept(JSON)
+                .post(USERS_AUTHENTICATE_AND_SEND_OTP_URL)
+                .then()
+                .statusCode(401)
+                .body("errors", hasSize(1))
+                .body("errors[0]", is("invalid username and/or password"));
+    }
+
+    @Test
+    public void shouldOnlyUpdateLoginState_andNotRewriteUsersRow_onAuthentication() throws Exception {
+        String username = randomUuid() + "@example.com";
+        String password = "password-" + username;
+        User user = UserDbFixture.userDbFixture(databaseHelper)
+                .withUsername(username)
+                .withEmail(username)
+                .withPassword(new PasswordHasher().hash(password)).insertUser();
+        databaseHelper.updateLoginCount(username, 2);
+        String usersRowTransactionIdBefore = databaseHelper.findUserRowTransactionId(user.getId());
+
+        givenSetup()
+                .when()
+                .body(mapper.writeValueAsString(Map.of("username", username, "password", "invalid-password")))
+                .contentType(JSON)
+                .accept(JSON)
+                .post(USERS_AUTHENTICATE_URL)
+                .then()
+                .statusCode(401);
+
+        assertThat(databaseHelper.findUserLoginState(user.getId()).get(0).get("login_counter"), is(3));
+
+        givenSetup()
+                .when()
+                .body(mapper.writeValueAsString(Map.of("username", username, "password", password)))
+                .contentType(JSON)
+                .accept(JSON)
+                .post(USERS_AUTHENTICATE_URL)
+                .then()
+                .statusCode(200);
+
+        assertThat(databaseHelper.findUserLoginState(user.getId()).get(0).get("login_counter"), is(0));
+        assertThat(databaseHelper.findUserRowTransactionId(user.getId()), is(usersRowTransactionIdBefore));
+    }
+
     private String createAValidUser(Service service) throws JsonProcessingException {
         String username = randomAlphanumeric(10) + UUID.randomUUID();
         Map<Object, Object> userPayload = Map.of(
@@ -6,11 +6,15 @@ import uk.gov.pay.adminusers.model.Role;
 import uk.gov.pay.adminusers.model.Service;
 import uk.gov.pay.adminusers.model.User;
 
+import java.util.Map;
+
 import static io.restassured.http.ContentType.JSON;
 import static java.lang.String.format;
 import static java.lang.String.valueOf;
 import static org.apache.commons.lang3.RandomUtils.nextInt;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomUuid;
@@ -59,6 +63,140 @@ public class UserResourceGetIT extends IntegrationTest {
     }
 
 
+    @Test
+    public void shouldReturnOnlyTheSelectedFields_whenGetUserWithFields() {
+        Service service = serviceDbFixture(databaseHelper).insertService();
+        Role role = roleDbFixture(databaseHelper).insertRole();
+        String username = randomUuid();
+        User user = userDbFixture(databaseHelper).withServiceRole(service.getId(), role.getId()).withUsername(username).withEmail(username + "@example.com").insertUser();
+
+        givenSetup()
+                .when()
+                .accept(JSON)
+                .queryParam("fields", "external_id,username,service_roles.service.external_id")
+                .get(format(USER_RESOURCE_URL, user.getExternalId()))
+                .then()
+                .statusCode(200)
+                .body("external_id", is(user.getExternalId()))
+                .body("username", is(username))
+                .body("email", nullValue())
+                .body("_links", nullValue())
+                .body("service_roles", hasSize(1))
+                .body("service_roles[0].service.external_id", is(service.getExternalId()))
+                .body("service_roles[0].service.name", nullValue())
+                .body("service_roles[0].role", nullValue());
+
+        givenSetup()
+                .when()
+                .accept(JSON)
+                .queryParam("ids", user.getExternalId())
+                .queryParam("fields", "external_id,email")
+                .get(USERS_RESOURCE_URL)
+                .then()
+                .statusCode(200)
+                .body("", hasSize(1))
+                .body("[0].external_id", is(user.getExternalId()))
+                .body("[0].email", is(user.getEmail()))
+                .body("[0].service_roles", nullValue());
+    }
+
+    @Test
+    public void shouldReturn400_whenGetUserWithMalformedFields() {
+        String username = randomUuid();
+        User user = userDbFixture(databaseHelper).withUsername(username).withEmail(username + "@example.com").insertUser();
+
+        givenSetup()
+                .when()
+                .accept(JSON)
+                .queryParam("fields", "external_id;username")
+                .get(format(USER_RESOURCE_URL, user.getExternalId()))
+                .then()
+                .statusCode(400)
+                .body("errors", hasSize(1));
+    }
+
+    @Test
+    public void shouldReturnNotModified_whenUserHasNotChangedSinceETag() {
+        String username = randomUuid();
+        User user = userDbFixture(databaseHelper).withUsername(username).withEmail(username + "@example.com").insertUser();
+
+        String eTag = givenSetup()
+                .when()
+                .accept(JSON)
+                .get(format(USER_RESOURCE_URL, user.getExternalId()))
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .extract().header("ETag");
+
+        givenSetup()
+                .when()
+                .accept(JSON)
+                .header("If-None-Match", eTag)
+                .get(format(USER_RESOURCE_URL, user.getExternalId()))
+                .then()
+                .statusCode(304)
+                .header("ETag", is(eTag));
+
+        Service service = serviceDbFixture(databaseHelper).insertService();
+        Role role = roleDbFixture(databaseHelper).insertRole();
+        databaseHelper.addUserServiceRole(user.getId(), service.getId(), role.getId());
+
+        givenSetup()
+                .when()
+                .accept(JSON)
+                .header("If-None-Match", eTag)
+                .get(format(USER_RESOURCE_URL, user.getExternalId()))
+                .then()
+                .statusCode(200)
+                .header("ETag", not(eTag))
+                .body("service_roles", hasSize(1));
+    }
+
+    @Test
+    public void shouldReturnUserSession_andReflectSessionVersionChanges() {
+        String username = randomUuid();
+        User user = userDbFixture(databaseHelper).withUsername(username).withEmail(username + "@example.com").insertUser();
+
+        givenSetup()
+                .when()
+                .accept(JSON)
+                .get(format(USER_SESSION_RESOURCE_URL, user.getExternalId()))
+                .then()
+                .statusCode(200)
+                .body("session_version", is(0))
+                .body("disabled", is(false))
+                .body("second_factor", is("SMS"))
+                .body("service_roles", nullValue())
+                .body("_links", nullValue());
+
+        givenSetup()
+                .when()
+                .contentType(JSON)
+                .body(mapper.valueToTree(Map.of("op", "append", "path", "sessionVersion", "value", 1)))
+                .patch(format(USER_RESOURCE_URL, user.getExternalId()))
+                .then()
+                .statusCode(200);
+
+        givenSetup()
+                .when()
+                .accept(JSON)
+                .get(format(USER_SESSION_RESOURCE_URL, user.getExternalId()))
+                .then()
+                .statusCode(200)
+                .body("session_version", is(1));
+    }
+
+    @Test
+    public void shouldReturn404_whenGetUserSession_withNonExistentExternalId() {
+        givenSetup()
+                .when()
+                .accept(JSON)
+                .get(format(USER_SESSION_RESOURCE_URL, "non-existent-user"))
+                .then()
+                .statusCode(404);
+    }
+
     @Test
     public void shouldReturn404_whenGetUser_withNonExistentExternalId() {
         givenSetup()
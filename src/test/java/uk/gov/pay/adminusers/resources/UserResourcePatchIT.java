@@ -6,12 +6,14 @@ import org.junit.Before;
 import org.junit.Test;
 import uk.gov.pay.adminusers.model.User;
 
+import java.util.List;
 import java.util.Map;
 
 import static io.restassured.http.ContentType.JSON;
 import static java.lang.String.format;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
 import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomUuid;
 import static uk.gov.pay.adminusers.fixtures.UserDbFixture.userDbFixture;
 
@@ -92,6 +94,55 @@ public class UserResourcePatchIT extends IntegrationTest {
                 .body("disabled", is(true));
     }
 
+    @Test
+    public void shouldApplyAllOperations_whenPatchAttemptHasSeveral() {
+
+        String newTelephoneNumber = "+441134960000";
+        String newFeatures = "SUPER_FEATURE_1";
+        JsonNode payload = new ObjectMapper().valueToTree(List.of(
+                Map.of("op", "replace", "path", "telephone_number", "value", newTelephoneNumber),
+                Map.of("op", "replace", "path", "features", "value", newFeatures),
+                Map.of("op", "append", "path", "sessionVersion", "value", 1)));
+
+        givenSetup()
+                .when()
+                .contentType(JSON)
+                .body(payload)
+                .patch(format(USER_RESOURCE_URL, externalId))
+                .then()
+                .statusCode(200)
+                .body("telephone_number", is(newTelephoneNumber))
+                .body("features", is(newFeatures))
+                .body("session_version", is(1));
+    }
+
+    @Test
+    public void shouldApplyNoOperations_whenAnyOperationIsInvalid() {
+
+        JsonNode payload = new ObjectMapper().valueToTree(List.of(
+                Map.of("op", "replace", "path", "features", "value", "SUPER_FEATURE_1"),
+                Map.of("op", "replace", "path", "disabled", "value", "maybe")));
+
+        givenSetup()
+                .when()
+                .contentType(JSON)
+                .accept(JSON)
+                .body(payload)
+                .patch(format(USER_RESOURCE_URL, externalId))
+                .then()
+                .statusCode(400)
+                .body("errors", hasSize(1))
+                .body("errors[0]", is("path [disabled] must be contain value [true | false]"));
+
+        givenSetup()
+                .when()
+                .accept(JSON)
+                .get(format(USER_RESOURCE_URL, externalId))
+                .then()
+                .statusCode(200)
+                .body("features", is(not("SUPER_FEATURE_1")));
+    }
+
     @Test
     public void shouldReturn404_whenUnknownExternalIdIsSupplied() {
 
@@ -18,14 +18,17 @@ import uk.gov.pay.adminusers.resources.EmailTemplate;
 import uk.gov.pay.adminusers.resources.InvalidMerchantDetailsException;
 import uk.gov.pay.adminusers.utils.CountryConverter;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentCaptor.forClass;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static uk.gov.pay.commons.model.SupportedLanguage.ENGLISH;
 
@@ -325,4 +328,39 @@ public class EmailServiceTest {
         assertThat(allContent.get("organisation phone number"), is(TELEPHONE_NUMBER));
         assertThat(allContent.get("organisation email address"), is(MERCHANT_EMAIL));
     }
+
+    @Test
+    public void shouldOnlyLoadServiceOnce_forRepeatedEmailsToTheSameGatewayAccount() throws InvalidMerchantDetailsException {
+        given(mockServiceEntity.getMerchantDetailsEntity()).willReturn(aValidMerchantDetailsEntity());
+
+        emailService.sendEmail(EMAIL_ADDRESS, GATEWAY_ACCOUNT_ID, EmailTemplate.PAYMENT_FAILED, Map.of());
+        emailService.sendEmail(EMAIL_ADDRESS, GATEWAY_ACCOUNT_ID, EmailTemplate.MANDATE_CANCELLED, Map.of());
+
+        verify(mockServiceDao, times(1)).findByGatewayAccountId(GATEWAY_ACCOUNT_ID);
+        verify(mockNotificationService).sendEmail(eq(PaymentType.DIRECT_DEBIT), eq("NOTIFY_MANDATE_CANCELLED_EMAIL_TEMPLATE_ID_VALUE"), eq(EMAIL_ADDRESS), anyMap());
+    }
+
+    @Test
+    public void shouldReloadService_afterCachedContentIsInvalidated() throws InvalidMerchantDetailsException {
+        given(mockServiceEntity.getMerchantDetailsEntity()).willReturn(aValidMerchantDetailsEntity());
+
+        emailService.sendEmail(EMAIL_ADDRESS, GATEWAY_ACCOUNT_ID, EmailTemplate.PAYMENT_FAILED, Map.of());
+        emailService.invalidateTemplateMappingsFor(List.of(GATEWAY_ACCOUNT_ID));
+        emailService.sendEmail(EMAIL_ADDRESS, GATEWAY_ACCOUNT_ID, EmailTemplate.PAYMENT_FAILED, Map.of());
+
+        verify(mockServiceDao, times(2)).findByGatewayAccountId(GATEWAY_ACCOUNT_ID);
+    }
+
+    private MerchantDetailsEntity aValidMerchantDetailsEntity() {
+        return new MerchantDetailsEntity(
+                MERCHANT_NAME,
+                TELEPHONE_NUMBER,
+                ADDRESS_LINE_1,
+                null,
+                CITY,
+                POSTCODE,
+                ADDRESS_COUNTRY_CODE,
+                MERCHANT_EMAIL
+        );
+    }
 }
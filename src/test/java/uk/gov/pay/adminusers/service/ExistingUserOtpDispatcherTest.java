@@ -109,6 +109,19 @@ public class ExistingUserOtpDispatcherTest {
         assertFalse(tokenOptional.isPresent());
     }
 
+    @Test
+    public void shouldSendSignInOtpForAlreadyLoadedUserWithoutLookingItUp() {
+        User user = aUser();
+        when(secondFactorAuthenticator.newPassCode(user.getOtpKey())).thenReturn(123456);
+        when(notificationService.sendSecondFactorPasscodeSms(eq(user.getTelephoneNumber()), eq("123456"), eq(SIGN_IN))).thenReturn("random-notify-id");
+
+        Optional<SecondFactorToken> tokenOptional = existingUserOtpDispatcher.sendSignInOtp(user);
+
+        assertTrue(tokenOptional.isPresent());
+        assertThat(tokenOptional.get().getPasscode(), is("123456"));
+        verifyNoInteractions(userDao);
+    }
+
     @Test
     public void shouldSendChangeSignInMethodOtpIfUserFound() {
         User user = aUserWithProvisionalOtpKey();
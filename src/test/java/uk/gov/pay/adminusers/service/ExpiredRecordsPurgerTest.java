@@ -0,0 +1,111 @@
+package uk.gov.pay.adminusers.service;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.Duration;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.adminusers.app.config.ExpiredRecordsPurgeConfiguration;
+import uk.gov.pay.adminusers.persistence.dao.AdvisoryLocks;
+import uk.gov.pay.adminusers.persistence.dao.ForgottenPasswordDao;
+import uk.gov.pay.adminusers.persistence.dao.InviteDao;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ExpiredRecordsPurgerTest {
+
+    @Mock
+    private AdvisoryLocks advisoryLocks;
+    @Mock
+    private AdvisoryLocks.HeldLock heldLock;
+    @Mock
+    private InviteDao inviteDao;
+    @Mock
+    private ForgottenPasswordDao forgottenPasswordDao;
+    @Mock
+    private ExpiredRecordsPurgeConfiguration configuration;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    private ExpiredRecordsPurger expiredRecordsPurger;
+
+    @Before
+    public void setUp() {
+        when(configuration.getRetention()).thenReturn(Duration.days(30));
+        expiredRecordsPurger = new ExpiredRecordsPurger(advisoryLocks, inviteDao, forgottenPasswordDao, configuration, metricRegistry);
+    }
+
+    @Test
+    public void shouldPurgeEachTableInBatches_continuingAfterTheLastIdDeleted() throws Exception {
+        when(configuration.getBatchSize()).thenReturn(2);
+        when(configuration.getPauseBetweenBatches()).thenReturn(Duration.milliseconds(0));
+        when(advisoryLocks.tryLock(anyLong())).thenReturn(Optional.of(heldLock));
+        when(inviteDao.deleteExpiredBefore(any(), eq(0), eq(2))).thenReturn(List.of(3, 7));
+        when(inviteDao.deleteExpiredBefore(any(), eq(7), eq(2))).thenReturn(List.of(9));
+        when(forgottenPasswordDao.deleteCreatedBefore(any(), eq(0), eq(2))).thenReturn(List.of());
+
+        expiredRecordsPurger.purgeAll();
+
+        assertThat(metricRegistry.counter("expired-records-purger.invites.rows-purged").getCount(), is(3L));
+        assertThat(metricRegistry.timer("expired-records-purger.invites.batches").getCount(), is(2L));
+        assertThat(metricRegistry.counter("expired-records-purger.forgotten-passwords.rows-purged").getCount(), is(0L));
+        assertThat(metricRegistry.timer("expired-records-purger.forgotten-passwords.batches").getCount(), is(1L));
+    }
+
+    @Test
+    public void shouldHoldTheLockForTheWholeRun_andReleaseItAfterTheLastBatch() throws Exception {
+        when(configuration.getBatchSize()).thenReturn(1);
+        when(configuration.getPauseBetweenBatches()).thenReturn(Duration.milliseconds(0));
+        when(advisoryLocks.tryLock(anyLong())).thenReturn(Optional.of(heldLock));
+        when(inviteDao.deleteExpiredBefore(any(), eq(0), eq(1))).thenReturn(List.of(3));
+        when(inviteDao.deleteExpiredBefore(any(), eq(3), eq(1))).thenReturn(List.of());
+        when(forgottenPasswordDao.deleteCreatedBefore(any(), eq(0), eq(1))).thenReturn(List.of());
+
+        expiredRecordsPurger.purgeAll();
+
+        InOrder inOrder = inOrder(advisoryLocks, inviteDao, forgottenPasswordDao, heldLock);
+        inOrder.verify(advisoryLocks).tryLock(anyLong());
+        inOrder.verify(inviteDao).deleteExpiredBefore(any(), eq(0), eq(1));
+        inOrder.verify(inviteDao).deleteExpiredBefore(any(), eq(3), eq(1));
+        inOrder.verify(forgottenPasswordDao).deleteCreatedBefore(any(), eq(0), eq(1));
+        inOrder.verify(heldLock).close();
+    }
+
+    @Test
+    public void shouldReleaseTheLock_whenABatchFails() throws Exception {
+        when(configuration.getBatchSize()).thenReturn(2);
+        when(advisoryLocks.tryLock(anyLong())).thenReturn(Optional.of(heldLock));
+        when(inviteDao.deleteExpiredBefore(any(), anyInt(), anyInt())).thenThrow(new RuntimeException("database unavailable"));
+
+        expiredRecordsPurger.purgeAll();
+
+        verify(heldLock).close();
+        verify(forgottenPasswordDao, never()).deleteCreatedBefore(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void shouldNotPurge_whenAnotherInstanceHoldsTheLock() throws Exception {
+        when(advisoryLocks.tryLock(anyLong())).thenReturn(Optional.empty());
+
+        expiredRecordsPurger.purgeAll();
+
+        verify(inviteDao, never()).deleteExpiredBefore(any(), anyInt(), anyInt());
+        verify(forgottenPasswordDao, never()).deleteCreatedBefore(any(), anyInt(), anyInt());
+    }
+}
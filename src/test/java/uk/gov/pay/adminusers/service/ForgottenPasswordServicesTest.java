@@ -1,5 +1,7 @@
 package uk.gov.pay.adminusers.service;
 
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.Duration;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -9,6 +11,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import uk.gov.pay.adminusers.app.config.AdminUsersConfig;
+import uk.gov.pay.adminusers.app.config.ForgottenPasswordThrottleConfiguration;
 import uk.gov.pay.adminusers.app.config.LinksConfig;
 import uk.gov.pay.adminusers.model.ForgottenPassword;
 import uk.gov.pay.adminusers.persistence.dao.ForgottenPasswordDao;
@@ -17,11 +20,14 @@ import uk.gov.pay.adminusers.persistence.entity.ForgottenPasswordEntity;
 import uk.gov.pay.adminusers.persistence.entity.UserEntity;
 
 import javax.ws.rs.WebApplicationException;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Optional;
 
+import static java.time.temporal.ChronoUnit.MINUTES;
 import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
+import static org.exparity.hamcrest.date.ZonedDateTimeMatchers.within;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.hamcrest.core.Is.is;
@@ -31,6 +37,7 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.matches;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -50,7 +57,10 @@ public class ForgottenPasswordServicesTest {
     private AdminUsersConfig mockConfig;
     @Mock
     private NotificationService mockNotificationService;
+    @Mock
+    private ForgottenPasswordThrottle throttle;
 
+    private final MetricRegistry metricRegistry = new MetricRegistry();
     private ForgottenPasswordServices forgottenPasswordServices;
 
     @Before
@@ -58,7 +68,11 @@ public class ForgottenPasswordServicesTest {
         LinksConfig mockLinks = mock(LinksConfig.class);
         when(mockLinks.getSelfserviceUrl()).thenReturn(SELFSERVICE_URL);
         when(mockConfig.getLinks()).thenReturn(mockLinks);
-        forgottenPasswordServices = new ForgottenPasswordServices(userDao, forgottenPasswordDao, new LinksBuilder("http://localhost"), mockNotificationService, mockConfig);
+        ForgottenPasswordThrottleConfiguration throttleConfiguration = mock(ForgottenPasswordThrottleConfiguration.class);
+        when(throttleConfiguration.getReuseWindow()).thenReturn(Duration.minutes(15));
+        when(throttleConfiguration.getMinRemainingValidity()).thenReturn(Duration.minutes(30));
+        when(mockConfig.getForgottenPasswordThrottleConfiguration()).thenReturn(throttleConfiguration);
+        forgottenPasswordServices = forgottenPasswordServicesWithExpiryMinutes(90);
     }
 
     @Test
@@ -71,6 +85,7 @@ public class ForgottenPasswordServicesTest {
         UserEntity mockUser = mock(UserEntity.class);
         when(mockUser.getEmail()).thenReturn(email);
         when(userDao.findByUsername(username)).thenReturn(Optional.of(mockUser));
+        when(throttle.tryAcquire(mockUser)).thenReturn(true);
         when(mockNotificationService.sendForgottenPasswordEmail(eq(email), matches("^http://selfservice/reset-password/[0-9a-z]{32}$")))
                 .thenReturn("random-notify-id");
         doNothing().when(forgottenPasswordDao).persist(any(ForgottenPasswordEntity.class));
@@ -81,6 +96,77 @@ public class ForgottenPasswordServicesTest {
         ForgottenPasswordEntity savedForgottenPassword = expectedForgottenPassword.getValue();
         assertThat(savedForgottenPassword.getUser(), is(mockUser));
         assertThat(savedForgottenPassword.getCode(), is(notNullValue()));
+        assertThat(metricRegistry.meter("forgotten-passwords.codes-issued").getCount(), is(1L));
+        verify(throttle).recordEmail(savedForgottenPassword);
+    }
+
+    @Test
+    public void shouldResendRecentForgottenPassword_whenCreating_insteadOfCreatingAnother() {
+
+        String username = "existing-user";
+        String email = "existing-user@example.com";
+        UserEntity mockUser = mock(UserEntity.class);
+        when(mockUser.getEmail()).thenReturn(email);
+        when(userDao.findByUsername(username)).thenReturn(Optional.of(mockUser));
+        when(throttle.tryAcquire(mockUser)).thenReturn(true);
+        ForgottenPasswordEntity recentForgottenPassword = new ForgottenPasswordEntity("recent-code", ZonedDateTime.now().minusMinutes(5), mockUser);
+        when(forgottenPasswordDao.findLatestByUserCreatedSince(eq(mockUser), any(ZonedDateTime.class))).thenReturn(Optional.of(recentForgottenPassword));
+        when(mockNotificationService.sendForgottenPasswordEmail(email, "http://selfservice/reset-password/recent-code"))
+                .thenReturn("random-notify-id");
+
+        forgottenPasswordServices.create(username);
+
+        verify(forgottenPasswordDao, never()).persist(any(ForgottenPasswordEntity.class));
+        assertThat(metricRegistry.meter("forgotten-passwords.codes-reused").getCount(), is(1L));
+        verify(throttle).recordEmail(recentForgottenPassword);
+    }
+
+    @Test
+    public void shouldOnlyResendForgottenPasswords_thatStillHaveTheMinimumValidityLeft() {
+
+        forgottenPasswordServices = forgottenPasswordServicesWithExpiryMinutes(40);
+        String username = "existing-user";
+        UserEntity mockUser = mock(UserEntity.class);
+        when(mockUser.getEmail()).thenReturn("existing-user@example.com");
+        when(userDao.findByUsername(username)).thenReturn(Optional.of(mockUser));
+        when(throttle.tryAcquire(mockUser)).thenReturn(true);
+        ArgumentCaptor<ZonedDateTime> createdSince = ArgumentCaptor.forClass(ZonedDateTime.class);
+        when(forgottenPasswordDao.findLatestByUserCreatedSince(eq(mockUser), createdSince.capture())).thenReturn(Optional.empty());
+
+        forgottenPasswordServices.create(username);
+
+        assertThat(createdSince.getValue(), is(within(1, MINUTES, ZonedDateTime.now(ZoneId.of("UTC")).minusMinutes(10))));
+    }
+
+    @Test
+    public void shouldNotResendForgottenPasswords_whenTheyExpireBeforeTheMinimumValidity() {
+
+        forgottenPasswordServices = forgottenPasswordServicesWithExpiryMinutes(30);
+        String username = "existing-user";
+        UserEntity mockUser = mock(UserEntity.class);
+        when(mockUser.getEmail()).thenReturn("existing-user@example.com");
+        when(userDao.findByUsername(username)).thenReturn(Optional.of(mockUser));
+        when(throttle.tryAcquire(mockUser)).thenReturn(true);
+
+        forgottenPasswordServices.create(username);
+
+        verify(forgottenPasswordDao, never()).findLatestByUserCreatedSince(any(), any());
+        verify(forgottenPasswordDao).persist(any(ForgottenPasswordEntity.class));
+    }
+
+    @Test
+    public void shouldNotSendForgottenPassword_whenCreating_ifUserHasReachedHourlyLimit() {
+
+        String username = "existing-user";
+        UserEntity mockUser = mock(UserEntity.class);
+        when(userDao.findByUsername(username)).thenReturn(Optional.of(mockUser));
+        when(throttle.tryAcquire(mockUser)).thenReturn(false);
+
+        forgottenPasswordServices.create(username);
+
+        verify(forgottenPasswordDao, never()).persist(any(ForgottenPasswordEntity.class));
+        verify(mockNotificationService, never()).sendForgottenPasswordEmail(any(), any());
+        assertThat(metricRegistry.meter("forgotten-passwords.emails-suppressed").getCount(), is(1L));
     }
 
     @Test
@@ -93,6 +179,7 @@ public class ForgottenPasswordServicesTest {
         UserEntity mockUser = mock(UserEntity.class);
         when(mockUser.getEmail()).thenReturn(email);
         when(userDao.findByUsername(username)).thenReturn(Optional.of(mockUser));
+        when(throttle.tryAcquire(mockUser)).thenReturn(true);
         when(mockNotificationService.sendForgottenPasswordEmail(eq(email), matches("^http://selfservice/reset-password/[0-9a-z]{32}$")))
                 .thenThrow(AdminUsersExceptions.userNotificationError());
         doNothing().when(forgottenPasswordDao).persist(any(ForgottenPasswordEntity.class));
@@ -142,4 +229,10 @@ public class ForgottenPasswordServicesTest {
         UserEntity mockUser = mock(UserEntity.class);
         return new ForgottenPasswordEntity(code, ZonedDateTime.now(), mockUser);
     }
+
+    private ForgottenPasswordServices forgottenPasswordServicesWithExpiryMinutes(int expiryMinutes) {
+        when(mockConfig.getForgottenPasswordExpiryMinutes()).thenReturn(expiryMinutes);
+        return new ForgottenPasswordServices(userDao, forgottenPasswordDao, new LinksBuilder("http://localhost"), mockNotificationService, mockConfig,
+                throttle, metricRegistry);
+    }
 }
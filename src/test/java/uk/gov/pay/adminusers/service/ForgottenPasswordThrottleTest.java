@@ -0,0 +1,93 @@
+package uk.gov.pay.adminusers.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.adminusers.app.config.ForgottenPasswordThrottleConfiguration;
+import uk.gov.pay.adminusers.persistence.dao.ForgottenPasswordDao;
+import uk.gov.pay.adminusers.persistence.entity.ForgottenPasswordEntity;
+import uk.gov.pay.adminusers.persistence.entity.UserEntity;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ForgottenPasswordThrottleTest {
+
+    private static final Instant NOW = Instant.parse("2020-06-01T12:00:00Z");
+
+    @Mock
+    private ForgottenPasswordDao forgottenPasswordDao;
+    @Mock
+    private ForgottenPasswordThrottleConfiguration configuration;
+    @Mock
+    private Clock clock;
+
+    private final UserEntity user = mock(UserEntity.class);
+
+    private ForgottenPasswordThrottle throttle;
+
+    @Before
+    public void setUp() {
+        throttle = new ForgottenPasswordThrottle(forgottenPasswordDao, configuration, clock);
+    }
+
+    @Test
+    public void shouldAllowEmailsUpToTheHourlyLimit_andAgainOnceTheHourHasPassed() {
+        givenAUserAllowedTwoEmailsAnHour();
+        when(clock.instant()).thenReturn(NOW, NOW.plusSeconds(60), NOW.plusSeconds(120), NOW.plusSeconds(3601));
+
+        assertThat(throttle.tryAcquire(user), is(true));
+        assertThat(throttle.tryAcquire(user), is(true));
+        assertThat(throttle.tryAcquire(user), is(false));
+        assertThat(throttle.tryAcquire(user), is(true));
+        verify(forgottenPasswordDao, never()).countEmailsSentToUserSince(any(), any());
+    }
+
+    @Test
+    public void shouldCountEmailsSentByOtherInstances_whenBackedByDatabase() {
+        givenAUserAllowedTwoEmailsAnHour();
+        when(configuration.isBackedByDatabase()).thenReturn(true);
+        when(clock.instant()).thenReturn(NOW);
+        when(forgottenPasswordDao.countEmailsSentToUserSince(user, ZonedDateTime.ofInstant(NOW.minusSeconds(3600), ZoneId.of("UTC")))).thenReturn(2L);
+
+        assertThat(throttle.tryAcquire(user), is(false));
+    }
+
+    @Test
+    public void shouldRecordEachEmail_whenBackedByDatabase() {
+        when(configuration.isBackedByDatabase()).thenReturn(true);
+        when(clock.instant()).thenReturn(NOW);
+        ForgottenPasswordEntity forgottenPassword = new ForgottenPasswordEntity("a-code", ZonedDateTime.now(), user);
+
+        throttle.recordEmail(forgottenPassword);
+        throttle.recordEmail(forgottenPassword);
+
+        verify(forgottenPasswordDao, times(2)).recordEmailSent(forgottenPassword, ZonedDateTime.ofInstant(NOW, ZoneId.of("UTC")));
+    }
+
+    @Test
+    public void shouldNotRecordEmails_whenNotBackedByDatabase() {
+        throttle.recordEmail(new ForgottenPasswordEntity("a-code", ZonedDateTime.now(), user));
+
+        verify(forgottenPasswordDao, never()).recordEmailSent(any(), any());
+    }
+
+    private void givenAUserAllowedTwoEmailsAnHour() {
+        when(user.getExternalId()).thenReturn("user-external-id");
+        when(configuration.getMaxEmailsPerUserPerHour()).thenReturn(2);
+    }
+}
@@ -8,6 +8,10 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import uk.gov.pay.adminusers.model.Invite;
+import uk.gov.pay.adminusers.model.InviteSearchParams;
+import uk.gov.pay.adminusers.model.InviteSummary;
+import uk.gov.pay.adminusers.model.InviteType;
+import uk.gov.pay.adminusers.model.InvitesPage;
 import uk.gov.pay.adminusers.persistence.dao.InviteDao;
 import uk.gov.pay.adminusers.persistence.dao.UserDao;
 import uk.gov.pay.adminusers.persistence.entity.InviteEntity;
@@ -18,6 +22,7 @@ import javax.ws.rs.WebApplicationException;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
@@ -118,20 +123,35 @@ public class InviteFinderTest {
         String secondEmail = "user2@mail.test";
         InviteEntity firstInviteEntity = new InviteEntity(firstEmail, randomUuid(), "otp-key", mock(RoleEntity.class));
         InviteEntity secondInviteEntity = new InviteEntity(secondEmail, randomUuid(), "otp-key", mock(RoleEntity.class));
-        InviteEntity disabledInviteEntity = new InviteEntity("email@email.test", randomUuid(), "otp-key", mock(RoleEntity.class));
-        disabledInviteEntity.setDisabled(true);
-        InviteEntity expiredInviteEntity = new InviteEntity("email@email.test", randomUuid(), "otp-key", mock(RoleEntity.class));
-        expiredInviteEntity.setExpiryDate(ZonedDateTime.now().minusMinutes(1));
-        when(mockUserDao.findByEmail(firstEmail)).thenReturn(Optional.empty());
-        when(mockUserDao.findByEmail(secondEmail)).thenReturn(Optional.empty());
-        when(mockInviteDao.findAllByServiceId(externalServiceId)).thenReturn(
-                List.of(firstInviteEntity, secondInviteEntity, disabledInviteEntity, expiredInviteEntity)
+        InviteSearchParams searchParams = InviteSearchParams.none();
+        when(mockInviteDao.findActiveByServiceId(externalServiceId, searchParams)).thenReturn(
+                List.of(firstInviteEntity, secondInviteEntity)
         );
-        List<Invite> invites = inviteFinder.findAllActiveInvites(externalServiceId);
+        when(mockUserDao.findEmailsOfExistingUsers(List.of(firstEmail, secondEmail))).thenReturn(Set.of(secondEmail));
+        InvitesPage<Invite> page = inviteFinder.findActiveInvites(externalServiceId, searchParams);
+        List<Invite> invites = page.getInvites();
         assertThat(invites.size(), is(2));
+        assertThat(page.getNextAfterId().isPresent(), is(false));
         Invite firstInvite = invites.get(0);
         assertThat(firstInvite.getEmail(), is(firstEmail));
+        assertThat(firstInvite.isUserExist(), is(false));
         Invite secondInvite = invites.get(1);
         assertThat(secondInvite.getEmail(), is(secondEmail));
+        assertThat(secondInvite.isUserExist(), is(true));
+    }
+
+    @Test
+    public void shouldReturnTheIdToContinueAfter_whenThereAreMoreInvitesThanTheLimit() {
+        String externalServiceId = "sdfuhsdyftgdfa";
+        InviteSearchParams searchParams = InviteSearchParams.from(null, null, null, null, null, null, "2");
+        when(mockInviteDao.findActiveSummariesByServiceId(externalServiceId, searchParams)).thenReturn(List.of(
+                new InviteSummary(3, randomUuid(), "user1@mail.test", InviteType.USER, "admin", ZonedDateTime.now()),
+                new InviteSummary(7, randomUuid(), "user2@mail.test", InviteType.USER, "admin", ZonedDateTime.now()),
+                new InviteSummary(9, randomUuid(), "user3@mail.test", InviteType.USER, "admin", ZonedDateTime.now())));
+
+        InvitesPage<InviteSummary> page = inviteFinder.findActiveInviteSummaries(externalServiceId, searchParams);
+
+        assertThat(page.getInvites().size(), is(2));
+        assertThat(page.getNextAfterId(), is(Optional.of(7)));
     }
 }
@@ -45,6 +45,7 @@ public class InviteRouterTest {
 
         assertThat(result.isPresent(), is(true));
         assertThat(result.get().getLeft(), is(instanceOf(ServiceInviteCompleter.class)));
+        assertThat(result.get().getLeft().inviteEntity, is(inviteEntity));
         assertThat(result.get().getRight(), is(true));
     }
 
@@ -71,6 +72,7 @@ public class InviteRouterTest {
 
         assertThat(result.isPresent(), is(true));
         assertThat(result.get().getLeft(), is(instanceOf(UserOtpDispatcher.class)));
+        assertThat(result.get().getLeft().inviteEntity, is(inviteEntity));
         assertThat(result.get().getRight(), is(true));
     }
 
@@ -79,7 +81,7 @@ public class InviteRouterTest {
         String inviteCode = "a-code";
         InviteEntity inviteEntity = anInvite(inviteCode, SERVICE);
         when(inviteDao.findByCode(inviteCode)).thenReturn(Optional.of(inviteEntity));
-        when(inviteServiceFactory.dispatchServiceOtp()).thenReturn(new ServiceOtpDispatcher(null, null, null));
+        when(inviteServiceFactory.dispatchServiceOtp()).thenReturn(new ServiceOtpDispatcher(null, null));
         Optional<Pair<InviteOtpDispatcher, Boolean>> result = inviteRouter.routeOtpDispatch(inviteCode);
 
         assertThat(result.isPresent(), is(true));
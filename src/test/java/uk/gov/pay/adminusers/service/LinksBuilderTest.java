@@ -45,4 +45,21 @@ public class LinksBuilderTest {
         String linkJson = new ObjectMapper().writeValueAsString(decorated.getLinks().get(0));
         assertThat(linkJson, is("{\"rel\":\"self\",\"method\":\"GET\",\"href\":\"http://localhost:8080/v1/api/forgotten-passwords/a-code\"}"));
     }
+
+    @Test
+    public void shouldConstruct_serviceSelfLinkCorrectly() throws Exception {
+        Service service = Service.from(2, "34783g87ebg764r", new ServiceName(Service.DEFAULT_NAME_VALUE));
+        Service decorated = linksBuilder.decorate(service);
+
+        String linkJson = new ObjectMapper().writeValueAsString(decorated.getLinks().get(0));
+        assertThat(linkJson, is("{\"rel\":\"self\",\"method\":\"GET\",\"href\":\"http://localhost:8080/v1/api/services/34783g87ebg764r\"}"));
+    }
+
+    @Test
+    public void shouldConstruct_linksCorrectly_whenBaseUrlHasTrailingSlash() {
+        ForgottenPassword forgottenPassword = ForgottenPassword.forgottenPassword(1, "a-code", ZonedDateTime.now(), "7d19aff33f8948deb97ed16b2912dcd3");
+        ForgottenPassword decorated = new LinksBuilder("http://localhost:8080/").decorate(forgottenPassword);
+
+        assertThat(decorated.getLinks().get(0).getHref(), is("http://localhost:8080/v1/api/forgotten-passwords/a-code"));
+    }
 }
@@ -61,7 +61,7 @@ public class ServiceCreatorTest {
     public void shouldSuccess_whenProvidedWith_noParameters() {
         Service service = serviceCreator.doCreate(Collections.emptyList(), Collections.emptyMap());
 
-        verify(mockedServiceDao, never()).checkIfGatewayAccountsUsed(anyList());
+        verify(mockedServiceDao, never()).findGatewayAccountIdsInUse(anyList());
         verify(mockedServiceDao, times(1)).persist(persistedServiceEntity.capture());
         assertThat(service.getName(), is("System Generated"));
         assertThat(service.isRedirectToServiceImmediatelyOnTerminalState(), is(false));
@@ -76,7 +76,7 @@ public class ServiceCreatorTest {
     public void shouldSuccess_whenProvidedWith_onlyAValidName() {
         Service service = serviceCreator.doCreate(Collections.emptyList(), Map.of(SupportedLanguage.ENGLISH, EN_SERVICE_NAME));
 
-        verify(mockedServiceDao, never()).checkIfGatewayAccountsUsed(anyList());
+        verify(mockedServiceDao, never()).findGatewayAccountIdsInUse(anyList());
         verify(mockedServiceDao, times(1)).persist(persistedServiceEntity.capture());
         assertThat(service.getName(), is(EN_SERVICE_NAME));
 
@@ -93,7 +93,7 @@ public class ServiceCreatorTest {
         serviceNames.put(SupportedLanguage.WELSH, CY_SERVICE_NAME);
         Service service = serviceCreator.doCreate(Collections.emptyList(), serviceNames);
 
-        verify(mockedServiceDao, never()).checkIfGatewayAccountsUsed(anyList());
+        verify(mockedServiceDao, never()).findGatewayAccountIdsInUse(anyList());
         verify(mockedServiceDao, times(1)).persist(persistedServiceEntity.capture());
         assertThat(service.getName(), is(EN_SERVICE_NAME));
 
@@ -111,7 +111,7 @@ public class ServiceCreatorTest {
         String gatewayAccountId1 = "gatewayAccountId1";
         Service service = serviceCreator.doCreate(List.of(gatewayAccountId1, gatewayAccountId2), Collections.emptyMap());
 
-        verify(mockedServiceDao, times(1)).checkIfGatewayAccountsUsed(anyList());
+        verify(mockedServiceDao, times(1)).findGatewayAccountIdsInUse(anyList());
         verify(mockedServiceDao, times(1)).persist(persistedServiceEntity.capture());
 
         assertThat(service.getName(), is("System Generated"));
@@ -124,7 +124,7 @@ public class ServiceCreatorTest {
         assertEnServiceNameMap(service, "System Generated");
         assertSelfLink(service);
 
-        verify(mockedServiceDao).checkIfGatewayAccountsUsed(listArgumentCaptor.capture());
+        verify(mockedServiceDao).findGatewayAccountIdsInUse(listArgumentCaptor.capture());
         List<String> gatewayAccounts = listArgumentCaptor.getValue();
         assertThat(gatewayAccounts.size(), is(2));
         assertThat(gatewayAccounts, containsInAnyOrder(gatewayAccountId1, gatewayAccountId2));
@@ -136,7 +136,7 @@ public class ServiceCreatorTest {
         String gatewayAccountId1 = "gatewayAccountId1";
         Service service = serviceCreator.doCreate(List.of(gatewayAccountId1, gatewayAccountId2), Map.of(SupportedLanguage.ENGLISH, EN_SERVICE_NAME));
 
-        verify(mockedServiceDao, times(1)).checkIfGatewayAccountsUsed(anyList());
+        verify(mockedServiceDao, times(1)).findGatewayAccountIdsInUse(anyList());
         verify(mockedServiceDao, times(1)).persist(persistedServiceEntity.capture());
 
         assertThat(service.getName(), is(EN_SERVICE_NAME));
@@ -153,7 +153,7 @@ public class ServiceCreatorTest {
     @Test(expected = WebApplicationException.class)
     public void shouldFail_whenProvidedAConflictingGatewayID() {
         List<String> gatewayAccountsIds = List.of("3");
-        when(mockedServiceDao.checkIfGatewayAccountsUsed(gatewayAccountsIds)).thenReturn(true);
+        when(mockedServiceDao.findGatewayAccountIdsInUse(gatewayAccountsIds)).thenReturn(gatewayAccountsIds);
         serviceCreator.doCreate(gatewayAccountsIds, Map.of(SupportedLanguage.ENGLISH, EN_SERVICE_NAME));
     }
 
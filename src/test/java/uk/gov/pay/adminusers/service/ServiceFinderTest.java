@@ -1,11 +1,13 @@
 package uk.gov.pay.adminusers.service;
 
-
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.Duration;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.adminusers.app.config.ServiceLookupCoalescingConfiguration;
 import uk.gov.pay.adminusers.model.Service;
 import uk.gov.pay.adminusers.persistence.dao.ServiceDao;
 import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
@@ -23,12 +25,16 @@ public class ServiceFinderTest {
 
     @Mock
     private ServiceDao serviceDao;
+    @Mock
+    private ServiceLookupCoalescingConfiguration configuration;
 
     private ServiceFinder serviceFinder;
 
     @Before
     public void before() {
-        serviceFinder = new ServiceFinder(serviceDao, new LinksBuilder("http://localhost"));
+        when(configuration.getTimeout()).thenReturn(Duration.seconds(10));
+        ServiceLookupCoalescer serviceLookupCoalescer = new ServiceLookupCoalescer(configuration, new MetricRegistry());
+        serviceFinder = new ServiceFinder(serviceDao, new LinksBuilder("http://localhost"), serviceLookupCoalescer);
     }
 
     @Test
@@ -54,4 +60,17 @@ public class ServiceFinderTest {
         assertThat(serviceOptional.isPresent(), is(false));
     }
 
+    @Test
+    public void shouldReturnService_ifFoundByExternalId() {
+        ServiceEntity serviceEntity = new ServiceEntity();
+        serviceEntity.setExternalId("an-external-id");
+        serviceEntity.addOrUpdateServiceName(ServiceNameEntity.from(SupportedLanguage.ENGLISH, Service.DEFAULT_NAME_VALUE));
+        when(serviceDao.findByExternalId("an-external-id")).thenReturn(Optional.of(serviceEntity));
+
+        Optional<Service> serviceOptional = serviceFinder.byExternalId("an-external-id");
+
+        assertThat(serviceOptional.isPresent(), is(true));
+        assertThat(serviceOptional.get().getExternalId(), is("an-external-id"));
+        assertThat(serviceOptional.get().getLinks().get(0).getHref(), is("http://localhost/v1/api/services/an-external-id"));
+    }
 }
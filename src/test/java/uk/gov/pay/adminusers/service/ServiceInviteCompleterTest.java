@@ -33,6 +33,7 @@ import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.toList;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
 import static org.hamcrest.text.MatchesPattern.matchesPattern;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
@@ -83,12 +84,12 @@ public class ServiceInviteCompleterTest {
 
         InviteEntity anInvite = createInvite();
         anInvite.setType(InviteType.SERVICE);
+        when(mockInviteDao.findByIdForUpdate(anInvite.getId())).thenReturn(Optional.of(anInvite));
         when(mockUserDao.findByEmail(email)).thenReturn(Optional.empty());
-        when(mockInviteDao.findByCode(inviteCode)).thenReturn(Optional.of(anInvite));
 
         InviteCompleteRequest data = new InviteCompleteRequest();
         data.setGatewayAccountIds(asList("1", "2"));
-        InviteCompleteResponse inviteResponse = serviceInviteCompleter.withData(data).complete(anInvite.getCode()).get();
+        InviteCompleteResponse inviteResponse = serviceInviteCompleter.withInvite(anInvite).withData(data).complete().get();
 
         verify(mockServiceDao).persist(expectedService.capture());
         verify(mockUserDao).merge(expectedInvitedUser.capture());
@@ -116,10 +117,10 @@ public class ServiceInviteCompleterTest {
 
         InviteEntity anInvite = createInvite();
         anInvite.setType(InviteType.SERVICE);
+        when(mockInviteDao.findByIdForUpdate(anInvite.getId())).thenReturn(Optional.of(anInvite));
         when(mockUserDao.findByEmail(email)).thenReturn(Optional.empty());
-        when(mockInviteDao.findByCode(inviteCode)).thenReturn(Optional.of(anInvite));
 
-        InviteCompleteResponse inviteResponse = serviceInviteCompleter.withData(new InviteCompleteRequest()).complete(anInvite.getCode()).get();
+        InviteCompleteResponse inviteResponse = serviceInviteCompleter.withInvite(anInvite).withData(new InviteCompleteRequest()).complete().get();
 
         verify(mockServiceDao).persist(expectedService.capture());
         verify(mockUserDao).merge(expectedInvitedUser.capture());
@@ -139,6 +140,25 @@ public class ServiceInviteCompleterTest {
         assertThat(inviteResponse.getInvite().getLinks().get(0).getHref(), matchesPattern("^" + baseUrl + "/v1/api/users/[0-9a-z]{32}$"));
     }
 
+    @Test
+    public void shouldCompleteTheInviteLoadedInTheTransaction_ratherThanTheRoutedInvite() {
+        InviteEntity routedInvite = createInvite();
+        routedInvite.setId(7);
+        routedInvite.setType(InviteType.SERVICE);
+        InviteEntity managedInvite = createInvite();
+        managedInvite.setId(7);
+        managedInvite.setType(InviteType.SERVICE);
+        when(mockInviteDao.findByIdForUpdate(7)).thenReturn(Optional.of(managedInvite));
+        when(mockUserDao.findByEmail(email)).thenReturn(Optional.empty());
+
+        serviceInviteCompleter.withInvite(routedInvite).withData(new InviteCompleteRequest()).complete();
+
+        verify(mockInviteDao).merge(expectedInvite.capture());
+        assertThat(expectedInvite.getValue(), is(sameInstance(managedInvite)));
+        assertThat(managedInvite.isDisabled(), is(true));
+        assertThat(routedInvite.getService().getId(), is(serviceId));
+    }
+
     @Test
     public void shouldThrowConflict_whenPassedInviteEmailAlreadyHasARegisteredUser() {
         ServiceEntity service = new ServiceEntity();
@@ -147,12 +167,12 @@ public class ServiceInviteCompleterTest {
         InviteEntity anInvite = createInvite();
         anInvite.setType(InviteType.SERVICE);
 
-        when(mockInviteDao.findByCode(inviteCode)).thenReturn(Optional.of(anInvite));
+        when(mockInviteDao.findByIdForUpdate(anInvite.getId())).thenReturn(Optional.of(anInvite));
         when(mockUserDao.findByEmail(anInvite.getEmail())).thenReturn(Optional.of(mock(UserEntity.class)));
 
         thrown.expect(WebApplicationException.class);
         thrown.expectMessage("HTTP 409 Conflict");
-        serviceInviteCompleter.complete(anInvite.getCode());
+        serviceInviteCompleter.withInvite(anInvite).complete();
     }
 
     @Test
@@ -164,11 +184,24 @@ public class ServiceInviteCompleterTest {
         anInvite.setType(InviteType.SERVICE);
         anInvite.setDisabled(true);
 
-        when(mockInviteDao.findByCode(inviteCode)).thenReturn(Optional.of(anInvite));
 
         thrown.expect(WebApplicationException.class);
         thrown.expectMessage("HTTP 410 Gone");
-        serviceInviteCompleter.complete(anInvite.getCode());
+        serviceInviteCompleter.withInvite(anInvite).complete();
+    }
+
+    @Test
+    public void shouldThrowInviteLockedException_whenInviteIsDisabledByAnotherRequestFirst() {
+        InviteEntity anInvite = createInvite();
+        anInvite.setType(InviteType.SERVICE);
+
+        InviteEntity disabledInvite = createInvite();
+        disabledInvite.setDisabled(true);
+        when(mockInviteDao.findByIdForUpdate(anInvite.getId())).thenReturn(Optional.of(disabledInvite));
+
+        thrown.expect(WebApplicationException.class);
+        thrown.expectMessage("HTTP 410 Gone");
+        serviceInviteCompleter.withInvite(anInvite).complete();
     }
 
     @Test
@@ -180,11 +213,10 @@ public class ServiceInviteCompleterTest {
         anInvite.setType(InviteType.SERVICE);
         anInvite.setExpiryDate(ZonedDateTime.now().minusDays(1));
 
-        when(mockInviteDao.findByCode(inviteCode)).thenReturn(Optional.of(anInvite));
 
         thrown.expect(WebApplicationException.class);
         thrown.expectMessage("HTTP 410 Gone");
-        serviceInviteCompleter.complete(anInvite.getCode());
+        serviceInviteCompleter.withInvite(anInvite).complete();
     }
 
     @Test
@@ -195,12 +227,12 @@ public class ServiceInviteCompleterTest {
         InviteEntity anInvite = createInvite();
         anInvite.setType(InviteType.USER);
 
-        when(mockInviteDao.findByCode(inviteCode)).thenReturn(Optional.of(anInvite));
+        when(mockInviteDao.findByIdForUpdate(anInvite.getId())).thenReturn(Optional.of(anInvite));
         when(mockUserDao.findByEmail(email)).thenReturn(Optional.empty());
 
         thrown.expect(WebApplicationException.class);
         thrown.expectMessage("HTTP 500 Internal Server Error");
-        serviceInviteCompleter.complete(anInvite.getCode());
+        serviceInviteCompleter.withInvite(anInvite).complete();
     }
 
     private InviteEntity createInvite() {
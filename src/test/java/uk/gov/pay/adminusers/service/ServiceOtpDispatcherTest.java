@@ -6,11 +6,8 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import uk.gov.pay.adminusers.model.InviteType;
-import uk.gov.pay.adminusers.persistence.dao.InviteDao;
 import uk.gov.pay.adminusers.persistence.entity.InviteEntity;
 
-import java.util.Optional;
-
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.Mockito.when;
@@ -19,8 +16,6 @@ import static uk.gov.pay.adminusers.service.NotificationService.OtpNotifySmsTemp
 @RunWith(MockitoJUnitRunner.class)
 public class ServiceOtpDispatcherTest {
 
-    @Mock
-    private InviteDao inviteDao;
     @Mock
     private SecondFactorAuthenticator secondFactorAuthenticator;
     @Mock
@@ -30,7 +25,7 @@ public class ServiceOtpDispatcherTest {
 
     @Before
     public void before() {
-        serviceOtpDispatcher = new ServiceOtpDispatcher(inviteDao, secondFactorAuthenticator, notificationService);
+        serviceOtpDispatcher = new ServiceOtpDispatcher(secondFactorAuthenticator, notificationService);
     }
 
     @Test
@@ -43,22 +38,18 @@ public class ServiceOtpDispatcherTest {
         inviteEntity.setOtpKey("otp-key");
         inviteEntity.setTelephoneNumber(telephone);
 
-        when(inviteDao.findByCode(inviteCode)).thenReturn(Optional.of(inviteEntity));
         when(secondFactorAuthenticator.newPassCode("otp-key")).thenReturn(123456);
         when(notificationService.sendSecondFactorPasscodeSms(telephone, "123456", SELF_INITIATED_CREATE_NEW_USER_AND_SERVICE))
                 .thenReturn("success code from notify");
-        boolean dispatched = serviceOtpDispatcher.dispatchOtp(inviteCode);
+        boolean dispatched = serviceOtpDispatcher.withInvite(inviteEntity).dispatchOtp();
 
         assertThat(dispatched,is(true));
     }
 
     @Test
-    public void shouldFail_whenDispatchServiceOtp_ifInviteEntityNotFound() {
-
-        String inviteCode = "non-existent-code";
-        when(inviteDao.findByCode(inviteCode)).thenReturn(Optional.empty());
+    public void shouldFail_whenDispatchServiceOtp_ifNoInviteEntityWasRouted() {
 
-        boolean dispatched = serviceOtpDispatcher.dispatchOtp(inviteCode);
+        boolean dispatched = serviceOtpDispatcher.dispatchOtp();
 
         assertThat(dispatched,is(false));
     }
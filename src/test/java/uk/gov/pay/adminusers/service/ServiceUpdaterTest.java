@@ -1,5 +1,6 @@
 package uk.gov.pay.adminusers.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.BooleanNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -13,6 +14,7 @@ import uk.gov.pay.adminusers.model.Service;
 import uk.gov.pay.adminusers.model.ServiceUpdateRequest;
 import uk.gov.pay.adminusers.model.UpdateMerchantDetailsRequest;
 import uk.gov.pay.adminusers.persistence.dao.ServiceDao;
+import uk.gov.pay.adminusers.persistence.entity.GatewayAccountIdEntity;
 import uk.gov.pay.adminusers.persistence.entity.MerchantDetailsEntity;
 import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
 import uk.gov.pay.adminusers.persistence.entity.service.ServiceNameEntity;
@@ -29,6 +31,7 @@ import static java.util.Optional.of;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.ignoreStubs;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
@@ -44,11 +47,12 @@ public class ServiceUpdaterTest {
     private static final String NON_EXISTENT_SERVICE_EXTERNAL_ID = "xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx";
     public static final String SERVICE_ID = randomUuid();
     private ServiceDao serviceDao = mock(ServiceDao.class);
+    private EmailService emailService = mock(EmailService.class);
     private ServiceUpdater updater;
 
     @Before
     public void before() {
-        updater = new ServiceUpdater(serviceDao);
+        updater = new ServiceUpdater(serviceDao, emailService);
     }
 
     @Test
@@ -79,6 +83,20 @@ public class ServiceUpdaterTest {
         verify(serviceDao).merge(serviceEntity);
     }
 
+    @Test
+    public void shouldInvalidateCachedEmailContent_whenMerchantDetailsUpdated() throws ServiceNotFoundException {
+        UpdateMerchantDetailsRequest request = new UpdateMerchantDetailsRequest(
+                "name", "03069990000", "line 1", null, "city", "postcode", "GB", "dd-merchant@example.com"
+        );
+        String gatewayAccountId = valueOf(1234);
+        ServiceEntity serviceEntity = aServiceEntity().withGatewayAccounts(List.of(new GatewayAccountIdEntity(gatewayAccountId, null))).build();
+        when(serviceDao.findByExternalId(SERVICE_ID)).thenReturn(of(serviceEntity));
+
+        updater.doUpdateMerchantDetails(SERVICE_ID, request);
+
+        verify(emailService).invalidateTemplateMappingsFor(List.of(gatewayAccountId));
+    }
+
     @Test(expected = ServiceNotFoundException.class)
     public void shouldError_updateMerchantDetails_whenServiceNotFound() throws ServiceNotFoundException {
         String name = "name";
@@ -145,7 +163,7 @@ public class ServiceUpdaterTest {
         when(request.getPath()).thenReturn("gateway_account_ids");
         when(request.valueAsList()).thenReturn(gatewayAccountIdsToUpdate);
         when(serviceDao.findByExternalId(SERVICE_ID)).thenReturn(of(serviceEntity));
-        when(serviceDao.checkIfGatewayAccountsUsed(gatewayAccountIdsToUpdate)).thenReturn(false);
+        when(serviceDao.findGatewayAccountIdsInUse(gatewayAccountIdsToUpdate)).thenReturn(List.of());
         when(serviceEntity.toService()).thenReturn(Service.from());
 
         Optional<Service> maybeService = updater.doUpdate(SERVICE_ID, request);
@@ -164,7 +182,7 @@ public class ServiceUpdaterTest {
         when(request.getPath()).thenReturn("gateway_account_ids");
         when(request.valueAsList()).thenReturn(gatewayAccountIdsToUpdate);
         when(serviceDao.findByExternalId(SERVICE_ID)).thenReturn(of(serviceEntity));
-        when(serviceDao.checkIfGatewayAccountsUsed(gatewayAccountIdsToUpdate)).thenReturn(true);
+        when(serviceDao.findGatewayAccountIdsInUse(gatewayAccountIdsToUpdate)).thenReturn(List.of("2"));
 
         Optional<Service> maybeService = updater.doUpdate(SERVICE_ID, request);
 
@@ -173,6 +191,27 @@ public class ServiceUpdaterTest {
         verify(serviceDao, times(0)).merge(serviceEntity);
     }
 
+    @Test
+    public void shouldCheckGatewayAccountsFromAllOperationsInOneQuery_andMergeOnce() {
+        ServiceEntity serviceEntity = mock(ServiceEntity.class);
+        List<ServiceUpdateRequest> requests = List.of(
+                gatewayAccountIdsUpdateRequest("1", "2"),
+                serviceUpdateRequest("replace", "service_name/en", "new-en-name"),
+                gatewayAccountIdsUpdateRequest("2", "3"));
+
+        when(serviceDao.findByExternalId(SERVICE_ID)).thenReturn(of(serviceEntity));
+        when(serviceDao.findGatewayAccountIdsInUse(List.of("1", "2", "3"))).thenReturn(List.of());
+        when(serviceEntity.toService()).thenReturn(Service.from());
+
+        Optional<Service> maybeService = updater.doUpdate(SERVICE_ID, requests);
+
+        assertThat(maybeService.isPresent(), is(true));
+        verify(serviceDao, times(1)).findGatewayAccountIdsInUse(any());
+        verify(serviceEntity).addGatewayAccountIds("1", "2");
+        verify(serviceEntity).addGatewayAccountIds("2", "3");
+        verify(serviceDao, times(1)).merge(serviceEntity);
+    }
+
     @Test
     public void shouldUpdateServiceNameSuccessfully() {
         String nameToUpdate = "new-cy-name";
@@ -292,7 +331,7 @@ public class ServiceUpdaterTest {
         Optional<Service> maybeService = updater.doUpdate(SERVICE_ID, serviceUpdateRequests);
 
         assertThat(maybeService.isPresent(), is(true));
-        verify(serviceDao, times(8)).merge(serviceEntity);
+        verify(serviceDao, times(1)).merge(serviceEntity);
         assertThat(maybeService.get().getMerchantDetails().getName(), is(name));
         assertThat(maybeService.get().getMerchantDetails().getAddressLine1(), is(addressLine1));
         assertThat(maybeService.get().getMerchantDetails().getAddressLine2(), is(addressLine2));
@@ -323,6 +362,13 @@ public class ServiceUpdaterTest {
         assertThat(maybeService.get().getMerchantDetails().getAddressLine1(), is(updatedAddressLine1));
     }
 
+    private static ServiceUpdateRequest gatewayAccountIdsUpdateRequest(String... gatewayAccountIds) {
+        return ServiceUpdateRequest.from(new ObjectMapper().valueToTree(Map.of(
+                "op", "add",
+                "path", "gateway_account_ids",
+                "value", List.of(gatewayAccountIds))));
+    }
+
     private static ServiceUpdateRequest serviceUpdateRequest(String op, String path, String value) {
         return ServiceUpdateRequest.from(
                 new ObjectNode(JsonNodeFactory.instance, Map.of(
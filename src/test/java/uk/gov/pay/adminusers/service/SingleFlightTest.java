@@ -0,0 +1,139 @@
+package uk.gov.pay.adminusers.service;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.Duration;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.ws.rs.WebApplicationException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 10;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final ExecutorService executorService = Executors.newFixedThreadPool(CALLERS);
+    private final CountDownLatch loadReleased = new CountDownLatch(1);
+    private final AtomicInteger loaderCalls = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        loadReleased.countDown();
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void shouldShareOneLoad_betweenConcurrentCallersForTheSameKey() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", Duration.seconds(10), metricRegistry);
+
+        List<Future<String>> results = loadConcurrently(singleFlight, () -> "a-value");
+        loadReleased.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS), is("a-value"));
+        }
+        assertThat(loaderCalls.get(), is(1));
+        assertThat(metricRegistry.meter("test.loads").getCount(), is(1L));
+        assertThat(metricRegistry.meter("test.coalesced").getCount(), is((long) CALLERS - 1));
+    }
+
+    @Test
+    public void shouldPassTheLoadersException_toEveryCaller() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", Duration.seconds(10), metricRegistry);
+        IllegalStateException exception = new IllegalStateException("the database is unavailable");
+
+        List<Future<String>> results = loadConcurrently(singleFlight, () -> {
+            throw exception;
+        });
+        loadReleased.countDown();
+
+        for (Future<String> result : results) {
+            try {
+                result.get(10, TimeUnit.SECONDS);
+                fail("Expected the loader's exception");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(), is(sameInstance(exception)));
+            }
+        }
+        assertThat(loaderCalls.get(), is(1));
+    }
+
+    @Test
+    public void shouldAnswerWith503_whenWaitingForTheLoadTimesOut() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", Duration.milliseconds(50), metricRegistry);
+        Future<String> firstCaller = executorService.submit(() -> singleFlight.load("a-key", () -> {
+            awaitRelease();
+            return "a-value";
+        }));
+        waitUntil(() -> loaderCalls.get() == 1);
+
+        try {
+            singleFlight.load("a-key", () -> "another-value");
+            fail("Expected the wait to time out");
+        } catch (WebApplicationException e) {
+            assertThat(e.getResponse().getStatus(), is(503));
+        }
+
+        loadReleased.countDown();
+        assertThat(firstCaller.get(10, TimeUnit.SECONDS), is("a-value"));
+        assertThat(metricRegistry.meter("test.timeouts").getCount(), is(1L));
+    }
+
+    @Test
+    public void shouldLoadAgain_onceTheLoadInFlightHasCompleted() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test", Duration.seconds(10), metricRegistry);
+
+        assertThat(singleFlight.load("a-key", loaderCalls::incrementAndGet), is(1));
+        assertThat(singleFlight.load("a-key", loaderCalls::incrementAndGet), is(2));
+        assertThat(metricRegistry.meter("test.coalesced").getCount(), is(0L));
+    }
+
+    private List<Future<String>> loadConcurrently(SingleFlight<String, String> singleFlight,
+                                                  Supplier<String> loader) throws InterruptedException {
+        Supplier<String> slowLoader = () -> {
+            awaitRelease();
+            return loader.get();
+        };
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executorService.submit(() -> singleFlight.load("a-key", slowLoader)));
+        waitUntil(() -> loaderCalls.get() == 1);
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executorService.submit(() -> singleFlight.load("a-key", slowLoader)));
+        }
+        waitUntil(() -> metricRegistry.meter("test.coalesced").getCount() == CALLERS - 1);
+        return results;
+    }
+
+    private void awaitRelease() {
+        loaderCalls.incrementAndGet();
+        try {
+            loadReleased.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean(), is(true));
+    }
+}
@@ -77,10 +77,10 @@ public class UserInviteCompleterTest {
         anInvite.setService(service);
         UserEntity user = UserEntity.from(aUser(anInvite.getEmail()));
 
-        when(mockInviteDao.findByCode(inviteCode)).thenReturn(Optional.of(anInvite));
+        when(mockInviteDao.findByIdForUpdate(anInvite.getId())).thenReturn(Optional.of(anInvite));
         when(mockUserDao.findByEmail(email)).thenReturn(Optional.of(user));
 
-        Optional<InviteCompleteResponse> completedInvite = userInviteCompleter.complete(inviteCode);
+        Optional<InviteCompleteResponse> completedInvite = userInviteCompleter.withInvite(anInvite).complete();
 
         ArgumentCaptor<UserEntity> persistedUser = ArgumentCaptor.forClass(UserEntity.class);
         verify(mockUserDao).merge(persistedUser.capture());
@@ -103,12 +103,12 @@ public class UserInviteCompleterTest {
         anInvite.setService(null);
         UserEntity user = UserEntity.from(aUser(anInvite.getEmail()));
 
-        when(mockInviteDao.findByCode(inviteCode)).thenReturn(Optional.of(anInvite));
+        when(mockInviteDao.findByIdForUpdate(anInvite.getId())).thenReturn(Optional.of(anInvite));
         when(mockUserDao.findByEmail(email)).thenReturn(Optional.of(user));
 
         thrown.expect(WebApplicationException.class);
         thrown.expectMessage("HTTP 500 Internal Server Error");
-        userInviteCompleter.complete(inviteCode);
+        userInviteCompleter.withInvite(anInvite).complete();
     }
 
     @Test
@@ -123,12 +123,12 @@ public class UserInviteCompleterTest {
         anInvite.setService(service);
         UserEntity user = UserEntity.from(aUser(anInvite.getEmail()));
 
-        when(mockInviteDao.findByCode(inviteCode)).thenReturn(Optional.of(anInvite));
+        when(mockInviteDao.findByIdForUpdate(anInvite.getId())).thenReturn(Optional.of(anInvite));
         when(mockUserDao.findByEmail(email)).thenReturn(Optional.of(user));
 
         thrown.expect(WebApplicationException.class);
         thrown.expectMessage("HTTP 500 Internal Server Error");
-        userInviteCompleter.complete(inviteCode);
+        userInviteCompleter.withInvite(anInvite).complete();
 
     }
 
@@ -139,11 +139,10 @@ public class UserInviteCompleterTest {
         anInvite.setType(InviteType.USER);
         anInvite.setDisabled(true);
 
-        when(mockInviteDao.findByCode(inviteCode)).thenReturn(Optional.of(anInvite));
 
         thrown.expect(WebApplicationException.class);
         thrown.expectMessage("HTTP 410 Gone");
-        userInviteCompleter.complete(anInvite.getCode());
+        userInviteCompleter.withInvite(anInvite).complete();
     }
 
     @Test
@@ -152,11 +151,24 @@ public class UserInviteCompleterTest {
         anInvite.setType(InviteType.USER);
         anInvite.setExpiryDate(ZonedDateTime.now().minusDays(1));
 
-        when(mockInviteDao.findByCode(inviteCode)).thenReturn(Optional.of(anInvite));
 
         thrown.expect(WebApplicationException.class);
         thrown.expectMessage("HTTP 410 Gone");
-        userInviteCompleter.complete(anInvite.getCode());
+        userInviteCompleter.withInvite(anInvite).complete();
+    }
+
+    @Test
+    public void shouldThrowInviteLockedException_whenInviteIsDisabledByAnotherRequestFirst() {
+        InviteEntity anInvite = createInvite();
+        anInvite.setType(InviteType.USER);
+
+        InviteEntity disabledInvite = createInvite();
+        disabledInvite.setDisabled(true);
+        when(mockInviteDao.findByIdForUpdate(anInvite.getId())).thenReturn(Optional.of(disabledInvite));
+
+        thrown.expect(WebApplicationException.class);
+        thrown.expectMessage("HTTP 410 Gone");
+        userInviteCompleter.withInvite(anInvite).complete();
     }
 
     @Test
@@ -164,12 +176,12 @@ public class UserInviteCompleterTest {
         InviteEntity anInvite = createInvite();
         anInvite.setType(InviteType.USER);
 
-        when(mockInviteDao.findByCode(inviteCode)).thenReturn(Optional.of(anInvite));
+        when(mockInviteDao.findByIdForUpdate(anInvite.getId())).thenReturn(Optional.of(anInvite));
         when(mockUserDao.findByEmail(email)).thenReturn(Optional.empty());
 
         thrown.expect(WebApplicationException.class);
         thrown.expectMessage("HTTP 500 Internal Server Error");
-        userInviteCompleter.complete(anInvite.getCode());
+        userInviteCompleter.withInvite(anInvite).complete();
     }
 
     private InviteEntity createInvite() {
@@ -1,7 +1,9 @@
 package uk.gov.pay.adminusers.service;
 
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -11,11 +13,13 @@ import uk.gov.pay.adminusers.app.config.AdminUsersConfig;
 import uk.gov.pay.adminusers.app.config.LinksConfig;
 import uk.gov.pay.adminusers.model.Invite;
 import uk.gov.pay.adminusers.model.InviteUserRequest;
+import uk.gov.pay.adminusers.model.InviteUsersRequest;
 import uk.gov.pay.adminusers.model.SecondFactorMethod;
 import uk.gov.pay.adminusers.model.Service;
 import uk.gov.pay.adminusers.model.ServiceName;
 import uk.gov.pay.adminusers.model.ServiceRole;
 import uk.gov.pay.adminusers.model.User;
+import uk.gov.pay.adminusers.model.UserInviteResult;
 import uk.gov.pay.adminusers.persistence.dao.InviteDao;
 import uk.gov.pay.adminusers.persistence.dao.RoleDao;
 import uk.gov.pay.adminusers.persistence.dao.ServiceDao;
@@ -29,12 +33,10 @@ import uk.gov.pay.adminusers.persistence.entity.service.ServiceNameEntity;
 import uk.gov.pay.commons.model.SupportedLanguage;
 
 import javax.ws.rs.WebApplicationException;
-import java.time.ZonedDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
-import static java.util.Collections.emptyList;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNull.notNullValue;
 import static org.junit.Assert.assertFalse;
@@ -44,6 +46,8 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.matches;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.pay.adminusers.app.util.RandomIdGenerator.randomInt;
@@ -52,6 +56,7 @@ import static uk.gov.pay.adminusers.model.InviteRequest.FIELD_EMAIL;
 import static uk.gov.pay.adminusers.model.InviteRequest.FIELD_ROLE_NAME;
 import static uk.gov.pay.adminusers.model.InviteUserRequest.FIELD_SENDER;
 import static uk.gov.pay.adminusers.model.InviteUserRequest.FIELD_SERVICE_EXTERNAL_ID;
+import static uk.gov.pay.adminusers.model.InviteUsersRequest.FIELD_EMAILS;
 import static uk.gov.pay.adminusers.model.Role.role;
 import static uk.gov.pay.adminusers.persistence.entity.Role.ADMIN;
 
@@ -84,7 +89,8 @@ public class UserInviteCreatorTest {
         LinksConfig mockLinks = mock(LinksConfig.class);
         when(mockLinks.getSelfserviceUrl()).thenReturn(SELFSERVICE_URL);
         when(mockConfig.getLinks()).thenReturn(mockLinks);
-        userInviteCreator = new UserInviteCreator(mockInviteDao, mockUserDao, mockRoleDao, linksConfig, mockNotificationService, mockServiceDao);
+        userInviteCreator = new UserInviteCreator(mockInviteDao, mockUserDao, mockRoleDao, linksConfig, mockNotificationService, mockServiceDao,
+                MoreExecutors.newDirectExecutorService());
     }
 
     @Test
@@ -154,7 +160,7 @@ public class UserInviteCreatorTest {
         InviteEntity anInvite = anInvite(email, inviteCode, "otpKey", someOtherSender, service, role);
 
 
-        when(mockInviteDao.findByEmail(email)).thenReturn(List.of(anInvite));
+        when(mockInviteDao.findActiveByEmailAndServiceId(email, serviceExternalId)).thenReturn(Optional.of(anInvite));
         InviteUserRequest inviteUserRequest = inviteRequestFrom(senderExternalId, email, roleName);
         thrown.expect(WebApplicationException.class);
         thrown.expectMessage("HTTP 409 Conflict");
@@ -252,38 +258,73 @@ public class UserInviteCreatorTest {
     }
 
     @Test
-    public void create_shouldOnlyConsider_nonExpiredNonDisabledSameService_whenCheckingForExistingInvite() {
+    public void createBatch_shouldReportTheOutcomeForEachAddress_andOnlyEmailCreatedAndResentInvites() {
 
-        InviteEntity validInvite = mockInviteSuccessExistingInvite();
-        InviteEntity expiredInvite = new InviteEntity();
-        expiredInvite.setExpiryDate(ZonedDateTime.now().minusDays(2));
-        expiredInvite.setService(validInvite.getService());
+        InviteEntity resentInvite = mockInviteSuccessExistingInvite();
+        ServiceEntity service = resentInvite.getService();
+        UserEntity sender = resentInvite.getSender();
+        when(mockUserDao.findByExternalId(senderExternalId)).thenReturn(Optional.of(sender));
+        when(mockRoleDao.findByRoleName(roleName)).thenReturn(Optional.of(new RoleEntity()));
 
-        InviteEntity disabledInvite = new InviteEntity();
-        disabledInvite.setDisabled(true);
-        disabledInvite.setExpiryDate(ZonedDateTime.now().plusDays(1));
-        disabledInvite.setService(validInvite.getService());
+        UserEntity existingUserInService = UserEntity.from(aUser("in-service@example.com"));
+        when(mockUserDao.findByEmails(List.of("new@example.com", "in-service@example.com", "conflict@example.com", email)))
+                .thenReturn(List.of(existingUserInService));
+
+        UserEntity otherSender = new UserEntity();
+        otherSender.setExternalId("other-sender");
+        InviteEntity conflictingInvite = anInvite("conflict@example.com", randomUuid(), "otpKey", otherSender, service, new RoleEntity());
+        when(mockInviteDao.findActiveByEmailsAndServiceId(List.of("new@example.com", "in-service@example.com", "conflict@example.com", email), serviceExternalId))
+                .thenReturn(List.of(conflictingInvite, resentInvite));
+
+        Optional<List<UserInviteResult>> results = userInviteCreator.doInvites(inviteUsersRequestFrom(
+                "new@example.com", "in-service@example.com", "conflict@example.com", email, "new@example.com"));
+
+        assertThat(results.isPresent(), is(true));
+        assertThat(results.get().size(), is(4));
+        assertThat(results.get().get(0).getResult(), is(UserInviteResult.Outcome.CREATED));
+        assertThat(results.get().get(0).getInvite().getEmail(), is("new@example.com"));
+        assertThat(results.get().get(1).getResult(), is(UserInviteResult.Outcome.ALREADY_IN_SERVICE));
+        assertThat(results.get().get(2).getResult(), is(UserInviteResult.Outcome.CONFLICTING_INVITE));
+        assertThat(results.get().get(3).getResult(), is(UserInviteResult.Outcome.RESENT));
+        assertThat(results.get().get(3).getInvite().getCode(), is(resentInvite.getCode()));
+
+        verify(mockInviteDao, times(1)).persist(expectedInvite.capture());
+        assertThat(expectedInvite.getValue().getEmail(), is("new@example.com"));
+        assertThat(expectedInvite.getValue().getSender(), is(sender));
+        verify(mockNotificationService).sendInviteEmail(eq(senderEmail), eq("new@example.com"), matches("^http://selfservice/invites/[0-9a-z]{32}$"));
+        verify(mockNotificationService).sendInviteEmail(eq(senderEmail), eq(email), eq("http://selfservice/invites/" + resentInvite.getCode()));
+        verify(mockNotificationService, times(2)).sendInviteEmail(any(), any(), any());
+    }
 
-        InviteEntity emptyServiceInvite = new InviteEntity();
-        emptyServiceInvite.setExpiryDate(ZonedDateTime.now().plusDays(1));
+    @Test
+    public void createBatch_shouldResendAnActiveInviteStoredWithAMixedCaseAddress_ratherThanCreateAnother() {
 
-        InviteEntity nonMatchingServiceInvite = new InviteEntity();
-        ServiceEntity serviceEntity = ServiceEntity.from(Service.from(new ServiceName("another-service")));
-        nonMatchingServiceInvite.setService(serviceEntity);
-        nonMatchingServiceInvite.setExpiryDate(ZonedDateTime.now().plusDays(1));
+        InviteEntity existingInvite = mockInviteSuccessExistingInvite();
+        existingInvite.setEmail("Invited@Example.com");
+        when(mockUserDao.findByExternalId(senderExternalId)).thenReturn(Optional.of(existingInvite.getSender()));
+        when(mockRoleDao.findByRoleName(roleName)).thenReturn(Optional.of(new RoleEntity()));
+        when(mockInviteDao.findActiveByEmailsAndServiceId(List.of(email), serviceExternalId)).thenReturn(List.of(existingInvite));
 
-        when(mockInviteDao.findByEmail(email)).thenReturn(List.of(expiredInvite, disabledInvite, emptyServiceInvite, nonMatchingServiceInvite, validInvite));
+        Optional<List<UserInviteResult>> results = userInviteCreator.doInvites(inviteUsersRequestFrom("INVITED@example.com"));
 
-        when(mockUserDao.findByEmail(email)).thenReturn(Optional.of(UserEntity.from(aUser(email))));
-        when(mockNotificationService.sendInviteExistingUserEmail(eq(senderEmail), eq(email), matches("^http://selfservice/invites/[0-9a-z]{32}$"),
-                eq(validInvite.getService().getServiceNames().get(SupportedLanguage.ENGLISH).getName()))).thenReturn("random-notify-id");
+        assertThat(results.get().size(), is(1));
+        assertThat(results.get().get(0).getResult(), is(UserInviteResult.Outcome.RESENT));
+        verify(mockInviteDao, never()).persist(any());
+    }
 
-        InviteUserRequest inviteUserRequest = inviteRequestFrom(senderExternalId, email, roleName);
-        Optional<Invite> invite = userInviteCreator.doInvite(inviteUserRequest);
+    @Test
+    public void createBatch_shouldErrorForbidden_ifSenderCannotInviteUsersToTheSpecifiedService() {
 
-        assertThat(invite.isPresent(), is(true));
-        assertThat(invite.get().getCode(), is(validInvite.getCode()));
-        assertThat(invite.get().getEmail(), is(validInvite.getEmail()));
+        ServiceEntity service = new ServiceEntity();
+        service.setId(serviceId);
+        service.setExternalId(serviceExternalId);
+        when(mockServiceDao.findByExternalId(serviceExternalId)).thenReturn(Optional.of(service));
+        when(mockRoleDao.findByRoleName(roleName)).thenReturn(Optional.of(new RoleEntity()));
+        when(mockUserDao.findByExternalId(senderExternalId)).thenReturn(Optional.of(new UserEntity()));
+
+        thrown.expect(WebApplicationException.class);
+        thrown.expectMessage("HTTP 403 Forbidden");
+        userInviteCreator.doInvites(inviteUsersRequestFrom(email));
     }
 
     private InviteEntity mockInviteSuccessExistingInvite() {
@@ -303,7 +344,7 @@ public class UserInviteCreatorTest {
 
         String inviteCode = randomUuid();
         InviteEntity anInvite = anInvite(email, inviteCode, "otpKey", sameSender, service, role);
-        when(mockInviteDao.findByEmail(email)).thenReturn(List.of(anInvite));
+        when(mockInviteDao.findActiveByEmailAndServiceId(email, serviceExternalId)).thenReturn(Optional.of(anInvite));
         return anInvite;
     }
 
@@ -314,7 +355,7 @@ public class UserInviteCreatorTest {
         service.setExternalId(serviceExternalId);
 
         when(mockUserDao.findByEmail(email)).thenReturn(Optional.empty());
-        when(mockInviteDao.findByEmail(email)).thenReturn(emptyList());
+        when(mockInviteDao.findActiveByEmailAndServiceId(email, serviceExternalId)).thenReturn(Optional.empty());
         when(mockServiceDao.findByExternalId(serviceExternalId)).thenReturn(Optional.of(service));
         when(mockRoleDao.findByRoleName(roleName)).thenReturn(Optional.of(new RoleEntity()));
         when(linksConfig.getSelfserviceInvitesUrl()).thenReturn("http://selfservice/invites");
@@ -351,6 +392,18 @@ public class UserInviteCreatorTest {
         return InviteUserRequest.from(json);
     }
 
+    private InviteUsersRequest inviteUsersRequestFrom(String... emails) {
+        ObjectNode json = JsonNodeFactory.instance.objectNode();
+        json.put(FIELD_SENDER, senderExternalId);
+        json.put(FIELD_ROLE_NAME, roleName);
+        json.put(FIELD_SERVICE_EXTERNAL_ID, serviceExternalId);
+        ArrayNode emailsNode = json.putArray(FIELD_EMAILS);
+        for (String email : emails) {
+            emailsNode.add(email);
+        }
+        return InviteUsersRequest.from(json);
+    }
+
     private User aUser(String email) {
         Service service = Service.from(serviceId, serviceExternalId, new ServiceName(Service.DEFAULT_NAME_VALUE));
         ServiceRole serviceRole = ServiceRole.from(service, role(ADMIN.getId(),"Admin", "Administrator"));
@@ -14,7 +14,6 @@ import uk.gov.pay.adminusers.persistence.dao.InviteDao;
 import uk.gov.pay.adminusers.persistence.entity.InviteEntity;
 
 import java.util.Map;
-import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
@@ -54,11 +53,10 @@ public class UserOtpDispatcherTest {
         JsonNode payload = new ObjectMapper().valueToTree(Map.of("telephone_number", telephone, "password", "random"));
         userOtpDispatcher = userOtpDispatcher.withData(InviteOtpRequest.from(payload));
 
-        when(inviteDao.findByCode(inviteCode)).thenReturn(Optional.of(inviteEntity));
         when(secondFactorAuthenticator.newPassCode("otp-key")).thenReturn(123456);
         when(notificationService.sendSecondFactorPasscodeSms(telephone, "123456", CREATE_USER_IN_RESPONSE_TO_INVITATION_TO_SERVICE))
                 .thenReturn("success code from notify");
-        boolean dispatched = userOtpDispatcher.dispatchOtp(inviteCode);
+        boolean dispatched = userOtpDispatcher.withInvite(inviteEntity).dispatchOtp();
 
         verify(inviteDao).merge(expectedInvite.capture());
         assertThat(dispatched, is(true));
@@ -67,11 +65,8 @@ public class UserOtpDispatcherTest {
     }
 
     @Test
-    public void shouldFail_whenDispatchServiceOtp_ifInviteEntityNotFound() {
-        String inviteCode = "non-existent-code";
-        when(inviteDao.findByCode(inviteCode)).thenReturn(Optional.empty());
-
-        boolean dispatched = userOtpDispatcher.dispatchOtp(inviteCode);
+    public void shouldFail_whenDispatchServiceOtp_ifNoInviteEntityWasRouted() {
+        boolean dispatched = userOtpDispatcher.dispatchOtp();
 
         assertThat(dispatched,is(false));
     }
@@ -17,6 +17,7 @@ import uk.gov.pay.adminusers.model.Role;
 import uk.gov.pay.adminusers.model.SecondFactorMethod;
 import uk.gov.pay.adminusers.model.Service;
 import uk.gov.pay.adminusers.model.User;
+import uk.gov.pay.adminusers.model.UserSession;
 import uk.gov.pay.adminusers.persistence.dao.UserDao;
 import uk.gov.pay.adminusers.persistence.entity.RoleEntity;
 import uk.gov.pay.adminusers.persistence.entity.ServiceEntity;
@@ -236,7 +237,7 @@ public class UserServicesTest {
         Optional<UserEntity> userEntityOptional = Optional.of(userEntity);
         when(userDao.findByExternalId(USER_EXTERNAL_ID)).thenReturn(userEntityOptional);
 
-        Optional<User> userOptional = userServices.patchUser(USER_EXTERNAL_ID, PatchRequest.from(node));
+        Optional<User> userOptional = userServices.patchUser(USER_EXTERNAL_ID, PatchRequest.getPatchRequests(node));
         assertTrue(userOptional.isPresent());
 
         assertThat(userOptional.get().getExternalId(), is(USER_EXTERNAL_ID));
@@ -256,13 +257,88 @@ public class UserServicesTest {
 
         assertFalse(user.isDisabled());
 
-        Optional<User> userOptional = userServices.patchUser(USER_EXTERNAL_ID, PatchRequest.from(node));
+        Optional<User> userOptional = userServices.patchUser(USER_EXTERNAL_ID, PatchRequest.getPatchRequests(node));
         assertTrue(userOptional.isPresent());
 
         assertThat(userOptional.get().getExternalId(), is(USER_EXTERNAL_ID));
         assertTrue(userOptional.get().isDisabled());
     }
 
+    @Test
+    public void shouldOnlyLookUpUserSessionOnce_whenFetchedRepeatedly() {
+        UserSession userSession = new UserSession(1, false, SecondFactorMethod.SMS);
+        when(userDao.findSessionByExternalId(USER_EXTERNAL_ID)).thenReturn(Optional.of(userSession));
+
+        assertThat(userServices.findUserSessionByExternalId(USER_EXTERNAL_ID), is(Optional.of(userSession)));
+        assertThat(userServices.findUserSessionByExternalId(USER_EXTERNAL_ID.toUpperCase()), is(Optional.of(userSession)));
+
+        verify(userDao, times(1)).findSessionByExternalId(any(String.class));
+    }
+
+    @Test
+    public void shouldNotCacheMissingUserSession() {
+        when(userDao.findSessionByExternalId(USER_EXTERNAL_ID)).thenReturn(Optional.empty());
+
+        assertFalse(userServices.findUserSessionByExternalId(USER_EXTERNAL_ID).isPresent());
+        assertFalse(userServices.findUserSessionByExternalId(USER_EXTERNAL_ID).isPresent());
+
+        verify(userDao, times(2)).findSessionByExternalId(USER_EXTERNAL_ID);
+    }
+
+    @Test
+    public void shouldLookUpUserSessionAgain_afterIncrementingSessionVersion() {
+        UserEntity userEntity = aUserEntityWithTrimmings(aUser());
+        when(userDao.findByExternalId(USER_EXTERNAL_ID)).thenReturn(Optional.of(userEntity));
+        when(userDao.findSessionByExternalId(USER_EXTERNAL_ID))
+                .thenReturn(Optional.of(new UserSession(0, false, SecondFactorMethod.SMS)))
+                .thenReturn(Optional.of(new UserSession(1, false, SecondFactorMethod.SMS)));
+
+        assertThat(userServices.findUserSessionByExternalId(USER_EXTERNAL_ID).get().getSessionVersion(), is(0));
+
+        JsonNode node = new ObjectMapper().valueToTree(Map.of("path", "sessionVersion", "op", "append", "value", "1"));
+        userServices.patchUser(USER_EXTERNAL_ID, PatchRequest.getPatchRequests(node));
+
+        assertThat(userServices.findUserSessionByExternalId(USER_EXTERNAL_ID).get().getSessionVersion(), is(1));
+        verify(userDao, times(2)).findSessionByExternalId(USER_EXTERNAL_ID);
+    }
+
+    @Test
+    public void shouldLookUpUserSessionAgain_afterDisablingUser() {
+        UserEntity userEntity = aUserEntityWithTrimmings(aUser());
+        when(userDao.findByExternalId(USER_EXTERNAL_ID)).thenReturn(Optional.of(userEntity));
+        when(userDao.findSessionByExternalId(USER_EXTERNAL_ID))
+                .thenReturn(Optional.of(new UserSession(0, false, SecondFactorMethod.SMS)))
+                .thenReturn(Optional.of(new UserSession(0, true, SecondFactorMethod.SMS)));
+
+        assertFalse(userServices.findUserSessionByExternalId(USER_EXTERNAL_ID).get().isDisabled());
+
+        JsonNode node = new ObjectMapper().valueToTree(Map.of("path", "disabled", "op", "replace", "value", "true"));
+        userServices.patchUser(USER_EXTERNAL_ID, PatchRequest.getPatchRequests(node));
+
+        assertTrue(userServices.findUserSessionByExternalId(USER_EXTERNAL_ID).get().isDisabled());
+        verify(userDao, times(2)).findSessionByExternalId(USER_EXTERNAL_ID);
+    }
+
+    @Test
+    public void shouldLookUpUserSessionAgain_whenItWasCachedWhileTheUserWasBeingLocked() {
+        User user = aUser();
+        user.setLoginCounter(2);
+        when(userDao.findByUsername(USER_USERNAME)).thenReturn(Optional.of(UserEntity.from(user)));
+        when(userDao.findSessionByExternalId(USER_EXTERNAL_ID))
+                .thenReturn(Optional.of(new UserSession(0, false, SecondFactorMethod.SMS)))
+                .thenReturn(Optional.of(new UserSession(0, true, SecondFactorMethod.SMS)));
+        when(userDao.merge(any(UserEntity.class))).thenAnswer(invocation -> {
+            // a concurrent lookup before the lock is committed
+            assertFalse(userServices.findUserSessionByExternalId(USER_EXTERNAL_ID).get().isDisabled());
+            return invocation.getArgument(0);
+        });
+
+        userServices.authenticate(USER_USERNAME, "random-password");
+
+        assertTrue(userServices.findUserSessionByExternalId(USER_EXTERNAL_ID).get().isDisabled());
+        verify(userDao, times(2)).findSessionByExternalId(USER_EXTERNAL_ID);
+    }
+
     @Test
     public void shouldResetLoginCounter_whenTheUserIsEnabled() {
         User user = aUser();
@@ -277,7 +353,7 @@ public class UserServicesTest {
         assertTrue(user.isDisabled());
         assertThat(user.getLoginCounter(), is(11));
 
-        Optional<User> userOptional = userServices.patchUser(USER_EXTERNAL_ID, PatchRequest.from(node));
+        Optional<User> userOptional = userServices.patchUser(USER_EXTERNAL_ID, PatchRequest.getPatchRequests(node));
         assertTrue(userOptional.isPresent());
 
         assertFalse(userOptional.get().isDisabled());
@@ -296,7 +372,7 @@ public class UserServicesTest {
 
         when(userDao.findByExternalId(USER_EXTERNAL_ID)).thenReturn(userEntityOptional);
 
-        Optional<User> userOptional = userServices.patchUser(USER_EXTERNAL_ID, PatchRequest.from(node));
+        Optional<User> userOptional = userServices.patchUser(USER_EXTERNAL_ID, PatchRequest.getPatchRequests(node));
 
         verify(userDao, times(1)).merge(userEntityArgumentCaptor.capture());
 
@@ -319,7 +395,7 @@ public class UserServicesTest {
 
         when(userDao.findByExternalId(USER_EXTERNAL_ID)).thenReturn(userEntityOptional);
 
-        Optional<User> userOptional = userServices.patchUser(USER_EXTERNAL_ID, PatchRequest.from(node));
+        Optional<User> userOptional = userServices.patchUser(USER_EXTERNAL_ID, PatchRequest.getPatchRequests(node));
 
         verify(userDao, times(1)).merge(userEntityArgumentCaptor.capture());
 
@@ -330,6 +406,26 @@ public class UserServicesTest {
         assertThat(userOptional.get().getFeatures(), is(newFeature));
     }
 
+    @Test
+    public void shouldApplyEveryOperationAndMergeOnce_whenPatchingWithSeveral() {
+        UserEntity userEntity = aUserEntityWithTrimmings(aUser());
+        when(userDao.findByExternalId(USER_EXTERNAL_ID)).thenReturn(Optional.of(userEntity));
+
+        JsonNode node = new ObjectMapper().valueToTree(List.of(
+                Map.of("path", "features", "op", "replace", "value", "1,2"),
+                Map.of("path", "telephone_number", "op", "replace", "value", "+441134960000"),
+                Map.of("path", "sessionVersion", "op", "append", "value", "1")));
+
+        Optional<User> userOptional = userServices.patchUser(USER_EXTERNAL_ID, PatchRequest.getPatchRequests(node));
+
+        verify(userDao, times(1)).merge(userEntityArgumentCaptor.capture());
+        UserEntity persistedUser = userEntityArgumentCaptor.getValue();
+        assertThat(persistedUser.getFeatures(), is("1,2"));
+        assertThat(persistedUser.getTelephoneNumber(), is("+441134960000"));
+        assertThat(persistedUser.getSessionVersion(), is(1));
+        assertTrue(userOptional.isPresent());
+    }
+
     @Test
     public void shouldReturnUser_whenAuthenticate2FA_ifSuccessful() {
         ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
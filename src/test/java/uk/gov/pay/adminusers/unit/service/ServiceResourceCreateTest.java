@@ -1,5 +1,6 @@
 package uk.gov.pay.adminusers.unit.service;
 
+import io.dropwizard.jackson.Jackson;
 import io.dropwizard.testing.junit.ResourceTestRule;
 import io.restassured.path.json.JsonPath;
 import org.junit.After;
@@ -80,7 +81,8 @@ public class ServiceResourceCreateTest extends ServiceResourceBaseTest {
                     stripeAgreementService,
                     payAgreementRequestValidator,
                     agreementService,
-                    sendLiveAccountCreatedEmailService))
+                    sendLiveAccountCreatedEmailService,
+                    Jackson.newObjectMapper()))
             .build();
 
     @Captor
@@ -258,7 +260,7 @@ public class ServiceResourceCreateTest extends ServiceResourceBaseTest {
         PAYLOAD_MAP.put(FIELD_GATEWAY_ACCOUNT_IDS, Collections.singletonList(GATEWAY_ACCOUNT_ID));
 
         given(mockedServicesFactory.serviceCreator()).willReturn(serviceCreator);
-        given(mockedServiceDao.checkIfGatewayAccountsUsed(anyList())).willReturn(true);
+        given(mockedServiceDao.findGatewayAccountIdsInUse(anyList())).willReturn(Collections.singletonList(GATEWAY_ACCOUNT_ID));
         Response response = RESOURCES.target(SERVICES_RESOURCE)
                 .request(MediaType.APPLICATION_JSON)
                 .post(Entity.json(PAYLOAD_MAP), Response.class);
@@ -267,7 +269,7 @@ public class ServiceResourceCreateTest extends ServiceResourceBaseTest {
         String body = response.readEntity(String.class);
         JsonPath json = JsonPath.from(body);
         assertThat(json.getList("errors"), hasSize(1));
-        assertThat(json.getList("errors"), containsInAnyOrder("One or more of the following gateway account ids has already assigned to another service: [some-gateway-account-id]"));
+        assertThat(json.getList("errors"), containsInAnyOrder("The following gateway account ids are already assigned to another service: [some-gateway-account-id]"));
         Mockito.verify(mockedServiceDao, never()).persist(serviceEntityArgumentCaptor.capture());
     }
 
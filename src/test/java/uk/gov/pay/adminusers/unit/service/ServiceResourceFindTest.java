@@ -1,12 +1,18 @@
 package uk.gov.pay.adminusers.unit.service;
 
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.jackson.Jackson;
 import io.dropwizard.testing.junit.ResourceTestRule;
+import io.dropwizard.util.Duration;
 import io.restassured.path.json.JsonPath;
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.pay.adminusers.app.config.ServiceLookupCoalescingConfiguration;
+import uk.gov.pay.adminusers.model.Service;
+import uk.gov.pay.adminusers.model.ServiceName;
 import uk.gov.pay.adminusers.persistence.dao.ServiceDao;
 import uk.gov.pay.adminusers.persistence.dao.UserDao;
 import uk.gov.pay.adminusers.persistence.entity.GatewayAccountIdEntity;
@@ -19,11 +25,13 @@ import uk.gov.pay.adminusers.resources.ServiceResource;
 import uk.gov.pay.adminusers.service.GovUkPayAgreementService;
 import uk.gov.pay.adminusers.service.SendLiveAccountCreatedEmailService;
 import uk.gov.pay.adminusers.service.ServiceFinder;
+import uk.gov.pay.adminusers.service.ServiceLookupCoalescer;
 import uk.gov.pay.adminusers.service.ServiceServicesFactory;
 import uk.gov.pay.adminusers.service.StripeAgreementService;
 import uk.gov.pay.adminusers.validations.RequestValidations;
 import uk.gov.pay.commons.model.SupportedLanguage;
 
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.Response;
 import java.util.Collections;
 import java.util.Optional;
@@ -46,7 +54,8 @@ public class ServiceResourceFindTest extends ServiceResourceBaseTest {
 
     private static ServiceServicesFactory mockedServicesFactory = mock(ServiceServicesFactory.class);
 
-    private static ServiceFinder serviceFinder = new ServiceFinder(mockedServiceDao, LINKS_BUILDER);
+    private static ServiceFinder serviceFinder = new ServiceFinder(mockedServiceDao, LINKS_BUILDER,
+            new ServiceLookupCoalescer(serviceLookupCoalescingConfiguration(), new MetricRegistry()));
     private static ServiceRequestValidator serviceRequestValidator = new ServiceRequestValidator(new RequestValidations(), null);
     private static StripeAgreementService stripeAgreementService = mock(StripeAgreementService.class);
     private static GovUkPayAgreementRequestValidator payAgreementRequestValidator = new GovUkPayAgreementRequestValidator(new RequestValidations());
@@ -64,7 +73,8 @@ public class ServiceResourceFindTest extends ServiceResourceBaseTest {
                     stripeAgreementService,
                     payAgreementRequestValidator,
                     agreementService,
-                    sendLiveAccountCreatedEmailService))
+                    sendLiveAccountCreatedEmailService,
+                    Jackson.newObjectMapper()))
             .build();
 
     @Before
@@ -76,6 +86,7 @@ public class ServiceResourceFindTest extends ServiceResourceBaseTest {
     public void shouldGet_existingServiceById_withDefaultEnNameVariant() {
         String serviceExternalId = randomUuid();
         ServiceEntity serviceEntity = ServiceEntityBuilder.aServiceEntity().withExternalId(serviceExternalId).build();
+        given(mockedServiceDao.findVersionByExternalId(serviceExternalId)).willReturn(Optional.of(0L));
         given(mockedServiceDao.findByExternalId(serviceExternalId)).willReturn(Optional.of(serviceEntity));
 
         Response response = RESOURCES.target(format("/v1/api/services/%s", serviceExternalId)).request().get();
@@ -102,6 +113,7 @@ public class ServiceResourceFindTest extends ServiceResourceBaseTest {
                 .withExternalId(serviceExternalId)
                 .withServiceNameEntity(SupportedLanguage.WELSH, CY_SERVICE_NAME)
                 .build();
+        given(mockedServiceDao.findVersionByExternalId(serviceExternalId)).willReturn(Optional.of(0L));
         given(mockedServiceDao.findByExternalId(serviceExternalId)).willReturn(Optional.of(serviceEntity));
         Response response = RESOURCES.target(format("/v1/api/services/%s", serviceExternalId)).request().get();
 
@@ -124,6 +136,7 @@ public class ServiceResourceFindTest extends ServiceResourceBaseTest {
                 .withServiceNameEntity(SupportedLanguage.ENGLISH, EN_SERVICE_NAME)
                 .withServiceNameEntity(SupportedLanguage.WELSH, CY_SERVICE_NAME)
                 .build();
+        given(mockedServiceDao.findVersionByExternalId(serviceExternalId)).willReturn(Optional.of(0L));
         given(mockedServiceDao.findByExternalId(serviceExternalId)).willReturn(Optional.of(serviceEntity));
         Response response = RESOURCES.target(format("/v1/api/services/%s", serviceExternalId)).request().get();
 
@@ -139,6 +152,22 @@ public class ServiceResourceFindTest extends ServiceResourceBaseTest {
         assertLinks(serviceExternalId, json);
     }
 
+    @Test
+    public void shouldTagTheService_withTheVersionItWasReadAt() {
+        String serviceExternalId = randomUuid();
+        Service service = Service.from(1, serviceExternalId, new ServiceName(EN_SERVICE_NAME));
+        service.setVersion(4L);
+        ServiceEntity serviceEntity = mock(ServiceEntity.class);
+        given(serviceEntity.toService()).willReturn(service);
+        given(mockedServiceDao.findVersionByExternalId(serviceExternalId)).willReturn(Optional.of(3L));
+        given(mockedServiceDao.findByExternalId(serviceExternalId)).willReturn(Optional.of(serviceEntity));
+
+        Response response = RESOURCES.target(format("/v1/api/services/%s", serviceExternalId)).request().get();
+
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getEntityTag(), is(new EntityTag("4")));
+    }
+
     @Test
     public void shouldFind_existingServiceByGatewayAccountId() {
         GatewayAccountIdEntity gatewayAccountIdEntity = new GatewayAccountIdEntity();
@@ -200,6 +229,12 @@ public class ServiceResourceFindTest extends ServiceResourceBaseTest {
         assertThat(jsonPath.getList("errors").get(0), is("Find services currently support only by gatewayAccountId"));
     }
 
+    private static ServiceLookupCoalescingConfiguration serviceLookupCoalescingConfiguration() {
+        ServiceLookupCoalescingConfiguration configuration = mock(ServiceLookupCoalescingConfiguration.class);
+        given(configuration.getTimeout()).willReturn(Duration.seconds(10));
+        return configuration;
+    }
+
     private void assertMerchantDetails(MerchantDetailsEntity merchantDetails, JsonPath jsonPath) {
         assertThat(jsonPath.get("merchant_details.address_line1"), is(merchantDetails.getAddressLine1()));
         assertThat(jsonPath.get("merchant_details.address_line2"), is(merchantDetails.getAddressLine2()));
@@ -1,5 +1,6 @@
 package uk.gov.pay.adminusers.unit.service;
 
+import io.dropwizard.jackson.Jackson;
 import io.dropwizard.testing.junit.ResourceTestRule;
 import io.restassured.path.json.JsonPath;
 import org.junit.Before;
@@ -65,7 +66,8 @@ public class ServiceResourceUpdateTest extends ServiceResourceBaseTest {
                     stripeAgreementService,
                     payAgreementRequestValidator,
                     agreementService,
-                    sendLiveAccountCreatedEmailService))
+                    sendLiveAccountCreatedEmailService,
+                    Jackson.newObjectMapper()))
             .build();
 
     @Before
@@ -315,7 +317,7 @@ public class ServiceResourceUpdateTest extends ServiceResourceBaseTest {
         String jsonPayload = fixture("fixtures/resource/service/patch/array-add-gateway-account-ids.json");
         when(mockedServiceDao.findByExternalId(externalId)).thenReturn(Optional.of(thisServiceEntity));
         when(mockedServiceDao.merge(thisServiceEntity)).thenReturn(thisServiceEntity);
-        when(mockedServiceDao.checkIfGatewayAccountsUsed(Collections.singletonList("1014748185"))).thenReturn(false);
+        when(mockedServiceDao.findGatewayAccountIdsInUse(Collections.singletonList("1014748185"))).thenReturn(Collections.emptyList());
 
         Response response = RESOURCES.target(format(API_PATH, thisServiceEntity.getExternalId()))
                 .request()
@@ -342,7 +344,7 @@ public class ServiceResourceUpdateTest extends ServiceResourceBaseTest {
         String jsonPayload = fixture("fixtures/resource/service/patch/array-add-gateway-account-ids.json");
         when(mockedServiceDao.findByExternalId(thisServiceEntity.getExternalId())).thenReturn(Optional.of(thisServiceEntity));
         when(mockedServiceDao.merge(thisServiceEntity)).thenReturn(thisServiceEntity);
-        when(mockedServiceDao.checkIfGatewayAccountsUsed(Collections.singletonList("1014748185"))).thenReturn(false);
+        when(mockedServiceDao.findGatewayAccountIdsInUse(Collections.singletonList("1014748185"))).thenReturn(Collections.emptyList());
 
         Response response = RESOURCES.target(format(API_PATH, thisServiceEntity.getExternalId()))
                 .request()
@@ -363,7 +365,7 @@ public class ServiceResourceUpdateTest extends ServiceResourceBaseTest {
         String jsonPayload = fixture("fixtures/resource/service/patch/array-add-gateway-account-ids.json");
         when(mockedServiceDao.findByExternalId(thisServiceEntity.getExternalId())).thenReturn(Optional.of(thisServiceEntity));
         when(mockedServiceDao.merge(thisServiceEntity)).thenReturn(thisServiceEntity);
-        when(mockedServiceDao.checkIfGatewayAccountsUsed(Collections.singletonList("1014748185"))).thenReturn(true);
+        when(mockedServiceDao.findGatewayAccountIdsInUse(Collections.singletonList("1014748185"))).thenReturn(Collections.singletonList("1014748185"));
 
         Response response = RESOURCES.target(format(API_PATH, thisServiceEntity.getExternalId()))
                 .request()
@@ -375,7 +377,7 @@ public class ServiceResourceUpdateTest extends ServiceResourceBaseTest {
         JsonPath json = JsonPath.from(body);
 
         assertThat(json.getList("errors"), hasSize(1));
-        assertThat(json.getList("errors"), contains("One or more of the following gateway account ids has already assigned to another service: [1014748185]"));
+        assertThat(json.getList("errors"), contains("The following gateway account ids are already assigned to another service: [1014748185]"));
     }
 
     @Test
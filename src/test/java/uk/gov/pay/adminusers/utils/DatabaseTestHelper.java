@@ -33,8 +33,8 @@ public class DatabaseTestHelper {
 
     public List<Map<String, Object>> findUserByExternalId(String externalId) {
         return jdbi.withHandle(h ->
-                h.createQuery("SELECT id, external_id, username, password, email, otp_key, telephone_number, disabled, login_counter, \"createdAt\", \"updatedAt\", session_version " +
-                        "FROM users " +
+                h.createQuery("SELECT id, external_id, username, password, email, otp_key, telephone_number, disabled, user_login_state.login_counter, \"createdAt\", \"updatedAt\", session_version " +
+                        "FROM users LEFT JOIN user_login_state ON user_login_state.user_id = users.id " +
                         "WHERE external_id = :externalId")
                         .bind("externalId", externalId)
                         .mapToMap().list());
@@ -42,8 +42,8 @@ public class DatabaseTestHelper {
 
     public List<Map<String, Object>> findUserByUsername(String username) {
         return jdbi.withHandle(h ->
-                h.createQuery("SELECT id, external_id, username, password, email, otp_key, telephone_number, disabled, login_counter, \"createdAt\", \"updatedAt\", session_version " +
-                        "FROM users " +
+                h.createQuery("SELECT id, external_id, username, password, email, otp_key, telephone_number, disabled, user_login_state.login_counter, \"createdAt\", \"updatedAt\", session_version " +
+                        "FROM users LEFT JOIN user_login_state ON user_login_state.user_id = users.id " +
                         "WHERE username = :username")
                         .bind("username", username)
                         .mapToMap().list());
@@ -51,8 +51,8 @@ public class DatabaseTestHelper {
 
     public List<Map<String, Object>> findUser(long userId) {
         return jdbi.withHandle(h ->
-                h.createQuery("SELECT id, external_id, username, password, email, otp_key, telephone_number, disabled, login_counter, \"createdAt\", \"updatedAt\", session_version " +
-                        "FROM users " +
+                h.createQuery("SELECT id, external_id, username, password, email, otp_key, telephone_number, disabled, user_login_state.login_counter, \"createdAt\", \"updatedAt\", session_version " +
+                        "FROM users LEFT JOIN user_login_state ON user_login_state.user_id = users.id " +
                         "WHERE id = :userId")
                         .bind("userId", userId)
                         .mapToMap().list());
@@ -76,6 +76,24 @@ public class DatabaseTestHelper {
                         .mapToMap().list());
     }
 
+    public List<Map<String, Object>> findForgottenPasswordsByUserId(Integer userId) {
+        return jdbi.withHandle(h ->
+                h.createQuery("SELECT id, date, code, \"userId\" " +
+                        "FROM forgotten_passwords " +
+                        "WHERE \"userId\" = :userId")
+                        .bind("userId", userId)
+                        .mapToMap().list());
+    }
+
+    public List<Map<String, Object>> findForgottenPasswordEmailsByUserId(Integer userId) {
+        return jdbi.withHandle(h ->
+                h.createQuery("SELECT id, forgotten_password_id, user_id, sent_at " +
+                        "FROM forgotten_password_emails " +
+                        "WHERE user_id = :userId")
+                        .bind("userId", userId)
+                        .mapToMap().list());
+    }
+
     public List<Map<String, Object>> findInviteById(Integer inviteId) {
         return jdbi.withHandle(h ->
                 h.createQuery("SELECT id, sender_id, date, code, email, role_id, service_id, otp_key, telephone_number, disabled, login_counter " +
@@ -88,8 +106,22 @@ public class DatabaseTestHelper {
     public DatabaseTestHelper updateLoginCount(String username, int loginCount) {
         jdbi.withHandle(handle ->
                 handle
-                        .createUpdate("UPDATE users SET login_counter = :loginCount " +
-                                "WHERE username = :username")
+                        .createUpdate("UPDATE user_login_state SET login_counter = :loginCount " +
+                                "WHERE user_id = (SELECT id FROM users WHERE username = :username)")
+                        .bind("loginCount", loginCount)
+                        .bind("username", username)
+                        .execute()
+        );
+        return this;
+    }
+
+    /**
+     * Writes the login counter the way the previous release does, to the column on users it no longer reads.
+     */
+    public DatabaseTestHelper updateLegacyLoginCount(String username, int loginCount) {
+        jdbi.withHandle(handle ->
+                handle
+                        .createUpdate("UPDATE users SET login_counter = :loginCount WHERE username = :username")
                         .bind("loginCount", loginCount)
                         .bind("username", username)
                         .execute()
@@ -116,10 +148,10 @@ public class DatabaseTestHelper {
                 handle
                         .createUpdate("INSERT INTO users(" +
                                 "id, external_id, username, password, email, otp_key, telephone_number, " +
-                                "second_factor, disabled, login_counter, version, " +
+                                "second_factor, disabled, version, " +
                                 "\"createdAt\", \"updatedAt\", session_version, provisional_otp_key) " +
                                 "VALUES (:id, :externalId, :username, :password, :email, :otpKey, :telephoneNumber, " +
-                                ":secondFactor, :disabled, :loginCounter, :version, :createdAt, :updatedAt, :session_version, :provisionalOtpKey)")
+                                ":secondFactor, :disabled, :version, :createdAt, :updatedAt, :session_version, :provisionalOtpKey)")
                         .bind("id", user.getId())
                         .bind("externalId", user.getExternalId())
                         .bind("username", user.getUsername())
@@ -129,7 +161,6 @@ public class DatabaseTestHelper {
                         .bind("telephoneNumber", user.getTelephoneNumber())
                         .bind("secondFactor", user.getSecondFactor().toString())
                         .bind("disabled", user.isDisabled())
-                        .bind("loginCounter", user.getLoginCounter())
                         .bind("version", 0)
                         .bind("session_version", user.getSessionVersion())
                         .bind("createdAt", now)
@@ -137,9 +168,37 @@ public class DatabaseTestHelper {
                         .bind("provisionalOtpKey", user.getProvisionalOtpKey())
                         .execute()
         );
+        jdbi.withHandle(handle ->
+                handle
+                        .createUpdate("INSERT INTO user_login_state(user_id, login_counter, updated_at) " +
+                                "VALUES (:userId, :loginCounter, :updatedAt)")
+                        .bind("userId", user.getId())
+                        .bind("loginCounter", user.getLoginCounter())
+                        .bind("updatedAt", now)
+                        .execute()
+        );
         return this;
     }
 
+    /**
+     * The Postgres transaction id that last wrote the users row, which changes every time the row is rewritten.
+     */
+    public String findUserRowTransactionId(long userId) {
+        return jdbi.withHandle(h ->
+                h.createQuery("SELECT xmin::text FROM users WHERE id = :userId")
+                        .bind("userId", userId)
+                        .mapTo(String.class)
+                        .one());
+    }
+
+    public List<Map<String, Object>> findUserLoginState(long userId) {
+        return jdbi.withHandle(h ->
+                h.createQuery("SELECT user_id, login_counter, last_logged_in_at, updated_at FROM user_login_state " +
+                        "WHERE user_id = :userId")
+                        .bind("userId", userId)
+                        .mapToMap().list());
+    }
+
     //inserting if not exist, just to be safe for fixed value inserts like Admin role
     public DatabaseTestHelper add(Role role) {
         jdbi.withHandle(handle ->
@@ -202,7 +261,7 @@ public class DatabaseTestHelper {
         jdbi.withHandle(handle ->
         {
             PGobject customBranding = service.getCustomBranding() == null ? null :
-                    new CustomBrandingConverter().convertToDatabaseColumn(service.getCustomBranding());
+                    new CustomBrandingConverter().convertToDatabaseColumn(CustomBrandingConverter.toJson(service.getCustomBranding()));
             MerchantDetails merchantDetails = service.getMerchantDetails();
             if (merchantDetails == null) {
                 merchantDetails = new MerchantDetails();
@@ -377,7 +436,7 @@ public class DatabaseTestHelper {
         jdbi.withHandle(handle ->
         {
             PGobject customBranding = serviceEntity.getCustomBranding() == null ? null :
-                    new CustomBrandingConverter().convertToDatabaseColumn(serviceEntity.getCustomBranding());
+                    new CustomBrandingConverter().convertToDatabaseColumn(CustomBrandingConverter.toJson(serviceEntity.getCustomBranding()));
             MerchantDetailsEntity merchantDetails = serviceEntity.getMerchantDetailsEntity();
 
             return handle.createUpdate("INSERT INTO services(" +